@@ -29,9 +29,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import proguard.analysis.Metrics;
 import proguard.analysis.Metrics.MetricType;
+import proguard.analysis.metrics.FlightRecorderEventType;
+import proguard.analysis.metrics.MetricsRegistry;
 import proguard.classfile.AccessConstants;
 import proguard.classfile.Clazz;
 import proguard.classfile.LibraryClass;
@@ -135,6 +138,14 @@ public class Dex2Pro {
   private static final int MAX_STATEMENTS =
       Integer.parseInt(System.getProperty("proguard.dexconversion.maxstatements", "0"));
 
+  private static final FlightRecorderEventType CONVERT_DEX_EVENT_TYPE =
+      new FlightRecorderEventType(
+          "proguard.ConvertDex",
+          "Convert Dex",
+          "Conversion of the classes of a dex file",
+          FlightRecorderEventType.field(int.class, "classCount", "Class Count"),
+          FlightRecorderEventType.field(boolean.class, "multithreaded", "Multithreaded"));
+
   private boolean usePrimitiveArrayConstants = false;
 
   // Used when multithreaded mode is enabled
@@ -594,15 +605,40 @@ public class Dex2Pro {
     // If multithreading is enabled, queue up the class nodes for conversion, otherwise just
     // process them directly on the main thread, to save time on spin-up overhead etc.
     Map<String, Clz> classInfo = Collections.unmodifiableMap(collectClzInfo(fileNode));
-    if (executor != null) {
+
+    FlightRecorderEventType.Event event = CONVERT_DEX_EVENT_TYPE.begin();
+    if (event != null) {
+      event.set(0, fileNode.clzs.size()).set(1, executor != null);
+    }
+
+    // Pass on the active metrics registry, since the worker threads
+    // don't see it.
+    MetricsRegistry metrics = MetricsRegistry.getActive();
+    if (executor != null && !fileNode.clzs.isEmpty()) {
       // Wrap the visitor in a synchronized helper class
       ClassVisitor syncVisitor = new SynchronizedClassVisitor(classVisitor);
+
+      // The worker that converts the last class commits the event.
+      AtomicInteger remainingClassCount = new AtomicInteger(fileNode.clzs.size());
       fileNode.clzs.stream()
-          .map(classNode -> new WorkItem(classInfo, fileNode, classNode, syncVisitor))
+          .map(
+              classNode ->
+                  new WorkItem(
+                      classInfo,
+                      fileNode,
+                      classNode,
+                      syncVisitor,
+                      metrics,
+                      remainingClassCount,
+                      event))
           .forEach(executor::execute);
     } else {
       fileNode.clzs.forEach(
-          classNode -> convertClass(fileNode, classNode, classVisitor, classInfo));
+          classNode -> convertClass(fileNode, classNode, classVisitor, classInfo, metrics));
+
+      if (event != null) {
+        event.commit();
+      }
     }
   }
 
@@ -620,13 +656,23 @@ public class Dex2Pro {
     }
   }
 
-  /** Converts the given Dex class and applies the given class visitor to it. */
+  /**
+   * Converts the given Dex class and applies the given class visitor to it, recording the time in
+   * the given metrics registry, if any.
+   */
   private void convertClass(
       DexFileNode dfn,
       DexClassNode classNode,
       ClassVisitor classVisitor,
-      Map<String, Clz> classes) {
+      Map<String, Clz> classes,
+      MetricsRegistry metrics) {
+    long startTime = metrics != null ? System.nanoTime() : 0L;
+
     convertClass(dfn.dexVersion, classNode, classVisitor, classes);
+
+    if (metrics != null) {
+      metrics.timer(MetricsRegistry.DEX_CONVERSION).record(System.nanoTime() - startTime);
+    }
   }
 
   /** Converts the given Dex class and applies the given class visitor to it. */
@@ -1279,21 +1325,36 @@ public class Dex2Pro {
     private final DexFileNode fileNode;
     private final DexClassNode classNode;
     private final ClassVisitor classVisitor;
+    private final MetricsRegistry metrics;
+    private final AtomicInteger remainingClassCount;
+    private final FlightRecorderEventType.Event event;
 
     public WorkItem(
         Map<String, Clz> classInfo,
         DexFileNode fileNode,
         DexClassNode classNode,
-        ClassVisitor classVisitor) {
+        ClassVisitor classVisitor,
+        MetricsRegistry metrics,
+        AtomicInteger remainingClassCount,
+        FlightRecorderEventType.Event event) {
       this.classInfo = classInfo;
       this.fileNode = fileNode;
       this.classNode = classNode;
       this.classVisitor = classVisitor;
+      this.metrics = metrics;
+      this.remainingClassCount = remainingClassCount;
+      this.event = event;
     }
 
     @Override
     public void run() {
-      convertClass(fileNode, classNode, classVisitor, classInfo);
+      try {
+        convertClass(fileNode, classNode, classVisitor, classInfo, metrics);
+      } finally {
+        if (remainingClassCount.decrementAndGet() == 0 && event != null) {
+          event.commit();
+        }
+      }
     }
   }
 
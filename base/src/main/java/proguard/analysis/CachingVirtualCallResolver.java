@@ -0,0 +1,70 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package proguard.analysis;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import proguard.classfile.Clazz;
+
+/**
+ * Thread-safe cache for the results of {@link CallUtil#resolveVirtual(Clazz, String, String)}. The
+ * same receiver types and methods, e.g. {@code Object#toString()}, typically occur at many virtual
+ * call sites, so this avoids walking their class hierarchies over and over again.
+ *
+ * <p>The cached results are only valid as long as the class hierarchy doesn't change. Call {@link
+ * #clear()} after having changed the classes, their superclasses, interfaces, or methods. A single
+ * instance can be shared between call resolvers, including call resolvers in different threads.
+ */
+public class CachingVirtualCallResolver {
+  private final Map<Clazz, Map<String, Set<String>>> targetClassesByClass =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Returns the cached result of {@link CallUtil#resolveVirtual(Clazz, String, String)}, computing
+   * it if necessary.
+   *
+   * @param thisPointerType The type of the <code>this</code> pointer of the call (JVM spec:
+   *     "objectref").
+   * @param methodName The name of the invoked method.
+   * @param descriptor The descriptor of the invoked method.
+   * @return An unmodifiable set with the fully qualified names of potential call target classes.
+   */
+  public Set<String> resolveVirtual(Clazz thisPointerType, String methodName, String descriptor) {
+    if (thisPointerType == null) {
+      return Collections.emptySet();
+    }
+
+    // The descriptor always starts with a parenthesis, so the key is
+    // unambiguous.
+    return targetClassesByClass
+        .computeIfAbsent(thisPointerType, clazz -> new ConcurrentHashMap<>())
+        .computeIfAbsent(
+            methodName + descriptor,
+            key ->
+                Collections.unmodifiableSet(
+                    CallUtil.resolveVirtual(thisPointerType, methodName, descriptor)));
+  }
+
+  /** Clears all cached results, e.g. after the class hierarchy has changed. */
+  public void clear() {
+    targetClassesByClass.clear();
+  }
+}
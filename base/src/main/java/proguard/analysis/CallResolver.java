@@ -139,6 +139,7 @@ public class CallResolver implements AttributeVisitor, ClassVisitor, Instruction
   private final boolean selectiveParameterReconstruction;
   private final Set<MethodSignature> interestingMethods;
   private final Set<Predicate<Call>> interestingCallPredicates;
+  private final CachingVirtualCallResolver cachingVirtualCallResolver;
 
   private CurrentClazzMethodAttribute currentClazzMethodAttribute;
 
@@ -248,6 +249,56 @@ public class CallResolver implements AttributeVisitor, ClassVisitor, Instruction
       Set<MethodSignature> interestingMethods,
       Set<Predicate<Call>> interestingCallPredicates,
       CallHandler... callHandlers) {
+    this(
+        programClassPool,
+        libraryClassPool,
+        callGraph,
+        clearCallValuesAfterVisit,
+        useDominatorAnalysis,
+        evaluateAllCode,
+        includeSubClasses,
+        maxPartialEvaluations,
+        shouldAnalyzeNextCodeAttribute,
+        skipIncompleteCalls,
+        arrayValueFactory,
+        ignoreExceptions,
+        executingInvocationUnitBuilder,
+        selectiveParameterReconstruction,
+        interestingMethods,
+        interestingCallPredicates,
+        null,
+        callHandlers);
+  }
+
+  /**
+   * Create a new call resolver that optionally caches the targets of virtual calls.
+   *
+   * <p>See {@link #CallResolver(ClassPool, ClassPool, CallGraph, boolean, boolean, boolean,
+   * boolean, int, Supplier, boolean, ValueFactory, boolean, ExecutingInvocationUnit.Builder,
+   * boolean, Set, Set, CallHandler...)} for the other parameters.
+   *
+   * @param cachingVirtualCallResolver An optional cache for the targets of virtual calls, which can
+   *     be shared between call resolvers.
+   */
+  public CallResolver(
+      ClassPool programClassPool,
+      ClassPool libraryClassPool,
+      CallGraph callGraph,
+      boolean clearCallValuesAfterVisit,
+      boolean useDominatorAnalysis,
+      boolean evaluateAllCode,
+      boolean includeSubClasses,
+      int maxPartialEvaluations,
+      Supplier<Boolean> shouldAnalyzeNextCodeAttribute,
+      boolean skipIncompleteCalls,
+      ValueFactory arrayValueFactory,
+      boolean ignoreExceptions,
+      ExecutingInvocationUnit.Builder executingInvocationUnitBuilder,
+      boolean selectiveParameterReconstruction,
+      Set<MethodSignature> interestingMethods,
+      Set<Predicate<Call>> interestingCallPredicates,
+      CachingVirtualCallResolver cachingVirtualCallResolver,
+      CallHandler... callHandlers) {
     this.programClassPool = programClassPool;
     this.libraryClassPool = libraryClassPool;
     this.callGraph = callGraph;
@@ -265,6 +316,7 @@ public class CallResolver implements AttributeVisitor, ClassVisitor, Instruction
     }
     this.interestingMethods = interestingMethods;
     this.interestingCallPredicates = interestingCallPredicates;
+    this.cachingVirtualCallResolver = cachingVirtualCallResolver;
     this.callHandlers = Arrays.asList(callHandlers);
     dominatorCalculator = new DominatorCalculator(ignoreExceptions);
 
@@ -813,7 +865,10 @@ public class CallResolver implements AttributeVisitor, ClassVisitor, Instruction
           Metrics.increaseCount(MetricType.MISSING_CLASS);
         }
 
-        Set<String> targetClasses = CallUtil.resolveVirtual(location.clazz, referencedClass, ref);
+        Set<String> targetClasses =
+            cachingVirtualCallResolver != null
+                ? cachingVirtualCallResolver.resolveVirtual(referencedClass, name, descriptor)
+                : CallUtil.resolveVirtual(location.clazz, referencedClass, ref);
         if (targetClasses.isEmpty()) {
           if (referencedClass != null) {
             Metrics.increaseCount(MetricType.MISSING_METHODS);
@@ -868,6 +923,7 @@ public class CallResolver implements AttributeVisitor, ClassVisitor, Instruction
     private boolean selectiveParameterReconstruction = false;
     private Set<MethodSignature> interestingMethods;
     private Set<Predicate<Call>> interestingCallPredicates;
+    private CachingVirtualCallResolver cachingVirtualCallResolver;
 
     private ExecutingInvocationUnit.Builder executingInvocationUnitBuilder;
 
@@ -994,6 +1050,17 @@ public class CallResolver implements AttributeVisitor, ClassVisitor, Instruction
       return this;
     }
 
+    /**
+     * Caches the targets of virtual calls in the given {@link CachingVirtualCallResolver}, which
+     * can be shared between call resolvers. The cache must be cleared whenever the class hierarchy
+     * changes.
+     */
+    public Builder setCachingVirtualCallResolver(
+        CachingVirtualCallResolver cachingVirtualCallResolver) {
+      this.cachingVirtualCallResolver = cachingVirtualCallResolver;
+      return this;
+    }
+
     public CallResolver build() {
       return new CallResolver(
           programClassPool,
@@ -1012,6 +1079,7 @@ public class CallResolver implements AttributeVisitor, ClassVisitor, Instruction
           selectiveParameterReconstruction,
           interestingMethods,
           interestingCallPredicates,
+          cachingVirtualCallResolver,
           callHandlers);
     }
   }
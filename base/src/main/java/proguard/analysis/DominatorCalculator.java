@@ -33,10 +33,7 @@ import proguard.classfile.Clazz;
 import proguard.classfile.Method;
 import proguard.classfile.attribute.*;
 import proguard.classfile.attribute.visitor.AttributeVisitor;
-import proguard.classfile.instruction.BranchInstruction;
 import proguard.classfile.instruction.Instruction;
-import proguard.classfile.instruction.InstructionFactory;
-import proguard.classfile.instruction.SwitchInstruction;
 import proguard.exception.ProguardCoreException;
 
 /**
@@ -205,6 +202,8 @@ public class DominatorCalculator implements AttributeVisitor {
       // conversion).
       return;
     }
+    InstructionIndex instructionIndex = codeAttribute.getInstructionIndex();
+
     LinkedHashSet<Integer> workList = new LinkedHashSet<>();
     workList.add(0);
     workList.addAll(findExceptionHandlers(codeAttribute, 0));
@@ -218,25 +217,29 @@ public class DominatorCalculator implements AttributeVisitor {
                   () -> new IllegalStateException("Can't get last element in non-empty work list"));
       workList.remove(offset);
 
-      Instruction instruction = InstructionFactory.create(codeAttribute.code, offset);
-      int instructionLength = instruction.length(offset);
-      int nextOffset = offset + instructionLength;
+      int index = instructionIndex.getIndex(offset);
+      if (index < 0) {
+        throw new IllegalArgumentException("Invalid instruction offset [" + offset + "]");
+      }
+
+      byte opcode = instructionIndex.getOpcode(index);
+      int nextOffset = instructionIndex.getNextOffset(index);
       boolean nextOffsetExists = nextOffset < codeAttribute.u4codeLength;
 
       Set<Integer> successors = new HashSet<>();
-      if (instruction instanceof BranchInstruction) {
-        BranchInstruction branch = (BranchInstruction) instruction;
-        successors.add(offset + branch.branchOffset);
-        if (nextOffsetExists && !UNCONDITIONAL_BRANCHES.contains(branch.opcode)) {
-          successors.add(nextOffset);
+      int branchTargetCount = instructionIndex.getBranchTargetCount(index);
+      if (branchTargetCount > 0) {
+        // Branch and switch instructions.
+        for (int branchTarget = 0; branchTarget < branchTargetCount; branchTarget++) {
+          successors.add(instructionIndex.getBranchTarget(index, branchTarget));
         }
-      } else if (instruction instanceof SwitchInstruction) {
-        SwitchInstruction switchInstruction = (SwitchInstruction) instruction;
-        successors.add(offset + switchInstruction.defaultOffset);
-        for (int jumpOffset : switchInstruction.jumpOffsets) {
-          successors.add(offset + jumpOffset);
+        if (nextOffsetExists
+            && opcode != Instruction.OP_TABLESWITCH
+            && opcode != Instruction.OP_LOOKUPSWITCH
+            && !UNCONDITIONAL_BRANCHES.contains(opcode)) {
+          successors.add(nextOffset);
         }
-      } else if (RETURN_INSTRUCTIONS.contains(instruction.opcode)) {
+      } else if (RETURN_INSTRUCTIONS.contains(opcode)) {
         propagateToSuccessor(offset, EXIT_NODE_OFFSET);
       } else if (nextOffsetExists) {
         successors.add(nextOffset);
@@ -0,0 +1,136 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.analysis;
+
+import static proguard.classfile.ClassConstants.METHOD_NAME_CLINIT;
+import static proguard.classfile.ClassConstants.METHOD_NAME_INIT;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import proguard.analysis.datastructure.callgraph.Call;
+import proguard.analysis.datastructure.callgraph.CallGraph;
+import proguard.classfile.ClassPool;
+import proguard.classfile.Clazz;
+import proguard.classfile.MethodSignature;
+import proguard.classfile.attribute.visitor.AllAttributeVisitor;
+
+/**
+ * This class updates an existing {@link CallGraph} after some methods of the program have been
+ * changed, added, or removed, e.g. by an optimization pass. Instead of clearing the call graph and
+ * resolving all calls of the program again, it only removes and re-resolves the outgoing calls of
+ * the affected methods:
+ *
+ * <ul>
+ *   <li>the changed methods themselves,
+ *   <li>the methods that call the changed methods, and
+ *   <li>the methods that call any method with the same name and descriptor as a changed method,
+ *       since the targets of their virtual calls may have changed.
+ * </ul>
+ *
+ * The calls of removed methods are removed from the call graph. Changes to the class hierarchy,
+ * e.g. a new superclass, can be handled by passing all methods of the affected classes.
+ *
+ * <p>The given {@link CallResolver} must add its calls to the same call graph. If it uses a {@link
+ * CachingVirtualCallResolver}, that cache must be cleared after changes to the class hierarchy.
+ */
+public class IncrementalCallResolver {
+  private final ClassPool programClassPool;
+  private final CallGraph callGraph;
+  private final CallResolver callResolver;
+
+  /**
+   * Creates a new IncrementalCallResolver.
+   *
+   * @param programClassPool the program class pool, containing the current versions of the
+   *     classes.
+   * @param callGraph the call graph to be updated.
+   * @param callResolver the call resolver that adds the calls of the re-resolved methods to the
+   *     call graph.
+   */
+  public IncrementalCallResolver(
+      ClassPool programClassPool, CallGraph callGraph, CallResolver callResolver) {
+    this.programClassPool = programClassPool;
+    this.callGraph = callGraph;
+    this.callResolver = callResolver;
+  }
+
+  /**
+   * Updates the call graph after the given methods have been changed, added, or removed.
+   *
+   * @param changedMethods the signatures of the changed, added, or removed methods.
+   * @return the signatures of the methods whose calls have been resolved again.
+   */
+  public Set<MethodSignature> resolveChangedMethods(Collection<MethodSignature> changedMethods) {
+    Set<MethodSignature> affectedMethods = new LinkedHashSet<>(changedMethods);
+
+    // Collect the direct callers and the names and descriptors of the
+    // methods that may be invoked virtually.
+    Set<String> virtualMethods = new HashSet<>();
+    for (MethodSignature changedMethod : changedMethods) {
+      addCallers(callGraph.incoming.get(changedMethod), affectedMethods);
+
+      if (!changedMethod.isIncomplete()
+          && !METHOD_NAME_INIT.equals(changedMethod.method)
+          && !METHOD_NAME_CLINIT.equals(changedMethod.method)) {
+        virtualMethods.add(changedMethod.method + changedMethod.descriptor);
+      }
+    }
+
+    // Collect the callers of any methods that may be overridden by or
+    // may override the changed methods.
+    if (!virtualMethods.isEmpty()) {
+      for (Map.Entry<MethodSignature, Set<Call>> entry : callGraph.incoming.entrySet()) {
+        MethodSignature target = entry.getKey();
+        if (!target.isIncomplete() && virtualMethods.contains(target.method + target.descriptor)) {
+          addCallers(entry.getValue(), affectedMethods);
+        }
+      }
+    }
+
+    // Remove the old calls and resolve the current ones, if the methods
+    // still exist. The calls to removed methods disappear, since their
+    // callers are resolved again as well.
+    Set<MethodSignature> resolvedMethods = new LinkedHashSet<>();
+    for (MethodSignature affectedMethod : affectedMethods) {
+      callGraph.removeOutgoingCalls(affectedMethod);
+
+      Clazz clazz = programClassPool.getClass(affectedMethod.getClassName());
+      if (clazz != null
+          && !affectedMethod.isIncomplete()
+          && clazz.findMethod(affectedMethod.method, affectedMethod.descriptor.toString())
+              != null) {
+        clazz.methodAccept(
+            affectedMethod.method,
+            affectedMethod.descriptor.toString(),
+            new AllAttributeVisitor(callResolver));
+        resolvedMethods.add(affectedMethod);
+      }
+    }
+
+    return resolvedMethods;
+  }
+
+  private static void addCallers(Set<Call> calls, Set<MethodSignature> callers) {
+    if (calls != null) {
+      calls.forEach(call -> callers.add((MethodSignature) call.caller.signature));
+    }
+  }
+}
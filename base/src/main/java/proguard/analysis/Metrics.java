@@ -3,8 +3,14 @@ package proguard.analysis;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.Map;
+import proguard.analysis.metrics.MetricsRegistry;
 
-/** Utility to collect statistical information. */
+/**
+ * Utility to collect statistical information.
+ *
+ * <p>The counts are collected globally. They are also added to the counters of the {@link
+ * MetricsRegistry} that is active, if any, under the names of their metric types.
+ */
 public class Metrics {
 
   /** Constants which are used as metric types. */
@@ -30,6 +36,11 @@ public class Metrics {
 
   public static void increaseCount(MetricType type) {
     counts.merge(type, 1, Integer::sum);
+
+    MetricsRegistry metrics = MetricsRegistry.getActive();
+    if (metrics != null) {
+      metrics.counter(type.name()).increment();
+    }
   }
 
   /** Get all collected data as a string and clear it afterwards. */
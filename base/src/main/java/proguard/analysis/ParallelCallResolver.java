@@ -0,0 +1,131 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package proguard.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import proguard.analysis.datastructure.callgraph.Call;
+import proguard.analysis.datastructure.callgraph.CallGraph;
+import proguard.classfile.ClassPool;
+import proguard.classfile.Clazz;
+import proguard.classfile.visitor.ClassPoolVisitor;
+import proguard.classfile.visitor.ClassVisitor;
+import proguard.classfile.visitor.ParallelAllClassVisitor;
+
+/**
+ * This {@link ClassPoolVisitor} fills a {@link CallGraph} with the calls in all classes of the
+ * visited class pool, resolving the calls of different classes in parallel. Each thread uses its
+ * own {@link CallResolver}, created by a given {@link CallResolverFactory}.
+ *
+ * <p>The threads collect the calls of each class separately. Once all classes have been analyzed,
+ * the calls are added to the call graph in the order of the classes in the class pool. The
+ * resulting call graph is therefore the same as the call graph that a single {@link CallResolver}
+ * creates when visiting all classes, including the iteration order of its calls. The call graph
+ * doesn't need to be concurrent.
+ *
+ * <p>Any {@link CallHandler}s and {@link CallResolver.Builder#setShouldAnalyzeNextCodeAttribute
+ * suppliers} that are shared between the call resolvers must be thread-safe.
+ *
+ * <p>The number of threads is the same as for {@link ParallelAllClassVisitor}.
+ */
+public class ParallelCallResolver implements ClassPoolVisitor {
+  /** A factory for {@link CallResolver} objects. */
+  public interface CallResolverFactory {
+    /**
+     * Creates a CallResolver that adds the calls that it finds to the given call graph. It will be
+     * used by a single thread.
+     */
+    CallResolver createCallResolver(CallGraph callGraph);
+  }
+
+  private final CallGraph callGraph;
+  private final CallResolverFactory callResolverFactory;
+
+  /**
+   * Creates a new ParallelCallResolver.
+   *
+   * @param callGraph the call graph to which all calls are added.
+   * @param callResolverFactory the factory for the call resolvers of the individual threads.
+   */
+  public ParallelCallResolver(CallGraph callGraph, CallResolverFactory callResolverFactory) {
+    this.callGraph = callGraph;
+    this.callResolverFactory = callResolverFactory;
+  }
+
+  // Implementations for ClassPoolVisitor.
+
+  @Override
+  public void visitClassPool(ClassPool classPool) {
+    Map<Clazz, List<Call>> callsByClass = new ConcurrentHashMap<>();
+
+    // Resolve the calls of all classes in parallel.
+    classPool.accept(
+        new ParallelAllClassVisitor(() -> new CallCollectingClassVisitor(callsByClass)));
+
+    // Add the calls to the call graph in a deterministic order.
+    classPool.classesAccept(
+        clazz -> {
+          List<Call> calls = callsByClass.get(clazz);
+          if (calls != null) {
+            calls.forEach(callGraph::addCall);
+          }
+        });
+  }
+
+  /** This {@link ClassVisitor} collects the calls that its call resolver finds in each class. */
+  private class CallCollectingClassVisitor implements ClassVisitor {
+    private final Map<Clazz, List<Call>> callsByClass;
+    private final CallCollector callCollector = new CallCollector();
+    private final CallResolver callResolver =
+        callResolverFactory.createCallResolver(callCollector);
+
+    private CallCollectingClassVisitor(Map<Clazz, List<Call>> callsByClass) {
+      this.callsByClass = callsByClass;
+    }
+
+    // Implementations for ClassVisitor.
+
+    @Override
+    public void visitAnyClass(Clazz clazz) {
+      List<Call> calls = new ArrayList<>();
+
+      callCollector.calls = calls;
+      clazz.accept(callResolver);
+      callCollector.calls = null;
+
+      if (!calls.isEmpty()) {
+        callsByClass.put(clazz, calls);
+      }
+    }
+  }
+
+  /** This {@link CallGraph} just collects the calls that are added to it, in order. */
+  private static class CallCollector extends CallGraph {
+    private List<Call> calls;
+
+    // Overridden methods for CallGraph.
+
+    @Override
+    public void addCall(Call call) {
+      calls.add(call);
+    }
+  }
+}
@@ -28,6 +28,8 @@ import proguard.analysis.cpa.interfaces.ConfigurableProgramAnalysis;
 import proguard.analysis.cpa.interfaces.Precision;
 import proguard.analysis.cpa.interfaces.ReachedSet;
 import proguard.analysis.cpa.interfaces.Waitlist;
+import proguard.analysis.metrics.FlightRecorderEventType;
+import proguard.analysis.metrics.MetricsRegistry;
 
 /**
  * This is the <a
@@ -40,6 +42,14 @@ import proguard.analysis.cpa.interfaces.Waitlist;
 public class CpaAlgorithm<StateT extends AbstractState<StateT>> {
 
   private static final Logger log = LogManager.getLogger(CpaAlgorithm.class);
+  private static final FlightRecorderEventType RUN_EVENT_TYPE =
+      new FlightRecorderEventType(
+          "proguard.CpaRun",
+          "CPA Run",
+          "Run of the CPA algorithm",
+          FlightRecorderEventType.field(int.class, "stateCount", "Processed States"),
+          FlightRecorderEventType.field(int.class, "waitlistPeak", "Waitlist Peak"));
+
   private final ConfigurableProgramAnalysis<StateT> cpa;
 
   /**
@@ -57,7 +67,38 @@ public class CpaAlgorithm<StateT extends AbstractState<StateT>> {
    * selection of parameters allows resuming the algorithm from a saved state.
    */
   public void run(ReachedSet<StateT> reachedSet, Waitlist<StateT> waitlist) {
+    MetricsRegistry metrics = MetricsRegistry.getActive();
+    FlightRecorderEventType.Event event = RUN_EVENT_TYPE.begin();
+    if (metrics == null && event == null) {
+      run0(reachedSet, waitlist, null);
+    } else {
+      long startTime = System.nanoTime();
+      RunStatistics statistics = new RunStatistics();
+      run0(reachedSet, waitlist, statistics);
+
+      if (metrics != null) {
+        metrics.timer(MetricsRegistry.CPA_RUN).record(System.nanoTime() - startTime);
+        metrics.histogram(MetricsRegistry.CPA_ITERATIONS).record(statistics.stateCount);
+      }
+
+      if (event != null) {
+        event.set(0, statistics.stateCount).set(1, statistics.waitlistPeak).commit();
+      }
+    }
+  }
+
+  /**
+   * Runs the algorithm updating the {@code reachedSet} and the {@code waitlist}, collecting
+   * statistics about the run if they are not null.
+   */
+  private void run0(
+      ReachedSet<StateT> reachedSet, Waitlist<StateT> waitlist, RunStatistics statistics) {
     while (!waitlist.isEmpty()) {
+      if (statistics != null) {
+        statistics.stateCount++;
+        statistics.waitlistPeak = Math.max(statistics.waitlistPeak, waitlist.size());
+      }
+
       StateT currentState = waitlist.pop();
       try {
         if (cpa.getAbortOperator().abort(currentState)) {
@@ -109,4 +150,12 @@ public class CpaAlgorithm<StateT extends AbstractState<StateT>> {
       }
     }
   }
+
+  /** The statistics of a run of the algorithm. */
+  private static class RunStatistics {
+    // The number of abstract states taken from the waitlist.
+    private int stateCount;
+    // The largest size of the waitlist.
+    private int waitlistPeak;
+  }
 }
@@ -97,6 +97,32 @@ public class CallGraph {
     return concurrent ? Collections.synchronizedSet(new LinkedHashSet<>()) : new LinkedHashSet<>();
   }
 
+  /**
+   * Remove all outgoing {@link Call}s of a method from this call graph, updating the incoming calls
+   * of their targets accordingly.
+   *
+   * @param caller The method whose outgoing calls should be removed.
+   * @return The removed calls, or an empty set if the method doesn't have any outgoing calls.
+   */
+  public Set<Call> removeOutgoingCalls(MethodSignature caller) {
+    Set<Call> calls = outgoing.remove(caller);
+    if (calls == null) {
+      return Collections.emptySet();
+    }
+
+    for (Call call : calls) {
+      Set<Call> targetCalls = incoming.get(call.getTarget());
+      if (targetCalls != null) {
+        targetCalls.remove(call);
+        if (targetCalls.isEmpty()) {
+          incoming.remove(call.getTarget());
+        }
+      }
+    }
+
+    return calls;
+  }
+
   /** Clear the call graph references. */
   public void clear() {
     incoming.clear();
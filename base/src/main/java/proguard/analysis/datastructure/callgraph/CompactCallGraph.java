@@ -0,0 +1,250 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package proguard.analysis.datastructure.callgraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import proguard.classfile.MethodSignature;
+import proguard.util.CallGraphWalker;
+
+/**
+ * Immutable, compact representation of the edges of a {@link CallGraph}, for fast traversals of
+ * large call graphs. Each method has an integer id, from 0 up to the number of methods. The
+ * successors and predecessors of all methods are stored in flat arrays of ids, indexed by offset
+ * arrays (compressed sparse rows). Duplicate edges between the same methods are only stored once.
+ *
+ * <p>The compact call graph can optionally also keep the original {@link Call}s, for clients that
+ * need their metadata. See {@link CallGraphWalker} for traversals.
+ */
+public class CompactCallGraph {
+  private final MethodSignature[] methods;
+  private final Map<MethodSignature, Integer> methodIds;
+
+  private final int[] successorOffsets;
+  private final int[] successors;
+  private final int[] predecessorOffsets;
+  private final int[] predecessors;
+
+  private final int[] callOffsets;
+  private final Call[] calls;
+
+  private CompactCallGraph(
+      MethodSignature[] methods,
+      Map<MethodSignature, Integer> methodIds,
+      int[] successorOffsets,
+      int[] successors,
+      int[] predecessorOffsets,
+      int[] predecessors,
+      int[] callOffsets,
+      Call[] calls) {
+    this.methods = methods;
+    this.methodIds = methodIds;
+    this.successorOffsets = successorOffsets;
+    this.successors = successors;
+    this.predecessorOffsets = predecessorOffsets;
+    this.predecessors = predecessors;
+    this.callOffsets = callOffsets;
+    this.calls = calls;
+  }
+
+  /**
+   * Creates a compact representation of the given call graph, without its calls.
+   *
+   * @param callGraph The {@link CallGraph} to convert.
+   */
+  public static CompactCallGraph of(CallGraph callGraph) {
+    return of(callGraph, false);
+  }
+
+  /**
+   * Creates a compact representation of the given call graph.
+   *
+   * @param callGraph The {@link CallGraph} to convert.
+   * @param keepCalls If true, the outgoing {@link Call}s of each method are kept, so they can be
+   *     retrieved with {@link #getCalls(int)}.
+   */
+  public static CompactCallGraph of(CallGraph callGraph, boolean keepCalls) {
+    // Assign ids to all methods, in the order in which we encounter them.
+    Map<MethodSignature, Integer> methodIds = new HashMap<>();
+    List<MethodSignature> methodList = new ArrayList<>();
+
+    callGraph.outgoing.forEach(
+        (caller, callSet) -> {
+          addMethod(caller, methodIds, methodList);
+          callSet.forEach(call -> addMethod(call.getTarget(), methodIds, methodList));
+        });
+    callGraph.incoming.keySet().forEach(target -> addMethod(target, methodIds, methodList));
+
+    int methodCount = methodList.size();
+
+    // Collect the unique successors of all methods.
+    int[] successorOffsets = new int[methodCount + 1];
+    int[] successors = new int[16];
+    int[] predecessorCounts = new int[methodCount];
+    int[] lastCallers = new int[methodCount];
+    Arrays.fill(lastCallers, -1);
+    int successorCount = 0;
+
+    int[] callOffsets = keepCalls ? new int[methodCount + 1] : null;
+    List<Call> callList = keepCalls ? new ArrayList<>() : null;
+
+    for (int caller = 0; caller < methodCount; caller++) {
+      successorOffsets[caller] = successorCount;
+      if (keepCalls) {
+        callOffsets[caller] = callList.size();
+      }
+
+      Set<Call> callSet = callGraph.outgoing.get(methodList.get(caller));
+      if (callSet != null) {
+        for (Call call : callSet) {
+          int target = methodIds.get(call.getTarget());
+          if (lastCallers[target] != caller) {
+            lastCallers[target] = caller;
+
+            if (successorCount == successors.length) {
+              successors = Arrays.copyOf(successors, successorCount * 2);
+            }
+            successors[successorCount++] = target;
+            predecessorCounts[target]++;
+          }
+
+          if (keepCalls) {
+            callList.add(call);
+          }
+        }
+      }
+    }
+
+    successorOffsets[methodCount] = successorCount;
+    successors = Arrays.copyOf(successors, successorCount);
+
+    if (keepCalls) {
+      callOffsets[methodCount] = callList.size();
+    }
+
+    // Invert the edges, with the predecessors of each method sorted by id.
+    int[] predecessorOffsets = new int[methodCount + 1];
+    for (int method = 0; method < methodCount; method++) {
+      predecessorOffsets[method + 1] = predecessorOffsets[method] + predecessorCounts[method];
+    }
+
+    int[] predecessors = new int[successorCount];
+    int[] predecessorIndices = Arrays.copyOf(predecessorOffsets, methodCount);
+    for (int caller = 0; caller < methodCount; caller++) {
+      for (int index = successorOffsets[caller]; index < successorOffsets[caller + 1]; index++) {
+        predecessors[predecessorIndices[successors[index]]++] = caller;
+      }
+    }
+
+    return new CompactCallGraph(
+        methodList.toArray(new MethodSignature[0]),
+        methodIds,
+        successorOffsets,
+        successors,
+        predecessorOffsets,
+        predecessors,
+        callOffsets,
+        keepCalls ? callList.toArray(new Call[0]) : null);
+  }
+
+  /** Returns the number of methods in this call graph. */
+  public int getMethodCount() {
+    return methods.length;
+  }
+
+  /** Returns the number of unique edges between methods in this call graph. */
+  public int getEdgeCount() {
+    return successors.length;
+  }
+
+  /** Returns the method with the given id. */
+  public MethodSignature getMethod(int methodId) {
+    return methods[methodId];
+  }
+
+  /** Returns the id of the given method, or -1 if it isn't part of this call graph. */
+  public int getMethodId(MethodSignature method) {
+    Integer methodId = methodIds.get(method);
+    return methodId != null ? methodId : -1;
+  }
+
+  /** Returns the number of unique methods that the method with the given id calls. */
+  public int getSuccessorCount(int methodId) {
+    return successorOffsets[methodId + 1] - successorOffsets[methodId];
+  }
+
+  /**
+   * Returns the id of a method that the method with the given id calls.
+   *
+   * @param methodId The id of the calling method.
+   * @param index The index of the successor, from 0 up to the successor count.
+   */
+  public int getSuccessor(int methodId, int index) {
+    return successors[successorOffsets[methodId] + index];
+  }
+
+  /** Returns the number of unique methods that call the method with the given id. */
+  public int getPredecessorCount(int methodId) {
+    return predecessorOffsets[methodId + 1] - predecessorOffsets[methodId];
+  }
+
+  /**
+   * Returns the id of a method that calls the method with the given id.
+   *
+   * @param methodId The id of the called method.
+   * @param index The index of the predecessor, from 0 up to the predecessor count.
+   */
+  public int getPredecessor(int methodId, int index) {
+    return predecessors[predecessorOffsets[methodId] + index];
+  }
+
+  /** Returns whether this call graph has kept the original {@link Call}s. */
+  public boolean hasCalls() {
+    return calls != null;
+  }
+
+  /**
+   * Returns the outgoing {@link Call}s of the method with the given id, if this call graph has kept
+   * them.
+   */
+  public List<Call> getCalls(int methodId) {
+    if (calls == null) {
+      throw new IllegalStateException("The compact call graph doesn't keep its calls");
+    }
+
+    return Collections.unmodifiableList(
+        Arrays.asList(calls).subList(callOffsets[methodId], callOffsets[methodId + 1]));
+  }
+
+  // Small utility methods.
+
+  private static void addMethod(
+      MethodSignature method,
+      Map<MethodSignature, Integer> methodIds,
+      List<MethodSignature> methodList) {
+    if (methodIds.putIfAbsent(method, methodList.size()) == null) {
+      methodList.add(method);
+    }
+  }
+}
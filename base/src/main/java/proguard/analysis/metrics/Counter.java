@@ -0,0 +1,45 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.analysis.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This metric counts events. It can be incremented concurrently by multiple threads without
+ * contention.
+ *
+ * @see MetricsRegistry
+ */
+public class Counter {
+  private final LongAdder count = new LongAdder();
+
+  /** Increments the count by one. */
+  public void increment() {
+    count.increment();
+  }
+
+  /** Increments the count by the given amount. */
+  public void add(long amount) {
+    count.add(amount);
+  }
+
+  /** Returns the current count. */
+  public long getCount() {
+    return count.sum();
+  }
+}
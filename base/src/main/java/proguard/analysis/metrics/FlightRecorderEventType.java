@@ -0,0 +1,378 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.analysis.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class represents a type of Java Flight Recorder events, e.g. for the evaluations of methods.
+ * Instrumented code can emit events of this type while JFR is recording. For example:
+ *
+ * <pre>
+ *     FlightRecorderEventType.Event event = EVENT_TYPE.begin();
+ *     ...
+ *     if (event != null) {
+ *         event.set(0, clazz.getName());
+ *         event.commit();
+ *     }
+ * </pre>
+ *
+ * The event type is only registered with JFR when it is first used after JFR has been initialized,
+ * e.g. with the {@code -XX:StartFlightRecording} option, so unused event types don't start up JFR.
+ * When JFR isn't recording events of this type, {@link #begin()} only checks this and returns
+ * null.
+ *
+ * <p>ProGuardCORE is compiled for Java 8, without the JFR API. This class therefore accesses the
+ * API through method handles and creates the event types dynamically. On runtimes without JFR, it
+ * never emits any events.
+ */
+public class FlightRecorderEventType {
+  /** The category of all event types of ProGuardCORE. */
+  public static final String CATEGORY = "ProGuardCORE";
+
+  private static final Logger logger = LogManager.getLogger(FlightRecorderEventType.class);
+
+  // The method to check whether JFR has been initialized, or null if JFR isn't available.
+  private static final MethodHandle isInitialized = findIsInitialized();
+
+  // Whether JFR has been initialized. Once initialized, it remains so.
+  private static volatile boolean flightRecorderInitialized;
+
+  // The JFR API, created once JFR has been initialized.
+  private static volatile FlightRecorderApi api;
+
+  private final String name;
+  private final String label;
+  private final String description;
+  private final Field[] fields;
+
+  private volatile boolean initialized;
+  private Object eventFactory;
+  private Object eventType;
+
+  /**
+   * Creates a new FlightRecorderEventType.
+   *
+   * @param name the unique name of the event type, e.g. "proguard.PartialEvaluation".
+   * @param label the human-readable label of the event type.
+   * @param description the description of the event type.
+   * @param fields the fields of the events, in the order of their indices.
+   */
+  public FlightRecorderEventType(String name, String label, String description, Field... fields) {
+    this.name = name;
+    this.label = label;
+    this.description = description;
+    this.fields = fields;
+  }
+
+  /** Creates a field for an event type. The type can be a primitive type or String. */
+  public static Field field(Class<?> type, String name, String label) {
+    return new Field(type, name, label);
+  }
+
+  /** Returns whether JFR is currently recording events of this type. */
+  public boolean isEnabled() {
+    if (!initialized) {
+      // Don't start up JFR if it isn't recording anything yet.
+      if (!isFlightRecorderInitialized()) {
+        return false;
+      }
+
+      initialize();
+    }
+
+    return eventType != null && api.isEnabled(eventType);
+  }
+
+  /**
+   * Starts timing a new event of this type, if JFR is recording events of this type.
+   *
+   * @return the new event, or null if JFR isn't recording events of this type.
+   */
+  public Event begin() {
+    if (!isEnabled()) {
+      return null;
+    }
+
+    Event event = new Event(api.newEvent(eventFactory));
+    event.begin();
+    return event;
+  }
+
+  // Small utility methods.
+
+  /** Registers this event type with JFR. */
+  private synchronized void initialize() {
+    if (!initialized) {
+      try {
+        if (api == null) {
+          api = new FlightRecorderApi();
+        }
+
+        eventFactory = api.createEventFactory(name, label, description, fields);
+        eventType = api.getEventType(eventFactory);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        logger.debug("Can't register flight recorder event type [{}]", name, e);
+      }
+
+      initialized = true;
+    }
+  }
+
+  /**
+   * Returns the method to check whether JFR has been initialized, or null if it isn't available.
+   */
+  private static MethodHandle findIsInitialized() {
+    try {
+      return MethodHandles.publicLookup()
+          .findStatic(
+              Class.forName("jdk.jfr.FlightRecorder"),
+              "isInitialized",
+              MethodType.methodType(boolean.class));
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+
+  /** Returns whether JFR is available and has been initialized. */
+  private static boolean isFlightRecorderInitialized() {
+    if (!flightRecorderInitialized && isInitialized != null) {
+      try {
+        // Only write the flag once it changes, to avoid a memory barrier on every check.
+        if ((boolean) isInitialized.invokeExact()) {
+          flightRecorderInitialized = true;
+        }
+      } catch (Throwable e) {
+        return false;
+      }
+    }
+
+    return flightRecorderInitialized;
+  }
+
+  /** A field of a {@link FlightRecorderEventType}. */
+  public static class Field {
+    private final Class<?> type;
+    private final String name;
+    private final String label;
+
+    private Field(Class<?> type, String name, String label) {
+      this.type = type;
+      this.name = name;
+      this.label = label;
+    }
+  }
+
+  /** An event of a {@link FlightRecorderEventType}, which is emitted when it is committed. */
+  public static class Event {
+    private final Object event;
+
+    private Event(Object event) {
+      this.event = event;
+    }
+
+    /** Sets the value of the field with the given index. */
+    public Event set(int index, Object value) {
+      api.set(event, index, value);
+      return this;
+    }
+
+    /** Ends timing the event and emits it. */
+    public void commit() {
+      api.commit(event);
+    }
+
+    private void begin() {
+      api.begin(event);
+    }
+  }
+
+  /**
+   * This class provides access to the JFR API of the runtime, which isn't available when compiling
+   * for Java 8.
+   */
+  private static class FlightRecorderApi {
+    private final Constructor<?> annotationElementConstructor;
+    private final Constructor<?> valueDescriptorConstructor;
+    private final Method createEventFactory;
+    private final Class<? extends Annotation> nameAnnotation;
+    private final Class<? extends Annotation> labelAnnotation;
+    private final Class<? extends Annotation> descriptionAnnotation;
+    private final Class<? extends Annotation> categoryAnnotation;
+
+    private final MethodHandle getEventType;
+    private final MethodHandle isEnabled;
+    private final MethodHandle newEvent;
+    private final MethodHandle begin;
+    private final MethodHandle set;
+    private final MethodHandle commit;
+
+    public FlightRecorderApi() throws ReflectiveOperationException {
+      Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+      Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+      Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+      Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+      Class<?> eventClass = Class.forName("jdk.jfr.Event");
+
+      annotationElementConstructor =
+          annotationElementClass.getConstructor(Class.class, Object.class);
+      valueDescriptorConstructor =
+          valueDescriptorClass.getConstructor(Class.class, String.class, List.class);
+      createEventFactory = eventFactoryClass.getMethod("create", List.class, List.class);
+
+      nameAnnotation = annotationClass("jdk.jfr.Name");
+      labelAnnotation = annotationClass("jdk.jfr.Label");
+      descriptionAnnotation = annotationClass("jdk.jfr.Description");
+      categoryAnnotation = annotationClass("jdk.jfr.Category");
+
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      getEventType =
+          lookup
+              .findVirtual(eventFactoryClass, "getEventType", MethodType.methodType(eventTypeClass))
+              .asType(MethodType.methodType(Object.class, Object.class));
+      isEnabled =
+          lookup
+              .findVirtual(eventTypeClass, "isEnabled", MethodType.methodType(boolean.class))
+              .asType(MethodType.methodType(boolean.class, Object.class));
+      newEvent =
+          lookup
+              .findVirtual(eventFactoryClass, "newEvent", MethodType.methodType(eventClass))
+              .asType(MethodType.methodType(Object.class, Object.class));
+      begin =
+          lookup
+              .findVirtual(eventClass, "begin", MethodType.methodType(void.class))
+              .asType(MethodType.methodType(void.class, Object.class));
+      set =
+          lookup
+              .findVirtual(
+                  eventClass, "set", MethodType.methodType(void.class, int.class, Object.class))
+              .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+      commit =
+          lookup
+              .findVirtual(eventClass, "commit", MethodType.methodType(void.class))
+              .asType(MethodType.methodType(void.class, Object.class));
+    }
+
+    public Object createEventFactory(
+        String name, String label, String description, Field[] fields) {
+      try {
+        List<Object> annotationElements =
+            Arrays.asList(
+                annotationElement(nameAnnotation, name),
+                annotationElement(labelAnnotation, label),
+                annotationElement(descriptionAnnotation, description),
+                annotationElement(categoryAnnotation, new String[] {CATEGORY}));
+
+        List<Object> valueDescriptors = new ArrayList<>(fields.length);
+        for (Field field : fields) {
+          valueDescriptors.add(
+              valueDescriptorConstructor.newInstance(
+                  field.type,
+                  field.name,
+                  Collections.singletonList(annotationElement(labelAnnotation, field.label))));
+        }
+
+        return createEventFactory.invoke(null, annotationElements, valueDescriptors);
+      } catch (ReflectiveOperationException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    public Object getEventType(Object eventFactory) {
+      try {
+        return (Object) getEventType.invokeExact(eventFactory);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    public boolean isEnabled(Object eventType) {
+      try {
+        return (boolean) isEnabled.invokeExact(eventType);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    public Object newEvent(Object eventFactory) {
+      try {
+        return (Object) newEvent.invokeExact(eventFactory);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    public void begin(Object event) {
+      try {
+        begin.invokeExact(event);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    public void set(Object event, int index, Object value) {
+      try {
+        set.invokeExact(event, index, value);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    public void commit(Object event) {
+      try {
+        commit.invokeExact(event);
+      } catch (Throwable e) {
+        throw rethrow(e);
+      }
+    }
+
+    // Small utility methods.
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Annotation> annotationClass(String className)
+        throws ClassNotFoundException {
+      return (Class<? extends Annotation>) Class.forName(className);
+    }
+
+    private Object annotationElement(Class<? extends Annotation> annotationClass, Object value)
+        throws ReflectiveOperationException {
+      return annotationElementConstructor.newInstance(annotationClass, value);
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+      if (e instanceof RuntimeException) {
+        return (RuntimeException) e;
+      }
+      if (e instanceof Error) {
+        throw (Error) e;
+      }
+      return new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.analysis.metrics;
+
+/**
+ * This {@link MetricVisitor} emits the metrics that it visits as Java Flight Recorder events, if
+ * JFR is recording them. For example, to record the metrics of a run at its end:
+ *
+ * <pre>
+ *     metricsRegistry.metricsAccept(new FlightRecorderMetricVisitor());
+ * </pre>
+ *
+ * @see FlightRecorderEventType
+ */
+public class FlightRecorderMetricVisitor implements MetricVisitor {
+  private static final FlightRecorderEventType METRIC_EVENT_TYPE =
+      new FlightRecorderEventType(
+          "proguard.Metric",
+          "Metric",
+          "The value of a metric of a MetricsRegistry",
+          FlightRecorderEventType.field(String.class, "name", "Name"),
+          FlightRecorderEventType.field(String.class, "kind", "Kind"),
+          FlightRecorderEventType.field(long.class, "count", "Count"),
+          FlightRecorderEventType.field(long.class, "sum", "Sum"),
+          FlightRecorderEventType.field(long.class, "max", "Maximum"));
+
+  // Implementations for MetricVisitor.
+
+  @Override
+  public void visitCounter(String name, Counter counter) {
+    long count = counter.getCount();
+    emit(name, "counter", count, count, count);
+  }
+
+  @Override
+  public void visitTimer(String name, Timer timer) {
+    emit(name, "timer", timer.getCount(), timer.getTotalNanos(), timer.getMaxNanos());
+  }
+
+  @Override
+  public void visitHistogram(String name, Histogram histogram) {
+    emit(name, "histogram", histogram.getCount(), histogram.getSum(), histogram.getMax());
+  }
+
+  // Small utility methods.
+
+  private void emit(String name, String kind, long count, long sum, long max) {
+    FlightRecorderEventType.Event event = METRIC_EVENT_TYPE.begin();
+    if (event != null) {
+      event.set(0, name).set(1, kind).set(2, count).set(3, sum).set(4, max).commit();
+    }
+  }
+}
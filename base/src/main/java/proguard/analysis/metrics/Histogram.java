@@ -0,0 +1,89 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.analysis.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This metric records the distribution of non-negative values, e.g. the sizes of methods. It counts
+ * the values in buckets with powers of two as bounds: bucket 0 contains the value 0, and bucket
+ * {@code i > 0} contains the values from {@code 2^(i-1)} up to {@code 2^i - 1}. It can be updated
+ * concurrently by multiple threads without contention.
+ *
+ * @see MetricsRegistry
+ */
+public class Histogram {
+  /** The number of buckets, enough for all non-negative long values. */
+  public static final int BUCKET_COUNT = 64;
+
+  private final LongAdder[] bucketCounts = new LongAdder[BUCKET_COUNT];
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+  /** Creates a new empty Histogram. */
+  public Histogram() {
+    for (int index = 0; index < BUCKET_COUNT; index++) {
+      bucketCounts[index] = new LongAdder();
+    }
+  }
+
+  /** Records the given value. Negative values are recorded as 0. */
+  public void record(long value) {
+    value = Math.max(value, 0L);
+
+    bucketCounts[bucketIndex(value)].increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  /** Returns the number of recorded values. */
+  public long getCount() {
+    long count = 0L;
+    for (LongAdder bucketCount : bucketCounts) {
+      count += bucketCount.sum();
+    }
+
+    return count;
+  }
+
+  /** Returns the sum of the recorded values. */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  /** Returns the largest recorded value, or 0 if there aren't any. */
+  public long getMax() {
+    return max.get();
+  }
+
+  /** Returns the number of recorded values in the bucket with the given index. */
+  public long getBucketCount(int bucketIndex) {
+    return bucketCounts[bucketIndex].sum();
+  }
+
+  /** Returns the largest value that fits in the bucket with the given index. */
+  public static long getBucketMax(int bucketIndex) {
+    return bucketIndex == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucketIndex) - 1L;
+  }
+
+  /** Returns the index of the bucket that contains the given non-negative value. */
+  public static int bucketIndex(long value) {
+    return Long.SIZE - Long.numberOfLeadingZeros(value);
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.analysis.metrics;
+
+/**
+ * This interface specifies the methods for a visitor of the metrics in a {@link MetricsRegistry},
+ * e.g. to export them.
+ */
+public interface MetricVisitor {
+  void visitCounter(String name, Counter counter);
+
+  void visitTimer(String name, Timer timer);
+
+  void visitHistogram(String name, Histogram histogram);
+}
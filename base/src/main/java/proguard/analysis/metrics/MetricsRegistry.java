@@ -0,0 +1,268 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.analysis.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This registry collects named {@link Counter}, {@link Timer} and {@link Histogram} metrics.
+ *
+ * <p>A registry collects the metrics of a single run, rather than all metrics of the process. The
+ * instrumented parts of ProGuardCORE record their metrics in the registry that is active in the
+ * current thread, if any. For example:
+ *
+ * <pre>
+ *     MetricsRegistry metrics = new MetricsRegistry();
+ *     try (MetricsRegistry.Scope scope = metrics.activate()) {
+ *         programClassPool.classesAccept(...);
+ *     }
+ *     String json = metrics.toJson();
+ * </pre>
+ *
+ * Without an active registry, the instrumented code only checks for it, without measuring
+ * anything.
+ *
+ * <p>Other threads don't automatically see the active registry, since they may outlive its scope,
+ * e.g. in a shared thread pool. Parallel code passes on the active registry of the calling thread
+ * to its worker threads with {@link #activate(MetricsRegistry)}, like {@link
+ * proguard.classfile.visitor.ParallelAllClassVisitor} does.
+ *
+ * <p>Subclasses can plug in their own implementations of the metrics, e.g. to forward their values
+ * to other monitoring systems.
+ */
+public class MetricsRegistry {
+  /** The timer for reading classes in {@link proguard.io.ClassReader}. */
+  public static final String CLASS_READING = "class.reading";
+  /**
+   * The timer for initializing the references of classes in {@link
+   * proguard.classfile.util.ClassReferenceInitializer}.
+   */
+  public static final String REFERENCE_INITIALIZATION = "reference.initialization";
+  /** The timer for evaluating methods in {@link proguard.evaluation.PartialEvaluator}. */
+  public static final String PARTIAL_EVALUATION = "partial.evaluation";
+  /** The histogram of the number of instruction evaluations per method. */
+  public static final String PARTIAL_EVALUATION_INSTRUCTIONS = "partial.evaluation.instructions";
+  /** The timer for runs of {@link proguard.analysis.cpa.algorithms.CpaAlgorithm}. */
+  public static final String CPA_RUN = "cpa.run";
+  /** The histogram of the number of processed abstract states per CPA run. */
+  public static final String CPA_ITERATIONS = "cpa.iterations";
+  /** The timer for converting classes from dex files. */
+  public static final String DEX_CONVERSION = "dex.conversion";
+
+  private static final ThreadLocal<MetricsRegistry> activeRegistry = new ThreadLocal<>();
+
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the registry that is active in the current thread, or null if there isn't any.
+   * Instrumented code should check the result, and only measure metrics if it isn't null.
+   */
+  public static MetricsRegistry getActive() {
+    return activeRegistry.get();
+  }
+
+  /**
+   * Activates this registry in the current thread, until the returned scope is closed. The
+   * previously active registry is then active again.
+   */
+  public Scope activate() {
+    return activate(this);
+  }
+
+  /**
+   * Activates the given registry in the current thread, until the returned scope is closed. The
+   * previously active registry is then active again.
+   *
+   * @param registry the registry to activate, or null to deactivate any active registry, e.g. the
+   *     registry that was active in a thread that submitted the current task.
+   */
+  public static Scope activate(MetricsRegistry registry) {
+    Scope scope = new Scope(activeRegistry.get());
+    if (registry != null) {
+      activeRegistry.set(registry);
+    } else {
+      activeRegistry.remove();
+    }
+    return scope;
+  }
+
+  /** Returns the counter with the given name, creating it if necessary. */
+  public Counter counter(String name) {
+    return counters.computeIfAbsent(name, this::createCounter);
+  }
+
+  /** Returns the timer with the given name, creating it if necessary. */
+  public Timer timer(String name) {
+    return timers.computeIfAbsent(name, this::createTimer);
+  }
+
+  /** Returns the histogram with the given name, creating it if necessary. */
+  public Histogram histogram(String name) {
+    return histograms.computeIfAbsent(name, this::createHistogram);
+  }
+
+  /** Lets the given visitor visit all metrics, sorted by kind and name. */
+  public void metricsAccept(MetricVisitor metricVisitor) {
+    new TreeMap<>(counters).forEach(metricVisitor::visitCounter);
+    new TreeMap<>(timers).forEach(metricVisitor::visitTimer);
+    new TreeMap<>(histograms).forEach(metricVisitor::visitHistogram);
+  }
+
+  /**
+   * Returns all metrics as a JSON object, with the counts of counters, the counts, total and
+   * maximum durations of timers, and the counts, sums, maximums and non-empty buckets of
+   * histograms. The buckets are keyed by the largest values that they contain.
+   */
+  public String toJson() {
+    JsonBuilder jsonBuilder = new JsonBuilder();
+    metricsAccept(jsonBuilder);
+    return jsonBuilder.toJson();
+  }
+
+  // Methods for subclasses to plug in their own metrics.
+
+  /** Creates a counter with the given name. */
+  protected Counter createCounter(String name) {
+    return new Counter();
+  }
+
+  /** Creates a timer with the given name. */
+  protected Timer createTimer(String name) {
+    return new Timer();
+  }
+
+  /** Creates a histogram with the given name. */
+  protected Histogram createHistogram(String name) {
+    return new Histogram();
+  }
+
+  /** The scope in which a registry is active. Closing it restores the previous registry. */
+  public static class Scope implements AutoCloseable {
+    private final MetricsRegistry previousRegistry;
+
+    private Scope(MetricsRegistry previousRegistry) {
+      this.previousRegistry = previousRegistry;
+    }
+
+    @Override
+    public void close() {
+      if (previousRegistry != null) {
+        activeRegistry.set(previousRegistry);
+      } else {
+        activeRegistry.remove();
+      }
+    }
+  }
+
+  /** This {@link MetricVisitor} collects the metrics that it visits in a JSON object. */
+  private static class JsonBuilder implements MetricVisitor {
+    private final Map<String, StringBuilder> sections = new HashMap<>();
+
+    @Override
+    public void visitCounter(String name, Counter counter) {
+      section("counters", name).append(counter.getCount());
+    }
+
+    @Override
+    public void visitTimer(String name, Timer timer) {
+      section("timers", name)
+          .append("{\"count\":")
+          .append(timer.getCount())
+          .append(",\"totalNanos\":")
+          .append(timer.getTotalNanos())
+          .append(",\"maxNanos\":")
+          .append(timer.getMaxNanos())
+          .append("}");
+    }
+
+    @Override
+    public void visitHistogram(String name, Histogram histogram) {
+      StringBuilder builder =
+          section("histograms", name)
+              .append("{\"count\":")
+              .append(histogram.getCount())
+              .append(",\"sum\":")
+              .append(histogram.getSum())
+              .append(",\"max\":")
+              .append(histogram.getMax())
+              .append(",\"buckets\":{");
+
+      String separator = "";
+      for (int index = 0; index < Histogram.BUCKET_COUNT; index++) {
+        long bucketCount = histogram.getBucketCount(index);
+        if (bucketCount > 0L) {
+          builder
+              .append(separator)
+              .append('"')
+              .append(Histogram.getBucketMax(index))
+              .append("\":")
+              .append(bucketCount);
+          separator = ",";
+        }
+      }
+
+      builder.append("}}");
+    }
+
+    public String toJson() {
+      StringBuilder builder = new StringBuilder("{");
+      String separator = "";
+      for (String kind : new String[] {"counters", "timers", "histograms"}) {
+        StringBuilder section = sections.get(kind);
+        builder.append(separator).append('"').append(kind).append("\":{");
+        if (section != null) {
+          builder.append(section);
+        }
+        builder.append('}');
+        separator = ",";
+      }
+
+      return builder.append('}').toString();
+    }
+
+    // Small utility methods.
+
+    /** Starts a new entry with the given name in the given section, and returns the section. */
+    private StringBuilder section(String kind, String name) {
+      StringBuilder section = sections.get(kind);
+      if (section == null) {
+        section = new StringBuilder();
+        sections.put(kind, section);
+      } else {
+        section.append(',');
+      }
+
+      section.append('"');
+      for (int index = 0; index < name.length(); index++) {
+        char c = name.charAt(index);
+        if (c == '"' || c == '\\') {
+          section.append('\\');
+        }
+        section.append(c);
+      }
+
+      return section.append("\":");
+    }
+  }
+}
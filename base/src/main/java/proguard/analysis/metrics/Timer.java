@@ -0,0 +1,61 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.analysis.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This metric records the durations of operations, in nanoseconds. It can be updated concurrently
+ * by multiple threads without contention. For example:
+ *
+ * <pre>
+ *     long startTime = System.nanoTime();
+ *     ...
+ *     timer.record(System.nanoTime() - startTime);
+ * </pre>
+ *
+ * @see MetricsRegistry
+ */
+public class Timer {
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+  /** Records an operation with the given duration, in nanoseconds. */
+  public void record(long durationNanos) {
+    count.increment();
+    totalNanos.add(durationNanos);
+    maxNanos.accumulate(durationNanos);
+  }
+
+  /** Returns the number of recorded operations. */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /** Returns the total duration of the recorded operations, in nanoseconds. */
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  /** Returns the longest duration of the recorded operations, in nanoseconds. */
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+}
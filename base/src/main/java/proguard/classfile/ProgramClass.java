@@ -66,6 +66,14 @@ public class ProgramClass extends SimpleFeatureNamedProcessable implements Clazz
 
   public int subClassCount;
 
+  /**
+   * An extra field counting the changes to the existing constants in the constant pool, for
+   * instance by the {@link proguard.classfile.editor.ConstantPoolRemapper}. Editors that index the
+   * constants, like the {@link proguard.classfile.editor.ConstantPoolEditor}, use it to detect that
+   * their index is out of date.
+   */
+  public int constantPoolModificationCount;
+
   /** Creates an uninitialized ProgramClass. */
   public ProgramClass() {}
 
@@ -41,6 +41,8 @@ public class CodeAttribute extends Attribute {
   public int u2attributesCount;
   public Attribute[] attributes;
 
+  private InstructionIndex instructionIndex;
+
   /** Creates an uninitialized CodeAttribute. */
   public CodeAttribute() {}
 
@@ -99,6 +101,29 @@ public class CodeAttribute extends Attribute {
     return null;
   }
 
+  /**
+   * Returns the index of the instructions of this code attribute, creating it if necessary, so
+   * analyses of the same code can share it. The index is recreated if the code array or the code
+   * length have changed. Instructions that are written with {@link
+   * proguard.classfile.instruction.Instruction#write(CodeAttribute, int)} discard the index. Code
+   * that otherwise changes the instructions inside the same code array has to call {@link
+   * #invalidateInstructionIndex()}.
+   */
+  public InstructionIndex getInstructionIndex() {
+    InstructionIndex index = instructionIndex;
+    if (index == null || !index.isIndexOf(this)) {
+      index = new InstructionIndex(this);
+      instructionIndex = index;
+    }
+
+    return index;
+  }
+
+  /** Discards the index of the instructions, after the instructions have been changed. */
+  public void invalidateInstructionIndex() {
+    instructionIndex = null;
+  }
+
   // Implementations for Attribute.
 
   public void accept(Clazz clazz, Method method, AttributeVisitor attributeVisitor) {
@@ -111,6 +136,18 @@ public class CodeAttribute extends Attribute {
     instructionsAccept(clazz, method, 0, u4codeLength, instructionVisitor);
   }
 
+  /**
+   * Applies the given instruction visitor to all instructions, creating the instructions with the
+   * given factory. The instruction visitor must not keep references to the visited instructions.
+   */
+  public void instructionsAccept(
+      Clazz clazz,
+      Method method,
+      InstructionVisitor instructionVisitor,
+      ReusingInstructionFactory instructionFactory) {
+    instructionsAccept(clazz, method, 0, u4codeLength, instructionVisitor, instructionFactory);
+  }
+
   /** Applies the given instruction visitor to the instruction at the specified offset. */
   public void instructionAccept(
       Clazz clazz, Method method, int offset, InstructionVisitor instructionVisitor) {
@@ -138,6 +175,29 @@ public class CodeAttribute extends Attribute {
     }
   }
 
+  /**
+   * Applies the given instruction visitor to all instructions in the specified range of offsets,
+   * creating the instructions with the given factory. The instruction visitor must not keep
+   * references to the visited instructions.
+   */
+  public void instructionsAccept(
+      Clazz clazz,
+      Method method,
+      int startOffset,
+      int endOffset,
+      InstructionVisitor instructionVisitor,
+      ReusingInstructionFactory instructionFactory) {
+    int offset = startOffset;
+
+    while (offset < endOffset) {
+      // Note that the instruction is reused for the next instruction of the same kind.
+      Instruction instruction = instructionFactory.create(code, offset);
+      int instructionLength = instruction.length(offset);
+      instruction.accept(clazz, method, this, offset, instructionVisitor);
+      offset += instructionLength;
+    }
+  }
+
   /** Applies the given exception visitor to all exceptions. */
   public void exceptionsAccept(
       Clazz clazz, Method method, ExceptionInfoVisitor exceptionInfoVisitor) {
@@ -0,0 +1,315 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.classfile.attribute;
+
+import java.util.Arrays;
+import proguard.classfile.instruction.*;
+
+/**
+ * This class contains the decoded structure of the instructions of a {@link CodeAttribute}: the
+ * offsets and opcodes of all instructions, their branch targets, and their successors and
+ * predecessors in the regular control flow. Analyses can share it to look up instructions by
+ * offset, instead of decoding the code again.
+ *
+ * <p>The index only describes the code for which it was created, so it has to be recreated if the
+ * instructions are changed, including their branch offsets. {@link
+ * CodeAttribute#getInstructionIndex()} returns a shared index that is discarded when the code is
+ * edited. The predecessors are only computed when they are first requested.
+ *
+ * <p>The successors of an instruction are its branch targets (including switch targets) and the
+ * next instruction, unless the instruction always branches, returns, or throws. Exception handlers
+ * are not included. Subroutine returns ({@code ret}) don't have any successors, and subroutine
+ * invocations ({@code jsr}) only have the subroutine as successor. Switch instructions may have
+ * the same target more than once, and their targets then also have them as predecessor more than
+ * once.
+ *
+ * @see CodeAttribute#getInstructionIndex()
+ */
+public class InstructionIndex {
+  private static final int[] EMPTY_OFFSETS = new int[0];
+
+  private final byte[] code;
+  private final int codeLength;
+
+  private final long[] instructionStarts;
+  private final int instructionCount;
+  private final int[] offsets;
+  private final byte[] opcodes;
+
+  private final int[] branchTargetIndices;
+  private final int[] branchTargets;
+  private final boolean[] fallsThrough;
+
+  // The predecessors are only computed when they are first requested. The volatile array is
+  // written last, so a thread that sees it also sees its indices.
+  private int[] predecessorIndices;
+  private volatile int[] predecessors;
+
+  /** Creates a new InstructionIndex for the given code attribute. */
+  public InstructionIndex(CodeAttribute codeAttribute) {
+    this.code = codeAttribute.code;
+    this.codeLength = codeAttribute.u4codeLength;
+
+    ReusingInstructionFactory instructionFactory = new ReusingInstructionFactory();
+
+    // Collect the instruction offsets, opcodes, and branch targets.
+    long[] instructionStarts = new long[(codeLength + 63) >>> 6];
+    int[] offsets = new int[Math.max(16, codeLength / 2 + 1)];
+    byte[] opcodes = new byte[offsets.length];
+    int[] branchTargetIndices = new int[offsets.length + 1];
+    int[] branchTargets = EMPTY_OFFSETS;
+    boolean[] fallsThrough = new boolean[offsets.length];
+
+    int instructionCount = 0;
+    int branchTargetCount = 0;
+    int offset = 0;
+    while (offset < codeLength) {
+      if (instructionCount + 1 >= offsets.length) {
+        int newLength = offsets.length * 2;
+        offsets = Arrays.copyOf(offsets, newLength);
+        opcodes = Arrays.copyOf(opcodes, newLength);
+        branchTargetIndices = Arrays.copyOf(branchTargetIndices, newLength + 1);
+        fallsThrough = Arrays.copyOf(fallsThrough, newLength);
+      }
+
+      // Note that the instruction is reused for the next instruction of the same kind.
+      Instruction instruction = instructionFactory.create(code, offset);
+
+      instructionStarts[offset >>> 6] |= 1L << offset;
+      offsets[instructionCount] = offset;
+      opcodes[instructionCount] = instruction.opcode;
+      branchTargetIndices[instructionCount] = branchTargetCount;
+
+      if (instruction instanceof BranchInstruction) {
+        branchTargets = ensureSize(branchTargets, branchTargetCount + 1);
+        branchTargets[branchTargetCount++] =
+            offset + ((BranchInstruction) instruction).branchOffset;
+      } else if (instruction instanceof SwitchInstruction) {
+        SwitchInstruction switchInstruction = (SwitchInstruction) instruction;
+        int[] jumpOffsets = switchInstruction.jumpOffsets;
+        branchTargets = ensureSize(branchTargets, branchTargetCount + 1 + jumpOffsets.length);
+        branchTargets[branchTargetCount++] = offset + switchInstruction.defaultOffset;
+        for (int jumpOffset : jumpOffsets) {
+          branchTargets[branchTargetCount++] = offset + jumpOffset;
+        }
+      }
+
+      offset += instruction.length(offset);
+
+      fallsThrough[instructionCount] = offset < codeLength && canFallThrough(instruction.opcode);
+
+      instructionCount++;
+    }
+
+    offsets[instructionCount] = codeLength;
+    branchTargetIndices[instructionCount] = branchTargetCount;
+
+    // Trim the arrays, since the index may be kept for a while.
+    this.instructionStarts = instructionStarts;
+    this.instructionCount = instructionCount;
+    this.offsets = Arrays.copyOf(offsets, instructionCount + 1);
+    this.opcodes = Arrays.copyOf(opcodes, instructionCount);
+    this.branchTargetIndices = Arrays.copyOf(branchTargetIndices, instructionCount + 1);
+    this.branchTargets = Arrays.copyOf(branchTargets, branchTargetCount);
+    this.fallsThrough = Arrays.copyOf(fallsThrough, instructionCount);
+  }
+
+  /**
+   * Returns whether this index describes the given code attribute, based on its code array and code
+   * length.
+   */
+  public boolean isIndexOf(CodeAttribute codeAttribute) {
+    return codeAttribute.code == code && codeAttribute.u4codeLength == codeLength;
+  }
+
+  /** Returns the number of instructions. */
+  public int getInstructionCount() {
+    return instructionCount;
+  }
+
+  /** Returns whether an instruction starts at the given offset. */
+  public boolean isInstruction(int offset) {
+    return offset >= 0
+        && offset < codeLength
+        && (instructionStarts[offset >>> 6] & (1L << offset)) != 0;
+  }
+
+  /**
+   * Returns the index of the instruction at the given offset, or -1 if there isn't any instruction
+   * at that offset.
+   */
+  public int getIndex(int offset) {
+    return isInstruction(offset) ? Arrays.binarySearch(offsets, 0, instructionCount, offset) : -1;
+  }
+
+  /** Returns the offset of the instruction with the given index. */
+  public int getOffset(int index) {
+    return offsets[index];
+  }
+
+  /**
+   * Returns the offset of the instruction following the instruction with the given index, or the
+   * code length if it is the last instruction.
+   */
+  public int getNextOffset(int index) {
+    return offsets[index + 1];
+  }
+
+  /** Returns the opcode of the instruction with the given index, skipping any wide prefix. */
+  public byte getOpcode(int index) {
+    return opcodes[index];
+  }
+
+  /**
+   * Returns the number of branch targets of the instruction with the given index. Branch
+   * instructions have one target. Switch instructions have their default target, followed by their
+   * other targets.
+   */
+  public int getBranchTargetCount(int index) {
+    return branchTargetIndices[index + 1] - branchTargetIndices[index];
+  }
+
+  /** Returns the offset of the specified branch target of the instruction with the given index. */
+  public int getBranchTarget(int index, int branchTarget) {
+    return branchTargets[branchTargetIndices[index] + branchTarget];
+  }
+
+  /**
+   * Returns whether the instruction with the given index may continue with the next instruction.
+   */
+  public boolean fallsThrough(int index) {
+    return fallsThrough[index];
+  }
+
+  /** Returns the number of successors of the instruction with the given index. */
+  public int getSuccessorCount(int index) {
+    return getBranchTargetCount(index) + (fallsThrough[index] ? 1 : 0);
+  }
+
+  /**
+   * Returns the offset of the specified successor of the instruction with the given index. The
+   * branch targets come first, followed by the next instruction, if applicable.
+   */
+  public int getSuccessor(int index, int successor) {
+    return successor < getBranchTargetCount(index)
+        ? getBranchTarget(index, successor)
+        : offsets[index + 1];
+  }
+
+  /** Returns the number of predecessors of the instruction with the given index. */
+  public int getPredecessorCount(int index) {
+    predecessors();
+    return predecessorIndices[index + 1] - predecessorIndices[index];
+  }
+
+  /**
+   * Returns the offset of the specified predecessor of the instruction with the given index, in
+   * the order of the offsets of the predecessors.
+   */
+  public int getPredecessor(int index, int predecessor) {
+    int[] predecessors = predecessors();
+    return predecessors[predecessorIndices[index] + predecessor];
+  }
+
+  // Small utility methods.
+
+  /** Returns the predecessors, computing them if necessary. */
+  private int[] predecessors() {
+    int[] predecessors = this.predecessors;
+    if (predecessors == null) {
+      synchronized (this) {
+        predecessors = this.predecessors;
+        if (predecessors == null) {
+          predecessors = computePredecessors();
+        }
+      }
+    }
+
+    return predecessors;
+  }
+
+  /** Computes the predecessors, by inverting the successors. */
+  private int[] computePredecessors() {
+    // Count the predecessors of each instruction and accumulate the counts into start indices.
+    int[] predecessorIndices = new int[instructionCount + 1];
+    for (int index = 0; index < instructionCount; index++) {
+      for (int successor = 0; successor < getSuccessorCount(index); successor++) {
+        predecessorIndices[indexOf(getSuccessor(index, successor)) + 1]++;
+      }
+    }
+
+    for (int index = 0; index < instructionCount; index++) {
+      predecessorIndices[index + 1] += predecessorIndices[index];
+    }
+
+    // Fill out the predecessors.
+    int[] predecessors = new int[predecessorIndices[instructionCount]];
+    int[] predecessorCounts = new int[instructionCount];
+    for (int index = 0; index < instructionCount; index++) {
+      for (int successor = 0; successor < getSuccessorCount(index); successor++) {
+        int successorIndex = indexOf(getSuccessor(index, successor));
+        predecessors[predecessorIndices[successorIndex] + predecessorCounts[successorIndex]++] =
+            offsets[index];
+      }
+    }
+
+    // Publish the indices before the predecessors.
+    this.predecessorIndices = predecessorIndices;
+    this.predecessors = predecessors;
+
+    return predecessors;
+  }
+
+  /** Returns the index of the instruction at the given offset, or throws an exception. */
+  private int indexOf(int offset) {
+    int index = getIndex(offset);
+    if (index < 0) {
+      throw new IllegalArgumentException("Invalid instruction offset [" + offset + "]");
+    }
+
+    return index;
+  }
+
+  /** Returns the given array or a larger copy, with at least the given size. */
+  private static int[] ensureSize(int[] array, int size) {
+    return array.length >= size ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+  }
+
+  /** Returns whether instructions with the given opcode may continue with the next instruction. */
+  private static boolean canFallThrough(byte opcode) {
+    switch (opcode) {
+      case Instruction.OP_GOTO:
+      case Instruction.OP_GOTO_W:
+      case Instruction.OP_JSR:
+      case Instruction.OP_JSR_W:
+      case Instruction.OP_RET:
+      case Instruction.OP_TABLESWITCH:
+      case Instruction.OP_LOOKUPSWITCH:
+      case Instruction.OP_IRETURN:
+      case Instruction.OP_LRETURN:
+      case Instruction.OP_FRETURN:
+      case Instruction.OP_DRETURN:
+      case Instruction.OP_ARETURN:
+      case Instruction.OP_RETURN:
+      case Instruction.OP_ATHROW:
+        return false;
+      default:
+        return true;
+    }
+  }
+}
@@ -624,6 +624,9 @@ public class CodeAttributeComposer
     codeAttribute.u4codeLength = codeLength;
     System.arraycopy(code, 0, codeAttribute.code, 0, codeLength);
 
+    // Any index of the old instructions is no longer valid.
+    codeAttribute.invalidateInstructionIndex();
+
     // Remove exceptions with empty code blocks (done before).
     // exceptionTableLength =
     //    removeEmptyExceptions(exceptionTable, exceptionTableLength);
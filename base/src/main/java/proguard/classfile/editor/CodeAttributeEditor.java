@@ -620,6 +620,9 @@ public class CodeAttributeEditor
 
       // Make sure instructions are widened if necessary.
       instructionWriter.visitCodeAttribute(clazz, method, codeAttribute);
+
+      // Any index of the old instructions is no longer valid.
+      codeAttribute.invalidateInstructionIndex();
     }
 
     // Update the maximum stack size and local variable frame size.
@@ -29,7 +29,15 @@ import proguard.util.ArrayUtil;
  * This class can add constant pool entries to a given class.
  *
  * <p>If you're building a class from scratch, it is more efficient to reuse a single instance of
- * this editor for all constants that you add.
+ * this editor for all constants that you add. The editor then maintains a hash index of the
+ * constants in the constant pool, so looking up existing constants doesn't require a linear scan.
+ * An editor that is reused for many lookups on an existing class builds this index automatically.
+ *
+ * <p>The index is brought up to date if other code appends constants, for instance with another
+ * editor. It is rebuilt if other code changes the existing constants, as signaled by {@link
+ * ProgramClass#constantPoolModificationCount}, for instance with a {@link ConstantPoolSorter}, a
+ * {@link ConstantPoolShrinker}, or a {@link ConstantPoolRemapper}. Other code that changes
+ * constants in place while the editor is being used should increment this count too.
  *
  * @author Eric Lafortune
  */
@@ -38,10 +46,16 @@ public class ConstantPoolEditor {
 
   private static final int SIZE_INCREMENT = 16;
 
+  // The number of lookups with a linear scan, after which we start indexing
+  // the constant pool.
+  private static final int CACHE_THRESHOLD = 8;
+
   private final ProgramClass targetClass;
   private final ConstantVisitor constantReferenceInitializer;
   private HashMap<Constant, Integer> cachedIndices;
   private int cachedCount;
+  private int cachedModificationCount;
+  private int uncachedLookupCount;
 
   /**
    * Creates a new ConstantPoolEditor.
@@ -74,7 +88,8 @@ public class ConstantPoolEditor {
    * @param targetClass the target class in which constants are to be edited.
    * @param programClassPool the program class pool from which new constants can be initialized.
    * @param libraryClassPool the library class pool from which new constants can be initialized.
-   * @param cacheIndices specifies whether indices of constants should be cached.
+   * @param cacheIndices specifies whether indices of constants should be cached right away,
+   *     rather than only after a number of lookups.
    */
   ConstantPoolEditor(
       ProgramClass targetClass,
@@ -92,21 +107,7 @@ public class ConstantPoolEditor {
     // Should we maintain a cache, for efficiency, if this editor will be
     // used to add many constants?
     if (cacheIndices) {
-      if (DEBUG) {
-        System.out.println("ConstantPoolEditor: starting with cache");
-      }
-
-      cachedIndices = new HashMap<>();
-      cachedCount = targetClass.u2constantPoolCount;
-
-      // Initialize the cache, should the constant pool already contain
-      // any elements (always starting at index 1).
-      for (int index = 1; index < cachedCount; index++) {
-        Constant constant = targetClass.constantPool[index];
-        if (constant != null) {
-          cachedIndices.put(constant, Integer.valueOf(index));
-        }
-      }
+      initializeCache();
     }
   }
 
@@ -606,7 +607,6 @@ public class ConstantPoolEditor {
    */
   public int findOrAddConstant(Constant constant) {
     int constantPoolCount = targetClass.u2constantPoolCount;
-    Constant[] constantPool = targetClass.constantPool;
 
     if (DEBUG) {
       System.out.println(
@@ -618,26 +618,37 @@ public class ConstantPoolEditor {
               + constant);
     }
 
-    // Clear the cache if another editor has added any constants behind our back.
-    if (cachedCount > 0 && cachedCount != constantPoolCount) {
-      if (DEBUG) {
-        System.out.println(
-            "ConstantPoolEditor: ["
-                + (targetClass.u2thisClass > 0 ? targetClass.getName() : "(dummy)")
-                + ", "
-                + constantPoolCount
-                + " entries, "
-                + cachedCount
-                + " cached] clearing cache");
-      }
-
-      cachedIndices = null;
+    // Start caching if this editor is used for many lookups.
+    if (cachedIndices == null && ++uncachedLookupCount > CACHE_THRESHOLD) {
+      initializeCache();
     }
 
     // Do we have a cache with constant indices?
     if (cachedIndices != null) {
+      // Update the cache if other code has changed the constant pool
+      // behind our back.
+      synchronizeCache();
+
       // Look for the index in the hash map.
       Integer index = cachedIndices.get(constant);
+
+      // Make sure the cached entry is still valid. Other code may have
+      // changed the constant in place without signaling it.
+      if (index != null && !isConstant(index.intValue(), constant)) {
+        if (DEBUG) {
+          System.out.println(
+              "ConstantPoolEditor: ["
+                  + (targetClass.u2thisClass > 0 ? targetClass.getName() : "(dummy)")
+                  + ", "
+                  + constantPoolCount
+                  + " entries] rebuilding stale cache");
+        }
+
+        initializeCache();
+
+        index = cachedIndices.get(constant);
+      }
+
       if (index != null) {
         if (DEBUG) {
           System.out.println(
@@ -653,27 +664,10 @@ public class ConstantPoolEditor {
 
         return index.intValue();
       }
-
-      // It's not in the map yet. Add it now.
-      cachedIndices.put(constant, Integer.valueOf(constantPoolCount));
     } else {
-      // Look for the constant in the array (always starting at index 1).
-      for (int index = 1; index < constantPoolCount; index++) {
-        if (constant.equals(constantPool[index])) {
-          if (DEBUG) {
-            System.out.println(
-                "ConstantPoolEditor: ["
-                    + (targetClass.u2thisClass > 0 ? targetClass.getName() : "(dummy)")
-                    + ", "
-                    + constantPoolCount
-                    + " entries] found ["
-                    + index
-                    + "] "
-                    + constant);
-          }
-
-          return index;
-        }
+      int foundIndex = findConstant(constant);
+      if (foundIndex > 0) {
+        return foundIndex;
       }
     }
 
@@ -726,7 +720,12 @@ public class ConstantPoolEditor {
     constantPool[constantPoolCount] = constant;
 
     // Update the counts.
-    targetClass.u2constantPoolCount = cachedCount = constantPoolCount + constantSize;
+    targetClass.u2constantPoolCount = constantPoolCount + constantSize;
+
+    // Update the cache, if any.
+    if (cachedIndices != null) {
+      synchronizeCache();
+    }
 
     // Initialize the class references and class member references in the
     // constant, if necessary.
@@ -737,4 +736,97 @@ public class ConstantPoolEditor {
     // Return the old count as the index.
     return constantPoolCount;
   }
+
+  // Small utility methods.
+
+  /** Initializes the cache with the indices of all constants in the constant pool. */
+  private void initializeCache() {
+    if (DEBUG) {
+      System.out.println("ConstantPoolEditor: starting with cache");
+    }
+
+    cachedIndices = new HashMap<>();
+    cachedCount = 1;
+    cachedModificationCount = targetClass.constantPoolModificationCount;
+
+    synchronizeCache();
+  }
+
+  /**
+   * Brings the cache up to date with the constant pool of the target class: adds any constants that
+   * have been appended since the last update, or rebuilds the cache if constants have been changed
+   * or removed.
+   */
+  private void synchronizeCache() {
+    int constantPoolCount = targetClass.u2constantPoolCount;
+
+    // Have constants been changed or removed behind our back, for
+    // instance by a constant pool sorter or shrinker?
+    if (cachedModificationCount != targetClass.constantPoolModificationCount
+        || cachedCount > constantPoolCount) {
+      if (DEBUG) {
+        System.out.println(
+            "ConstantPoolEditor: ["
+                + (targetClass.u2thisClass > 0 ? targetClass.getName() : "(dummy)")
+                + ", "
+                + constantPoolCount
+                + " entries, "
+                + cachedCount
+                + " cached] clearing cache");
+      }
+
+      cachedIndices.clear();
+      cachedCount = 1;
+      cachedModificationCount = targetClass.constantPoolModificationCount;
+    }
+
+    // Add the indices of any new constants (always starting at index 1).
+    // Keep the lowest index for duplicate constants, like a linear scan.
+    Constant[] constantPool = targetClass.constantPool;
+    for (int index = cachedCount; index < constantPoolCount; index++) {
+      Constant constant = constantPool[index];
+      if (constant != null) {
+        cachedIndices.putIfAbsent(constant, Integer.valueOf(index));
+      }
+    }
+
+    cachedCount = constantPoolCount;
+  }
+
+  /**
+   * Looks for the given constant in the constant pool with a linear scan.
+   *
+   * @return the index of the constant, or 0 if it isn't present.
+   */
+  private int findConstant(Constant constant) {
+    int constantPoolCount = targetClass.u2constantPoolCount;
+    Constant[] constantPool = targetClass.constantPool;
+
+    // Look for the constant in the array (always starting at index 1).
+    for (int index = 1; index < constantPoolCount; index++) {
+      if (constant.equals(constantPool[index])) {
+        if (DEBUG) {
+          System.out.println(
+              "ConstantPoolEditor: ["
+                  + (targetClass.u2thisClass > 0 ? targetClass.getName() : "(dummy)")
+                  + ", "
+                  + constantPoolCount
+                  + " entries] found ["
+                  + index
+                  + "] "
+                  + constant);
+        }
+
+        return index;
+      }
+    }
+
+    return 0;
+  }
+
+  /** Returns whether the constant pool contains the given constant at the given index. */
+  private boolean isConstant(int index, Constant constant) {
+    return index < targetClass.u2constantPoolCount
+        && constant.equals(targetClass.constantPool[index]);
+  }
 }
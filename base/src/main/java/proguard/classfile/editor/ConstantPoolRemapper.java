@@ -85,6 +85,9 @@ public class ConstantPoolRemapper
     // Remap the references of the constant pool entries themselves.
     programClass.constantPoolEntriesAccept(this);
 
+    // Any index of the remapped constants is no longer valid.
+    programClass.constantPoolModificationCount++;
+
     // Remap the references in all fields, methods, and attributes.
     programClass.fieldsAccept(this);
     programClass.methodsAccept(this);
@@ -68,6 +68,7 @@ public class ConstantPoolShrinker
 
   private int[] constantIndexMap = new int[ClassEstimates.TYPICAL_CONSTANT_POOL_SIZE];
   private final ConstantPoolRemapper constantPoolRemapper = new ConstantPoolRemapper();
+  private final ReusingInstructionFactory instructionFactory = new ReusingInstructionFactory();
 
   private final BootstrapMethodInfoMarker bootstrapMethodInfoMarker =
       new BootstrapMethodInfoMarker(this);
@@ -315,7 +316,7 @@ public class ConstantPoolShrinker
 
     // Mark the constant pool entries referenced by the instructions,
     // by the exceptions, and by the attributes.
-    codeAttribute.instructionsAccept(clazz, method, this);
+    codeAttribute.instructionsAccept(clazz, method, this, instructionFactory);
     codeAttribute.exceptionsAccept(clazz, method, this);
     codeAttribute.attributesAccept(clazz, method, this);
   }
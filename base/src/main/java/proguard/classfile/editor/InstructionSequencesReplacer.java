@@ -17,10 +17,14 @@
  */
 package proguard.classfile.editor;
 
+import proguard.classfile.Clazz;
+import proguard.classfile.Method;
+import proguard.classfile.attribute.CodeAttribute;
 import proguard.classfile.constant.Constant;
-import proguard.classfile.instruction.Instruction;
+import proguard.classfile.instruction.*;
 import proguard.classfile.instruction.visitor.*;
 import proguard.classfile.util.BranchTargetFinder;
+import proguard.classfile.util.InstructionSequenceMatcher;
 
 /**
  * This {@link InstructionVisitor} replaces multiple instruction sequences at once.
@@ -28,6 +32,12 @@ import proguard.classfile.util.BranchTargetFinder;
  * <p>The replacement sequences are optional, defaulting to the empty sequence, to delete the
  * matched pattern sequences.
  *
+ * <p>The replacer indexes the patterns by the opcodes of their first instructions. It only passes
+ * a visited instruction to the replacers of the patterns that can start with that instruction, and
+ * to the replacers that are in the middle of matching their patterns. The results are the same as
+ * when passing each instruction to all replacers, but the cost no longer grows with the number of
+ * patterns that can't match.
+ *
  * @see InstructionSequenceReplacer
  * @author Eric Lafortune
  */
@@ -37,6 +47,23 @@ public class InstructionSequencesReplacer extends MultiInstructionVisitor
   private static final int REPLACEMENT_INDEX = 1;
 
   private static final Instruction[] EMPTY_INSTRUCTIONS = new Instruction[0];
+  private static final int[] EMPTY_INDICES = new int[0];
+
+  private final InstructionSequenceReplacer[] instructionSequenceReplacers;
+  private final InstructionSequenceMatcher[] instructionSequenceMatchers;
+
+  // The indices of the replacers, by the opcodes of the first instructions
+  // of their patterns.
+  private final int[][] replacerIndicesByOpcode = new int[256][];
+
+  // The indices of the replacers that are in the middle of matching their
+  // patterns, in increasing order.
+  private final int[] partiallyMatchingIndices;
+  private int partiallyMatchingCount;
+
+  // The indices of the replacers that should visit the current instruction,
+  // in increasing order.
+  private final int[] candidateIndices;
 
   /**
    * Creates a new InstructionSequencesReplacer.
@@ -77,17 +104,107 @@ public class InstructionSequencesReplacer extends MultiInstructionVisitor
       BranchTargetFinder branchTargetFinder,
       CodeAttributeEditor codeAttributeEditor,
       InstructionVisitor extraInstructionVisitor) {
-    super(
-        createInstructionSequenceReplacers(
-            constants,
-            instructionSequences,
-            branchTargetFinder,
-            codeAttributeEditor,
-            extraInstructionVisitor));
+    // Any instruction visitors that are added later on are visited after
+    // all replacers, as before.
+    super(new InstructionVisitor[0]);
+
+    int replacerCount = instructionSequences.length;
+
+    instructionSequenceReplacers = new InstructionSequenceReplacer[replacerCount];
+    instructionSequenceMatchers = new InstructionSequenceMatcher[replacerCount];
+    partiallyMatchingIndices = new int[replacerCount];
+    candidateIndices = new int[replacerCount];
+
+    createInstructionSequenceReplacers(
+        constants,
+        instructionSequences,
+        branchTargetFinder,
+        codeAttributeEditor,
+        extraInstructionVisitor);
+
+    indexInstructionSequenceReplacers(instructionSequences);
+  }
+
+  // Implementations for InstructionVisitor.
+
+  @Override
+  public void visitSimpleInstruction(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      int offset,
+      SimpleInstruction simpleInstruction) {
+    replaceInstructionSequences(clazz, method, codeAttribute, offset, simpleInstruction);
+
+    super.visitSimpleInstruction(clazz, method, codeAttribute, offset, simpleInstruction);
+  }
+
+  @Override
+  public void visitVariableInstruction(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      int offset,
+      VariableInstruction variableInstruction) {
+    replaceInstructionSequences(clazz, method, codeAttribute, offset, variableInstruction);
+
+    super.visitVariableInstruction(clazz, method, codeAttribute, offset, variableInstruction);
   }
 
+  @Override
+  public void visitConstantInstruction(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      int offset,
+      ConstantInstruction constantInstruction) {
+    replaceInstructionSequences(clazz, method, codeAttribute, offset, constantInstruction);
+
+    super.visitConstantInstruction(clazz, method, codeAttribute, offset, constantInstruction);
+  }
+
+  @Override
+  public void visitBranchInstruction(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      int offset,
+      BranchInstruction branchInstruction) {
+    replaceInstructionSequences(clazz, method, codeAttribute, offset, branchInstruction);
+
+    super.visitBranchInstruction(clazz, method, codeAttribute, offset, branchInstruction);
+  }
+
+  @Override
+  public void visitTableSwitchInstruction(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      int offset,
+      TableSwitchInstruction tableSwitchInstruction) {
+    replaceInstructionSequences(clazz, method, codeAttribute, offset, tableSwitchInstruction);
+
+    super.visitTableSwitchInstruction(clazz, method, codeAttribute, offset, tableSwitchInstruction);
+  }
+
+  @Override
+  public void visitLookUpSwitchInstruction(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      int offset,
+      LookUpSwitchInstruction lookUpSwitchInstruction) {
+    replaceInstructionSequences(clazz, method, codeAttribute, offset, lookUpSwitchInstruction);
+
+    super.visitLookUpSwitchInstruction(
+        clazz, method, codeAttribute, offset, lookUpSwitchInstruction);
+  }
+
+  // Small utility methods.
+
   /**
-   * Creates an array of InstructionSequenceReplacer instances.
+   * Creates the InstructionSequenceReplacer instances and their InstructionSequenceMatcher
+   * instances.
    *
    * @param constants any constants referenced by the pattern instructions and replacement
    *     instructions.
@@ -98,15 +215,12 @@ public class InstructionSequencesReplacer extends MultiInstructionVisitor
    * @param codeAttributeEditor a code editor that can be used for accumulating changes to the code.
    * @param extraInstructionVisitor an optional extra visitor for all deleted load instructions.
    */
-  private static InstructionVisitor[] createInstructionSequenceReplacers(
+  private void createInstructionSequenceReplacers(
       Constant[] constants,
       Instruction[][][] instructionSequences,
       BranchTargetFinder branchTargetFinder,
       CodeAttributeEditor codeAttributeEditor,
       InstructionVisitor extraInstructionVisitor) {
-    InstructionVisitor[] instructionSequenceReplacers =
-        new InstructionVisitor[instructionSequences.length];
-
     for (int index = 0; index < instructionSequenceReplacers.length; index++) {
       Instruction[][] instructionSequencePair = instructionSequences[index];
 
@@ -118,17 +232,126 @@ public class InstructionSequencesReplacer extends MultiInstructionVisitor
               ? instructionSequencePair[REPLACEMENT_INDEX]
               : EMPTY_INSTRUCTIONS;
 
+      InstructionSequenceMatcher instructionSequenceMatcher =
+          new InstructionSequenceMatcher(constants, patternInstructions);
+
+      instructionSequenceMatchers[index] = instructionSequenceMatcher;
       instructionSequenceReplacers[index] =
           new InstructionSequenceReplacer(
-              constants,
-              patternInstructions,
+              instructionSequenceMatcher,
               constants,
               replacementInstructions,
               branchTargetFinder,
               codeAttributeEditor,
               extraInstructionVisitor);
     }
+  }
+
+  /** Indexes the replacers by the opcodes of the first instructions of their patterns. */
+  private void indexInstructionSequenceReplacers(Instruction[][][] instructionSequences) {
+    // Count the replacers per opcode.
+    int[] counts = new int[replacerIndicesByOpcode.length];
+    for (int index = 0; index < instructionSequences.length; index++) {
+      counts[firstOpcode(instructionSequences[index])]++;
+    }
+
+    for (int opcode = 0; opcode < replacerIndicesByOpcode.length; opcode++) {
+      replacerIndicesByOpcode[opcode] =
+          counts[opcode] == 0 ? EMPTY_INDICES : new int[counts[opcode]];
+      counts[opcode] = 0;
+    }
+
+    // Fill out the replacer indices, in increasing order.
+    for (int index = 0; index < instructionSequences.length; index++) {
+      int opcode = firstOpcode(instructionSequences[index]);
+
+      replacerIndicesByOpcode[opcode][counts[opcode]++] = index;
+    }
+  }
+
+  /** Returns the unsigned opcode of the first pattern instruction of the given sequence pair. */
+  private static int firstOpcode(Instruction[][] instructionSequencePair) {
+    return instructionSequencePair[PATTERN_INDEX][0].opcode & 0xff;
+  }
+
+  /**
+   * Lets the replacers that can match the given instruction visit it, in the order in which the
+   * replacers were specified.
+   */
+  private void replaceInstructionSequences(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      int offset,
+      Instruction instruction) {
+    // The instruction can match the first instruction of a pattern with
+    // the same opcode or with the same canonical opcode.
+    int opcode = instruction.opcode & 0xff;
+    int canonicalOpcode = instruction.canonicalOpcode() & 0xff;
+
+    int[] opcodeIndices = replacerIndicesByOpcode[opcode];
+    int[] canonicalOpcodeIndices =
+        canonicalOpcode == opcode ? EMPTY_INDICES : replacerIndicesByOpcode[canonicalOpcode];
+
+    int candidateCount =
+        mergeIndices(
+            partiallyMatchingIndices,
+            partiallyMatchingCount,
+            opcodeIndices,
+            canonicalOpcodeIndices,
+            candidateIndices);
+
+    // Let the candidate replacers visit the instruction, collecting the
+    // ones that are then in the middle of matching their patterns.
+    partiallyMatchingCount = 0;
+
+    for (int index = 0; index < candidateCount; index++) {
+      int replacerIndex = candidateIndices[index];
+
+      instructionSequenceReplacers[replacerIndex].visitAnyInstruction(
+          clazz, method, codeAttribute, offset, instruction);
+
+      if (instructionSequenceMatchers[replacerIndex].isPartiallyMatching()) {
+        partiallyMatchingIndices[partiallyMatchingCount++] = replacerIndex;
+      }
+    }
+  }
+
+  /**
+   * Merges the given sorted arrays of indices into the given target array, without duplicates.
+   *
+   * @return the number of indices in the target array.
+   */
+  private static int mergeIndices(
+      int[] indices1, int count1, int[] indices2, int[] indices3, int[] targetIndices) {
+    int count2 = indices2.length;
+    int count3 = indices3.length;
+
+    int index1 = 0;
+    int index2 = 0;
+    int index3 = 0;
+    int targetCount = 0;
+
+    while (index1 < count1 || index2 < count2 || index3 < count3) {
+      int value1 = index1 < count1 ? indices1[index1] : Integer.MAX_VALUE;
+      int value2 = index2 < count2 ? indices2[index2] : Integer.MAX_VALUE;
+      int value3 = index3 < count3 ? indices3[index3] : Integer.MAX_VALUE;
+
+      int value = Math.min(value1, Math.min(value2, value3));
+
+      targetIndices[targetCount++] = value;
+
+      if (value1 == value) {
+        index1++;
+      }
+      if (value2 == value) {
+        index2++;
+      }
+      if (value3 == value) {
+        index3++;
+      }
+    }
 
-    return instructionSequenceReplacers;
+    return targetCount;
   }
 }
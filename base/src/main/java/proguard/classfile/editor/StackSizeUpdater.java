@@ -25,6 +25,15 @@ import proguard.classfile.attribute.visitor.*;
  * This {@link AttributeVisitor} computes and updates the maximum stack size of the code attributes
  * that it visits.
  *
+ * <p>An updater keeps state while it visits a code attribute, so it can't be shared between
+ * threads. You can update the classes of a class pool in parallel with an updater per thread:
+ *
+ * <pre>
+ *     classPool.accept(
+ *         new ParallelAllClassVisitor(
+ *             () -> new AllMethodVisitor(new AllAttributeVisitor(new StackSizeUpdater()))));
+ * </pre>
+ *
  * @author Eric Lafortune
  */
 public class StackSizeUpdater implements AttributeVisitor {
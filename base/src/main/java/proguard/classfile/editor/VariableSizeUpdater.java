@@ -28,6 +28,15 @@ import proguard.classfile.util.*;
  * This {@link AttributeVisitor} computes and updates the maximum local variable frame size of the
  * code attributes that it visits. It also cleans up the local variable tables.
  *
+ * <p>This class is not thread-safe. To update the classes of a class pool in parallel, create an
+ * updater per thread:
+ *
+ * <pre>
+ *     classPool.accept(
+ *         new ParallelAllClassVisitor(
+ *             () -> new AllMethodVisitor(new AllAttributeVisitor(new VariableSizeUpdater()))));
+ * </pre>
+ *
  * @author Eric Lafortune
  */
 public class VariableSizeUpdater implements AttributeVisitor, InstructionVisitor {
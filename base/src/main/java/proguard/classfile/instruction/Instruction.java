@@ -1313,6 +1313,9 @@ public abstract class Instruction {
   /** Writes the Instruction at the given offset in the given code attribute. */
   public final void write(CodeAttribute codeAttribute, int offset) {
     write(codeAttribute.code, offset);
+
+    // Any index of the old instructions is no longer valid.
+    codeAttribute.invalidateInstructionIndex();
   }
 
   /** Writes the Instruction at the given offset in the given code array. */
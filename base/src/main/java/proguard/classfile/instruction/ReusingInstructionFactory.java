@@ -0,0 +1,134 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.classfile.instruction;
+
+/**
+ * This class creates Instruction instances from bytecode, like {@link InstructionFactory}, but
+ * reuses a single instance for each kind of instruction, instead of creating a new instance for
+ * each instruction.
+ *
+ * <p>A returned instruction is therefore only valid until the factory creates the next instruction
+ * of the same kind. Callers must not keep references to it, modify it, or pass it to code that
+ * does, and must not use it anymore after any nested decoding with the same factory. A factory is
+ * not thread-safe, so each thread should have its own factory.
+ *
+ * @see proguard.classfile.attribute.CodeAttribute
+ */
+public class ReusingInstructionFactory {
+  private static final byte SIMPLE = 0;
+  private static final byte CONSTANT = 1;
+  private static final byte VARIABLE = 2;
+  private static final byte BRANCH = 3;
+  private static final byte TABLE_SWITCH = 4;
+  private static final byte LOOKUP_SWITCH = 5;
+  private static final byte UNKNOWN = -1;
+
+  private static final byte[] INSTRUCTION_KINDS = createInstructionKinds();
+
+  private final SimpleInstruction simpleInstruction = new SimpleInstruction();
+  private final ConstantInstruction constantInstruction = new ConstantInstruction();
+  private final VariableInstruction variableInstruction = new VariableInstruction();
+  private final BranchInstruction branchInstruction = new BranchInstruction();
+  private final TableSwitchInstruction tableSwitchInstruction = new TableSwitchInstruction();
+  private final LookUpSwitchInstruction lookUpSwitchInstruction = new LookUpSwitchInstruction();
+
+  /**
+   * Returns an Instruction with the data in the byte array, starting at the given offset. The
+   * instruction is only valid until the next instruction of the same kind is created.
+   */
+  public Instruction create(byte[] code, int offset) {
+    int index = offset;
+    byte opcode = code[index++];
+
+    boolean wide = false;
+    if (opcode == Instruction.OP_WIDE) {
+      opcode = code[index++];
+      wide = true;
+    }
+
+    Instruction instruction;
+    switch (INSTRUCTION_KINDS[opcode & 0xff]) {
+      case SIMPLE:
+        instruction = simpleInstruction;
+        break;
+      case CONSTANT:
+        instruction = constantInstruction;
+        break;
+      case VARIABLE:
+        variableInstruction.wide = wide;
+        instruction = variableInstruction;
+        break;
+      case BRANCH:
+        instruction = branchInstruction;
+        break;
+      case TABLE_SWITCH:
+        instruction = tableSwitchInstruction;
+        break;
+      case LOOKUP_SWITCH:
+        instruction = lookUpSwitchInstruction;
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown instruction opcode [" + opcode + "]");
+    }
+
+    instruction.opcode = opcode;
+
+    instruction.readInfo(code, index);
+
+    return instruction;
+  }
+
+  // Small utility methods.
+
+  /** Returns the kinds of the instructions for all opcodes, as decided by InstructionFactory. */
+  private static byte[] createInstructionKinds() {
+    byte[] instructionKinds = new byte[256];
+
+    for (int opcode = 0; opcode < 256; opcode++) {
+      instructionKinds[opcode] = instructionKind((byte) opcode);
+    }
+
+    return instructionKinds;
+  }
+
+  /** Returns the kind of the instruction with the given opcode. */
+  private static byte instructionKind(byte opcode) {
+    Instruction instruction;
+    try {
+      instruction = InstructionFactory.create(opcode, false);
+    } catch (IllegalArgumentException e) {
+      return UNKNOWN;
+    }
+
+    if (instruction instanceof SimpleInstruction) {
+      return SIMPLE;
+    } else if (instruction instanceof ConstantInstruction) {
+      return CONSTANT;
+    } else if (instruction instanceof VariableInstruction) {
+      return VARIABLE;
+    } else if (instruction instanceof BranchInstruction) {
+      return BRANCH;
+    } else if (instruction instanceof TableSwitchInstruction) {
+      return TABLE_SWITCH;
+    } else if (instruction instanceof LookUpSwitchInstruction) {
+      return LOOKUP_SWITCH;
+    } else {
+      return UNKNOWN;
+    }
+  }
+}
@@ -129,11 +129,27 @@ import proguard.classfile.kotlin.visitor.KotlinVersionRequirementVisitor;
 import proguard.classfile.util.WarningPrinter;
 import proguard.classfile.util.kotlin.AnnotationConstructor;
 import proguard.classfile.util.kotlin.KotlinMetadataType;
+import proguard.classfile.util.kotlin.LazyKotlinMetadata;
 import proguard.classfile.visitor.ClassVisitor;
 
 /**
  * This class visitor writes the information stored in a Clazz's kotlinMetadata field to
  * a @kotlin/Metadata annotation on the class.
+ *
+ * <p>If the Kotlin metadata was initialized lazily and has never been parsed, it can't have been
+ * changed, so the writer leaves the original raw metadata in the annotation, without parsing it.
+ *
+ * <p>A writer only modifies the class that it visits, so classes can be written in parallel, with
+ * a separate writer for each thread, e.g. with a {@link
+ * proguard.classfile.visitor.ParallelAllClassVisitor}:
+ *
+ * <pre>
+ *     programClassPool.accept(
+ *         new ParallelAllClassVisitor(() -> new KotlinMetadataWriter(errorHandler)));
+ * </pre>
+ *
+ * The error handler and the extra class visitor are then shared between the threads, so they need
+ * to be thread-safe.
  */
 public class KotlinMetadataWriter
     implements ClassVisitor, KotlinMetadataVisitor, ElementValueVisitor {
@@ -196,6 +212,20 @@ public class KotlinMetadataWriter
     clazz.kotlinMetadataAccept(this);
   }
 
+  @Override
+  public void visitProgramClass(ProgramClass programClass) {
+    if (programClass.kotlinMetadata instanceof LazyKotlinMetadata
+        && !((LazyKotlinMetadata) programClass.kotlinMetadata).isInitialized()) {
+      // Nothing can have changed the metadata since it was read, so the annotation still
+      // contains the original raw metadata.
+      if (extraClassVisitor != null) {
+        programClass.accept(extraClassVisitor);
+      }
+    } else {
+      visitAnyClass(programClass);
+    }
+  }
+
   // Implementations for KotlinMetadataVisitor.
 
   @Override
@@ -274,13 +274,16 @@ public class BranchTargetFinder
     //        superInitializationOffset = NONE;
     containsSubroutines = false;
 
+    // Reuse the index of the instructions that other analyses may share.
+    InstructionIndex instructionIndex = codeAttribute.getInstructionIndex();
+
     // Iterate until all subroutines have been fully marked.
     do {
       repeat = false;
       currentSubroutineStart = NO_SUBROUTINE;
 
       // Mark branch targets by going over all instructions.
-      codeAttribute.instructionsAccept(clazz, method, this);
+      markInstructions(clazz, codeAttribute, instructionIndex);
 
       // Mark branch targets in the exception table.
       codeAttribute.exceptionsAccept(clazz, method, this);
@@ -370,26 +373,7 @@ public class BranchTargetFinder
       CodeAttribute codeAttribute,
       int offset,
       SimpleInstruction simpleInstruction) {
-    // Mark the instruction.
-    instructionMarks[offset] |= INSTRUCTION;
-
-    // Check if this is an instruction of a subroutine.
-    checkSubroutine(offset);
-
-    byte opcode = simpleInstruction.opcode;
-    if (opcode == Instruction.OP_IRETURN
-        || opcode == Instruction.OP_LRETURN
-        || opcode == Instruction.OP_FRETURN
-        || opcode == Instruction.OP_DRETURN
-        || opcode == Instruction.OP_ARETURN
-        || opcode == Instruction.OP_RETURN
-        || opcode == Instruction.OP_ATHROW) {
-      // Mark the branch origin.
-      markBranchOrigin(offset);
-
-      // Mark the next instruction.
-      markAfterBranchOrigin(offset + simpleInstruction.length(offset));
-    }
+    markInstruction(offset, simpleInstruction.opcode, offset + simpleInstruction.length(offset));
   }
 
   public void visitConstantInstruction(
@@ -398,24 +382,11 @@ public class BranchTargetFinder
       CodeAttribute codeAttribute,
       int offset,
       ConstantInstruction constantInstruction) {
-    // Mark the instruction.
-    instructionMarks[offset] |= INSTRUCTION;
-
-    // Check if this is an instruction of a subroutine.
-    checkSubroutine(offset);
+    markInstruction(
+        offset, constantInstruction.opcode, offset + constantInstruction.length(offset));
 
-    byte opcode = constantInstruction.opcode;
-    if (opcode == Instruction.OP_NEW) {
-      // Mark the creation.
-      instructionMarks[offset] |= CREATION;
-    } else if (opcode == Instruction.OP_INVOKESPECIAL) {
-      // Is it calling an instance initializer?
-      isInitializer = false;
-      clazz.constantPoolEntryAccept(constantInstruction.constantIndex, this);
-      if (isInitializer) {
-        // Mark the initializer.
-        instructionMarks[offset] |= INITIALIZER;
-      }
+    if (constantInstruction.opcode == Instruction.OP_INVOKESPECIAL) {
+      markInitializer(clazz, offset, constantInstruction.constantIndex);
     }
   }
 
@@ -425,25 +396,8 @@ public class BranchTargetFinder
       CodeAttribute codeAttribute,
       int offset,
       VariableInstruction variableInstruction) {
-    // Mark the instruction.
-    instructionMarks[offset] |= INSTRUCTION;
-
-    // Check if this is an instruction of a subroutine.
-    checkSubroutine(offset);
-
-    if (variableInstruction.opcode == Instruction.OP_RET) {
-      // Mark the method.
-      containsSubroutines = true;
-
-      // Mark the branch origin.
-      markBranchOrigin(offset);
-
-      // Mark the subroutine return at its return instruction.
-      instructionMarks[offset] |= SUBROUTINE_RETURNING;
-
-      // Mark the next instruction.
-      markAfterBranchOrigin(offset + variableInstruction.length(offset));
-    }
+    markInstruction(
+        offset, variableInstruction.opcode, offset + variableInstruction.length(offset));
   }
 
   public void visitBranchInstruction(
@@ -452,37 +406,11 @@ public class BranchTargetFinder
       CodeAttribute codeAttribute,
       int offset,
       BranchInstruction branchInstruction) {
-    int branchOffset = branchInstruction.branchOffset;
-    int targetOffset = offset + branchOffset;
-
-    // Mark the branch origin.
-    markBranchOrigin(offset);
-
-    // Check if this is an instruction of a subroutine.
-    checkSubroutine(offset);
-
-    // Mark the branch target.
-    markBranchTarget(offset, branchOffset);
-
-    byte opcode = branchInstruction.opcode;
-    if (opcode == Instruction.OP_JSR || opcode == Instruction.OP_JSR_W) {
-      // Mark the method.
-      containsSubroutines = true;
-
-      // Mark the subroutine invocation.
-      instructionMarks[offset] |= SUBROUTINE_INVOCATION;
-
-      // Mark the new subroutine start.
-      markBranchSubroutineStart(offset, branchOffset, targetOffset);
-    } else if (currentSubroutineStart != UNKNOWN) {
-      // Mark the continued subroutine start.
-      markBranchSubroutineStart(offset, branchOffset, currentSubroutineStart);
-    }
-
-    if (opcode == Instruction.OP_GOTO || opcode == Instruction.OP_GOTO_W) {
-      // Mark the next instruction.
-      markAfterBranchOrigin(offset + branchInstruction.length(offset));
-    }
+    markBranchInstruction(
+        offset,
+        branchInstruction.opcode,
+        branchInstruction.branchOffset,
+        offset + branchInstruction.length(offset));
   }
 
   public void visitAnySwitchInstruction(
@@ -540,6 +468,137 @@ public class BranchTargetFinder
 
   // Small utility methods.
 
+  /**
+   * Marks all instructions, based on the given index of the instructions, with the same results as
+   * visiting them with this instruction visitor.
+   */
+  private void markInstructions(
+      Clazz clazz, CodeAttribute codeAttribute, InstructionIndex instructionIndex) {
+    byte[] code = codeAttribute.code;
+
+    int instructionCount = instructionIndex.getInstructionCount();
+    for (int index = 0; index < instructionCount; index++) {
+      int offset = instructionIndex.getOffset(index);
+      int nextOffset = instructionIndex.getNextOffset(index);
+      byte opcode = instructionIndex.getOpcode(index);
+
+      if (opcode == Instruction.OP_TABLESWITCH || opcode == Instruction.OP_LOOKUPSWITCH) {
+        markBranchOrigin(offset);
+        checkSubroutine(offset);
+
+        // Mark the branch targets, starting with the default target.
+        int branchTargetCount = instructionIndex.getBranchTargetCount(index);
+        for (int branchTarget = 0; branchTarget < branchTargetCount; branchTarget++) {
+          markBranch(offset, instructionIndex.getBranchTarget(index, branchTarget) - offset);
+        }
+
+        markAfterBranchOrigin(nextOffset);
+      } else if (instructionIndex.getBranchTargetCount(index) > 0) {
+        markBranchInstruction(
+            offset, opcode, instructionIndex.getBranchTarget(index, 0) - offset, nextOffset);
+      } else {
+        markInstruction(offset, opcode, nextOffset);
+
+        if (opcode == Instruction.OP_INVOKESPECIAL) {
+          // Read the constant index from the code, instead of decoding the instruction.
+          int constantIndex = ((code[offset + 1] & 0xff) << 8) | (code[offset + 2] & 0xff);
+          markInitializer(clazz, offset, constantIndex);
+        }
+      }
+    }
+  }
+
+  /**
+   * Marks the instruction at the given offset, which isn't a branch instruction or a switch
+   * instruction.
+   */
+  private void markInstruction(int offset, byte opcode, int nextOffset) {
+    // Mark the instruction.
+    instructionMarks[offset] |= INSTRUCTION;
+
+    // Check if this is an instruction of a subroutine.
+    checkSubroutine(offset);
+
+    switch (opcode) {
+      case Instruction.OP_IRETURN:
+      case Instruction.OP_LRETURN:
+      case Instruction.OP_FRETURN:
+      case Instruction.OP_DRETURN:
+      case Instruction.OP_ARETURN:
+      case Instruction.OP_RETURN:
+      case Instruction.OP_ATHROW:
+        // Mark the branch origin.
+        markBranchOrigin(offset);
+
+        // Mark the next instruction.
+        markAfterBranchOrigin(nextOffset);
+        break;
+
+      case Instruction.OP_RET:
+        // Mark the method.
+        containsSubroutines = true;
+
+        // Mark the branch origin.
+        markBranchOrigin(offset);
+
+        // Mark the subroutine return at its return instruction.
+        instructionMarks[offset] |= SUBROUTINE_RETURNING;
+
+        // Mark the next instruction.
+        markAfterBranchOrigin(nextOffset);
+        break;
+
+      case Instruction.OP_NEW:
+        // Mark the creation.
+        instructionMarks[offset] |= CREATION;
+        break;
+    }
+  }
+
+  /** Marks the invokespecial instruction at the given offset, if it calls an initializer. */
+  private void markInitializer(Clazz clazz, int offset, int constantIndex) {
+    // Is it calling an instance initializer?
+    isInitializer = false;
+    clazz.constantPoolEntryAccept(constantIndex, this);
+    if (isInitializer) {
+      // Mark the initializer.
+      instructionMarks[offset] |= INITIALIZER;
+    }
+  }
+
+  /** Marks the branch instruction at the given offset, and its branch target. */
+  private void markBranchInstruction(int offset, byte opcode, int branchOffset, int nextOffset) {
+    int targetOffset = offset + branchOffset;
+
+    // Mark the branch origin.
+    markBranchOrigin(offset);
+
+    // Check if this is an instruction of a subroutine.
+    checkSubroutine(offset);
+
+    // Mark the branch target.
+    markBranchTarget(offset, branchOffset);
+
+    if (opcode == Instruction.OP_JSR || opcode == Instruction.OP_JSR_W) {
+      // Mark the method.
+      containsSubroutines = true;
+
+      // Mark the subroutine invocation.
+      instructionMarks[offset] |= SUBROUTINE_INVOCATION;
+
+      // Mark the new subroutine start.
+      markBranchSubroutineStart(offset, branchOffset, targetOffset);
+    } else if (currentSubroutineStart != UNKNOWN) {
+      // Mark the continued subroutine start.
+      markBranchSubroutineStart(offset, branchOffset, currentSubroutineStart);
+    }
+
+    if (opcode == Instruction.OP_GOTO || opcode == Instruction.OP_GOTO_W) {
+      // Mark the next instruction.
+      markAfterBranchOrigin(nextOffset);
+    }
+  }
+
   /** Marks the branch targets and their subroutine starts at the given offsets. */
   private void markBranches(int offset, int[] jumpOffsets) {
     for (int index = 0; index < jumpOffsets.length; index++) {
@@ -27,6 +27,7 @@ import static proguard.classfile.kotlin.KotlinConstants.METHOD_NAME_LAMBDA_INVOK
 
 import java.util.Collections;
 import java.util.stream.Collectors;
+import proguard.analysis.metrics.MetricsRegistry;
 import proguard.classfile.AccessConstants;
 import proguard.classfile.ClassConstants;
 import proguard.classfile.ClassPool;
@@ -157,6 +158,8 @@ public class ClassReferenceInitializer
   private final ClassPool libraryClassPool;
   private final boolean checkAccessRules;
   private final InvalidReferenceVisitor invalidReferenceVisitor;
+  private final boolean initializeClassReferences;
+  private final boolean initializeKotlinMetadata;
   private final MemberFinder memberFinder = new MemberFinder();
   private final MemberFinder strictMemberFinder = new MemberFinder(false);
 
@@ -236,10 +239,28 @@ public class ClassReferenceInitializer
       ClassPool libraryClassPool,
       boolean checkAccessRules,
       InvalidReferenceVisitor invalidReferenceVisitor) {
+    this(programClassPool, libraryClassPool, checkAccessRules, invalidReferenceVisitor, true, true);
+  }
+
+  /**
+   * Creates a new ClassReferenceInitializer that initializes the references of all visited class
+   * files, visiting the given {@link InvalidReferenceVisitor} for any broken references, and
+   * optionally only initializing either the references of the classes themselves or the references
+   * of their Kotlin metadata.
+   */
+  ClassReferenceInitializer(
+      ClassPool programClassPool,
+      ClassPool libraryClassPool,
+      boolean checkAccessRules,
+      InvalidReferenceVisitor invalidReferenceVisitor,
+      boolean initializeClassReferences,
+      boolean initializeKotlinMetadata) {
     this.programClassPool = programClassPool;
     this.libraryClassPool = libraryClassPool;
     this.checkAccessRules = checkAccessRules;
     this.invalidReferenceVisitor = invalidReferenceVisitor;
+    this.initializeClassReferences = initializeClassReferences;
+    this.initializeKotlinMetadata = initializeKotlinMetadata;
     this.kotlinReferenceInitializer = new KotlinReferenceInitializer();
   }
 
@@ -253,32 +274,48 @@ public class ClassReferenceInitializer
 
   @Override
   public void visitProgramClass(ProgramClass programClass) {
-    // Initialize the constant pool entries.
-    programClass.constantPoolEntriesAccept(this);
+    MetricsRegistry metrics = MetricsRegistry.getActive();
+    long startTime = metrics != null ? System.nanoTime() : 0L;
 
-    // Initialize all fields and methods.
-    programClass.fieldsAccept(this);
-    programClass.methodsAccept(this);
+    if (initializeClassReferences) {
+      // Initialize the constant pool entries.
+      programClass.constantPoolEntriesAccept(this);
 
-    // Clean up invalid signatures. We cannot do this while initializing the other attributes, since
-    // that will result in possibly modifying the attributes while we are iterating over them.
-    programClass.attributesAccept(invalidSignatureCleaner);
+      // Initialize all fields and methods.
+      programClass.fieldsAccept(this);
+      programClass.methodsAccept(this);
 
-    // Initialize the attributes.
-    programClass.attributesAccept(this);
+      // Clean up invalid signatures. We cannot do this while initializing the other attributes,
+      // since that will result in possibly modifying the attributes while we are iterating over
+      // them.
+      programClass.attributesAccept(invalidSignatureCleaner);
 
-    // Initialize the Kotlin metadata.
-    programClass.kotlinMetadataAccept(kotlinReferenceInitializer);
+      // Initialize the attributes.
+      programClass.attributesAccept(this);
+    }
+
+    if (initializeKotlinMetadata) {
+      // Initialize the Kotlin metadata.
+      programClass.kotlinMetadataAccept(kotlinReferenceInitializer);
+    }
+
+    if (metrics != null) {
+      metrics.timer(MetricsRegistry.REFERENCE_INITIALIZATION).record(System.nanoTime() - startTime);
+    }
   }
 
   @Override
   public void visitLibraryClass(LibraryClass libraryClass) {
-    // Initialize all fields and methods.
-    libraryClass.fieldsAccept(this);
-    libraryClass.methodsAccept(this);
+    if (initializeClassReferences) {
+      // Initialize all fields and methods.
+      libraryClass.fieldsAccept(this);
+      libraryClass.methodsAccept(this);
+    }
 
-    // Initialize the Kotlin metadata.
-    libraryClass.kotlinMetadataAccept(kotlinReferenceInitializer);
+    if (initializeKotlinMetadata) {
+      // Initialize the Kotlin metadata.
+      libraryClass.kotlinMetadataAccept(kotlinReferenceInitializer);
+    }
   }
 
   // Implementations for MemberVisitor.
@@ -1232,7 +1269,7 @@ public class ClassReferenceInitializer
   private Clazz findReferencedClass(Clazz referencingClass, String descriptor) {
     DescriptorClassEnumeration enumeration = new DescriptorClassEnumeration(descriptor);
 
-    enumeration.nextFluff();
+    enumeration.skipFluff();
 
     if (enumeration.hasMoreClassNames()) {
       return findClass(referencingClass, enumeration.nextClassName());
@@ -1255,7 +1292,7 @@ public class ClassReferenceInitializer
       boolean foundReferencedClasses = false;
 
       for (int index = 0; index < classCount; index++) {
-        String fluff = enumeration.nextFluff();
+        enumeration.skipFluff();
         String name = enumeration.nextClassName();
 
         Clazz referencedClass = findClass(referencingClass, name);
@@ -1803,7 +1840,7 @@ public class ClassReferenceInitializer
    * This {@link InvalidReferenceVisitor} will print out missing references to the supplied warning
    * printers.
    */
-  private static class InvalidReferenceWarningVisitor implements InvalidReferenceVisitor {
+  static class InvalidReferenceWarningVisitor implements InvalidReferenceVisitor {
 
     private final WarningPrinter missingClassWarningPrinter;
     private final WarningPrinter missingProgramMemberWarningPrinter;
@@ -45,10 +45,10 @@ public class ClassSubHierarchyInitializer implements ClassPoolVisitor, ClassVisi
     // sub-hierarchy re-initialization.
 
     // Collect the subclass information for all classes.
-    classPool.classesAccept(new MySubclassCollector());
+    classPool.classesAccept(new MySubclassCollector(subClassesMap));
 
     // Store the cached subclasses all classes.
-    classPool.classesAccept(new MySubclassSetter());
+    classPool.classesAccept(new MySubclassSetter(subClassesMap));
   }
 
   // Implementations for ClassVisitor.
@@ -85,10 +85,16 @@ public class ClassSubHierarchyInitializer implements ClassPoolVisitor, ClassVisi
   // Small utility classes.
 
   /**
-   * This ClassVisitor collects (in the subclasses map) the subclasses of the classes that it
+   * This ClassVisitor collects (in the given subclasses map) the subclasses of the classes that it
    * visits.
    */
-  private class MySubclassCollector implements ClassVisitor {
+  static class MySubclassCollector implements ClassVisitor {
+    private final Map<Clazz, Set<Clazz>> subClassesMap;
+
+    MySubclassCollector(Map<Clazz, Set<Clazz>> subClassesMap) {
+      this.subClassesMap = subClassesMap;
+    }
+
     // Implementations for ClassVisitor.
 
     @Override
@@ -102,7 +108,7 @@ public class ClassSubHierarchyInitializer implements ClassPoolVisitor, ClassVisi
       // Add this class to the subclasses of its superclass and interfaces
       // (through their class constants).
       ConstantVisitor subClassCollector =
-          new ReferencedClassVisitor(new MySubclassAdder(programClass));
+          new ReferencedClassVisitor(new MySubclassAdder(subClassesMap, programClass));
 
       programClass.superClassConstantAccept(subClassCollector);
       programClass.interfaceConstantsAccept(subClassCollector);
@@ -111,7 +117,7 @@ public class ClassSubHierarchyInitializer implements ClassPoolVisitor, ClassVisi
     @Override
     public void visitLibraryClass(LibraryClass libraryClass) {
       // Add this class to the subclasses of its superclass and interfaces.
-      ClassVisitor subClassCollector = new MySubclassAdder(libraryClass);
+      ClassVisitor subClassCollector = new MySubclassAdder(subClassesMap, libraryClass);
 
       libraryClass.superClassAccept(subClassCollector);
       libraryClass.interfacesAccept(subClassCollector);
@@ -119,10 +125,12 @@ public class ClassSubHierarchyInitializer implements ClassPoolVisitor, ClassVisi
   }
 
   /** This ClassVisitor adds a given subclass to the sets of the classes that it visits. */
-  private class MySubclassAdder implements ClassVisitor {
+  static class MySubclassAdder implements ClassVisitor {
+    private final Map<Clazz, Set<Clazz>> subClassesMap;
     private final Clazz subClass;
 
-    public MySubclassAdder(Clazz subClass) {
+    MySubclassAdder(Map<Clazz, Set<Clazz>> subClassesMap, Clazz subClass) {
+      this.subClassesMap = subClassesMap;
       this.subClass = subClass;
     }
 
@@ -140,10 +148,16 @@ public class ClassSubHierarchyInitializer implements ClassPoolVisitor, ClassVisi
   }
 
   /**
-   * This ClassVisitor sets (from the subclasses map) the collected sets of the subclasses to the
-   * classes that it visits.
+   * This ClassVisitor sets (from the given subclasses map) the collected sets of the subclasses to
+   * the classes that it visits.
    */
-  private class MySubclassSetter implements ClassVisitor {
+  static class MySubclassSetter implements ClassVisitor {
+    private final Map<Clazz, Set<Clazz>> subClassesMap;
+
+    MySubclassSetter(Map<Clazz, Set<Clazz>> subClassesMap) {
+      this.subClassesMap = subClassesMap;
+    }
+
     // Implementations for ClassVisitor.
 
     @Override
@@ -32,6 +32,11 @@ import proguard.classfile.visitor.ClassVisitor;
  * <p>This visitor optionally prints warnings if some superclasses can't be found or if they are in
  * the program class pool.
  *
+ * <p>The visitor only changes the visited classes, so it can initialize different classes in
+ * parallel, e.g. with a {@link proguard.classfile.visitor.ParallelAllClassVisitor}, as long as its
+ * {@link InvalidClassReferenceVisitor} is thread-safe. The warning printers are. The subclasses can
+ * then be initialized in parallel with a {@link ParallelClassSubHierarchyInitializer}.
+ *
  * @author Eric Lafortune
  */
 public class ClassSuperHierarchyInitializer implements ClassVisitor, ConstantVisitor {
@@ -1035,9 +1035,9 @@ public class ClassUtil {
         return parameterNumber;
       }
 
-      String internalType = internalTypeEnumeration.nextType();
+      internalTypeEnumeration.skipType();
 
-      parameterIndex += internalTypeSize(internalType);
+      parameterIndex += internalTypeEnumeration.typeSize();
       parameterNumber++;
     }
 
@@ -1082,9 +1082,9 @@ public class ClassUtil {
         new InternalTypeEnumeration(internalMethodDescriptor);
 
     for (int counter = 0; counter < parameterNumber; counter++) {
-      String internalType = internalTypeEnumeration.nextType();
+      internalTypeEnumeration.skipType();
 
-      variableIndex += internalTypeSize(internalType);
+      variableIndex += internalTypeEnumeration.typeSize();
     }
 
     return variableIndex;
@@ -1100,11 +1100,10 @@ public class ClassUtil {
   public static String internalMethodParameterType(
       String internalMethodDescriptor, int parameterIndex) {
     InternalTypeEnumeration typeEnum = new InternalTypeEnumeration(internalMethodDescriptor);
-    String type = null;
-    for (int i = 0; i <= parameterIndex; i++) {
-      type = typeEnum.nextType();
+    for (int i = 0; i < parameterIndex; i++) {
+      typeEnum.skipType();
     }
-    return type;
+    return parameterIndex >= 0 ? typeEnum.nextType() : null;
   }
 
   /**
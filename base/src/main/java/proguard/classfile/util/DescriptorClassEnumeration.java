@@ -49,12 +49,12 @@ public class DescriptorClassEnumeration {
 
     reset();
 
-    nextFluff();
+    skipFluff();
     while (hasMoreClassNames()) {
       count++;
 
-      nextClassName();
-      nextFluff();
+      skipClassName();
+      skipFluff();
     }
 
     reset();
@@ -80,6 +80,13 @@ public class DescriptorClassEnumeration {
   public String nextFluff() {
     int fluffStartIndex = index;
 
+    skipFluff();
+
+    return descriptor.substring(fluffStartIndex, index);
+  }
+
+  /** Skips the next fluff from the descriptor, without creating a string. */
+  public void skipFluff() {
     // Find the first token marking the start of a class name 'L' or '.'.
     loop:
     while (index < descriptor.length()) {
@@ -147,14 +154,30 @@ public class DescriptorClassEnumeration {
           ;
       }
     }
-
-    return descriptor.substring(fluffStartIndex, index);
   }
 
   /** Returns the next class name from the descriptor. */
   public String nextClassName() {
     int classNameStartIndex = index;
 
+    skipClassName();
+
+    String className = descriptor.substring(classNameStartIndex, index);
+
+    // Recompose the inner class name if necessary.
+    accumulatedClassName =
+        isInnerClassName
+            ? accumulatedClassName + TypeConstants.INNER_CLASS_SEPARATOR + className
+            : className;
+
+    return accumulatedClassName;
+  }
+
+  /**
+   * Skips the next class name from the descriptor, without creating a string. It doesn't recompose
+   * inner class names, so it is only suitable for counting the class names.
+   */
+  private void skipClassName() {
     // Find the first token marking the end of a class name '<' or ';'.
     loop:
     while (true) {
@@ -169,16 +192,6 @@ public class DescriptorClassEnumeration {
 
       index++;
     }
-
-    String className = descriptor.substring(classNameStartIndex, index);
-
-    // Recompose the inner class name if necessary.
-    accumulatedClassName =
-        isInnerClassName
-            ? accumulatedClassName + TypeConstants.INNER_CLASS_SEPARATOR + className
-            : className;
-
-    return accumulatedClassName;
   }
 
   /**
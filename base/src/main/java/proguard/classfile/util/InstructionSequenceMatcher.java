@@ -130,6 +130,15 @@ public class InstructionSequenceMatcher implements InstructionVisitor, ConstantV
     return matching;
   }
 
+  /**
+   * Returns whether the matcher has matched a part of the pattern sequence, so it will try to match
+   * the next instruction against a subsequent pattern instruction, rather than against the first
+   * one.
+   */
+  public boolean isPartiallyMatching() {
+    return patternInstructionIndex > 0;
+  }
+
   /** Returns the number of instructions in the pattern sequence. */
   public int instructionCount() {
     return patternInstructions.length;
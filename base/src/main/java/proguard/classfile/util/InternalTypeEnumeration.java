@@ -28,6 +28,11 @@ import proguard.classfile.TypeConstants;
  *
  * <p>The return type of a method descriptor can also be retrieved separately.
  *
+ * <p>Instead of retrieving the types as strings, you can also skip over them with {@link
+ * #skipType()} and inspect the most recent type with methods like {@link #typeKind()} and {@link
+ * #typeSize()}, or with its indices in the descriptor. This way, the enumeration doesn't create any
+ * strings.
+ *
  * @author Eric Lafortune
  */
 public class InternalTypeEnumeration implements Iterator<String> {
@@ -37,6 +42,8 @@ public class InternalTypeEnumeration implements Iterator<String> {
   private final int closeIndex;
 
   private int index;
+  private int typeStartIndex;
+  private int typeEndIndex;
 
   /** Creates a new InternalTypeEnumeration for the given method descriptor. */
   public InternalTypeEnumeration(String descriptor) {
@@ -89,7 +96,7 @@ public class InternalTypeEnumeration implements Iterator<String> {
     int count = 0;
 
     while (hasMoreTypes()) {
-      nextType();
+      skipType();
 
       count++;
     }
@@ -109,9 +116,9 @@ public class InternalTypeEnumeration implements Iterator<String> {
     int size = 0;
 
     while (hasMoreTypes()) {
-      String type = nextType();
+      skipType();
 
-      size += ClassUtil.internalTypeSize(type);
+      size += typeSize();
     }
 
     reset();
@@ -146,6 +153,16 @@ public class InternalTypeEnumeration implements Iterator<String> {
 
   /** Returns the next type from the method descriptor. */
   public String nextType() {
+    skipType();
+
+    return descriptor.substring(typeStartIndex, typeEndIndex);
+  }
+
+  /**
+   * Skips the next type from the method descriptor, without creating a string. The type then
+   * becomes the most recent type.
+   */
+  public void skipType() {
     int startIndex = index;
 
     skipArray();
@@ -165,7 +182,85 @@ public class InternalTypeEnumeration implements Iterator<String> {
         }
     }
 
-    return descriptor.substring(startIndex, index);
+    typeStartIndex = startIndex;
+    typeEndIndex = index;
+  }
+
+  /** Returns the index of the first character of the most recent type in the descriptor. */
+  public int typeStartIndex() {
+    return typeStartIndex;
+  }
+
+  /** Returns the index after the last character of the most recent type in the descriptor. */
+  public int typeEndIndex() {
+    return typeEndIndex;
+  }
+
+  /** Returns the number of array dimensions of the most recent type, e.g. 2 for "[[I". */
+  public int typeArrayDimension() {
+    int dimension = 0;
+    while (descriptor.charAt(typeStartIndex + dimension) == TypeConstants.ARRAY) {
+      dimension++;
+    }
+
+    return dimension;
+  }
+
+  /**
+   * Returns the first character of the most recent type after any array dimensions, e.g. 'I' for
+   * "[[I" or 'L' for "Ljava/lang/String;".
+   */
+  public char typeKind() {
+    return descriptor.charAt(typeStartIndex + typeArrayDimension());
+  }
+
+  /**
+   * Returns the size taken up on the stack by the most recent type, like {@link
+   * ClassUtil#internalTypeSize(String)}.
+   */
+  public int typeSize() {
+    if (typeEndIndex - typeStartIndex == 1) {
+      char c = descriptor.charAt(typeStartIndex);
+      if (c == TypeConstants.LONG || c == TypeConstants.DOUBLE) {
+        return 2;
+      } else if (c == TypeConstants.VOID) {
+        return 0;
+      }
+    }
+
+    return 1;
+  }
+
+  /**
+   * Returns the index of the first character of the class name of the most recent type in the
+   * descriptor, or -1 if it isn't a class type or an array of a class type.
+   */
+  public int classNameStartIndex() {
+    int kindIndex = typeStartIndex + typeArrayDimension();
+
+    return descriptor.charAt(kindIndex) == TypeConstants.CLASS_START ? kindIndex + 1 : -1;
+  }
+
+  /**
+   * Returns the index after the last character of the class name of the most recent type in the
+   * descriptor, excluding any generic type arguments, or -1 if it isn't a class type or an array of
+   * a class type.
+   */
+  public int classNameEndIndex() {
+    int startIndex = classNameStartIndex();
+    if (startIndex < 0) {
+      return -1;
+    }
+
+    int endIndex = startIndex;
+    while (true) {
+      char c = descriptor.charAt(endIndex);
+      if (c == TypeConstants.CLASS_END || c == TypeConstants.GENERIC_START) {
+        return endIndex;
+      }
+
+      endIndex++;
+    }
   }
 
   /** Returns the return type from the descriptor, assuming it's a method descriptor. */
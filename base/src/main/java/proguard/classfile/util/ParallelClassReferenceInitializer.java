@@ -0,0 +1,253 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.classfile.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import proguard.classfile.ClassPool;
+import proguard.classfile.Clazz;
+import proguard.classfile.LibraryClass;
+import proguard.classfile.ProgramClass;
+import proguard.classfile.visitor.ClassPoolVisitor;
+import proguard.classfile.visitor.ClassVisitor;
+import proguard.classfile.visitor.ParallelAllClassVisitor;
+
+/**
+ * This {@link ClassPoolVisitor} initializes the references of all classes in the class pools that
+ * it visits, like {@link ClassReferenceInitializer}, but using multiple threads.
+ *
+ * <p>The references of the classes themselves are initialized in parallel with a {@link
+ * ParallelAllClassVisitor}, with a separate {@link ClassReferenceInitializer} per thread. The
+ * initializers only change the classes that they visit. They collect any invalid references per
+ * class. Afterwards, the invalid references are reported and the references of the Kotlin metadata
+ * are initialized, class by class, in the order of the class pool. The results and the order of
+ * the reported invalid references are therefore the same as with a single {@link
+ * ClassReferenceInitializer}.
+ *
+ * <p>The class hierarchy must be initialized before using this visitor.
+ */
+public class ParallelClassReferenceInitializer implements ClassPoolVisitor {
+  private final ClassPool programClassPool;
+  private final ClassPool libraryClassPool;
+  private final boolean checkAccessRules;
+  private final InvalidReferenceVisitor invalidReferenceVisitor;
+
+  /**
+   * Creates a new ParallelClassReferenceInitializer that initializes the references of all classes
+   * in the visited class pools.
+   */
+  public ParallelClassReferenceInitializer(ClassPool programClassPool, ClassPool libraryClassPool) {
+    this(programClassPool, libraryClassPool, true, null);
+  }
+
+  /**
+   * Creates a new ParallelClassReferenceInitializer that initializes the references of all classes
+   * in the visited class pools, optionally printing warnings if some classes or class members can't
+   * be found or if they are in the program class pool.
+   */
+  public ParallelClassReferenceInitializer(
+      ClassPool programClassPool,
+      ClassPool libraryClassPool,
+      boolean checkAccessRules,
+      WarningPrinter missingClassWarningPrinter,
+      WarningPrinter missingProgramMemberWarningPrinter,
+      WarningPrinter missingLibraryMemberWarningPrinter,
+      WarningPrinter dependencyWarningPrinter) {
+    this(
+        programClassPool,
+        libraryClassPool,
+        checkAccessRules,
+        new ClassReferenceInitializer.InvalidReferenceWarningVisitor(
+            missingClassWarningPrinter,
+            missingProgramMemberWarningPrinter,
+            missingLibraryMemberWarningPrinter,
+            dependencyWarningPrinter));
+  }
+
+  /**
+   * Creates a new ParallelClassReferenceInitializer that initializes the references of all classes
+   * in the visited class pools, visiting the given {@link InvalidReferenceVisitor} for any broken
+   * references. The invalid reference visitor is only called from the calling thread.
+   */
+  public ParallelClassReferenceInitializer(
+      ClassPool programClassPool,
+      ClassPool libraryClassPool,
+      boolean checkAccessRules,
+      InvalidReferenceVisitor invalidReferenceVisitor) {
+    this.programClassPool = programClassPool;
+    this.libraryClassPool = libraryClassPool;
+    this.checkAccessRules = checkAccessRules;
+    this.invalidReferenceVisitor = invalidReferenceVisitor;
+  }
+
+  // Implementations for ClassPoolVisitor.
+
+  @Override
+  public void visitClassPool(ClassPool classPool) {
+    Map<Clazz, List<Consumer<InvalidReferenceVisitor>>> invalidReferencesByClass =
+        new ConcurrentHashMap<>();
+
+    // Initialize the references of the classes in parallel.
+    classPool.accept(
+        new ParallelAllClassVisitor(
+            () -> new MyClassReferenceInitializer(invalidReferencesByClass)));
+
+    // Report the invalid references and initialize the Kotlin metadata,
+    // in a deterministic order.
+    ClassVisitor kotlinMetadataInitializer =
+        new ClassReferenceInitializer(
+            programClassPool,
+            libraryClassPool,
+            checkAccessRules,
+            invalidReferenceVisitor,
+            false,
+            true);
+
+    classPool.classesAccept(
+        clazz -> {
+          List<Consumer<InvalidReferenceVisitor>> invalidReferences =
+              invalidReferencesByClass.get(clazz);
+          if (invalidReferences != null) {
+            invalidReferences.forEach(
+                invalidReference -> invalidReference.accept(invalidReferenceVisitor));
+          }
+
+          clazz.accept(kotlinMetadataInitializer);
+        });
+  }
+
+  /**
+   * This {@link ClassVisitor} initializes the references of the classes that it visits, except for
+   * their Kotlin metadata, collecting their invalid references.
+   */
+  private class MyClassReferenceInitializer implements ClassVisitor {
+    private final Map<Clazz, List<Consumer<InvalidReferenceVisitor>>> invalidReferencesByClass;
+    private final InvalidReferenceCollector invalidReferenceCollector =
+        new InvalidReferenceCollector();
+    private final ClassVisitor classReferenceInitializer =
+        new ClassReferenceInitializer(
+            programClassPool,
+            libraryClassPool,
+            checkAccessRules,
+            invalidReferenceVisitor != null ? invalidReferenceCollector : null,
+            true,
+            false);
+
+    private MyClassReferenceInitializer(
+        Map<Clazz, List<Consumer<InvalidReferenceVisitor>>> invalidReferencesByClass) {
+      this.invalidReferencesByClass = invalidReferencesByClass;
+    }
+
+    // Implementations for ClassVisitor.
+
+    @Override
+    public void visitAnyClass(Clazz clazz) {
+      List<Consumer<InvalidReferenceVisitor>> invalidReferences = new ArrayList<>();
+
+      invalidReferenceCollector.invalidReferences = invalidReferences;
+      clazz.accept(classReferenceInitializer);
+      invalidReferenceCollector.invalidReferences = null;
+
+      if (!invalidReferences.isEmpty()) {
+        invalidReferencesByClass.put(clazz, invalidReferences);
+      }
+    }
+  }
+
+  /**
+   * This {@link InvalidReferenceVisitor} collects the invalid references that it visits, so they
+   * can be passed to another invalid reference visitor later on.
+   */
+  private static class InvalidReferenceCollector implements InvalidReferenceVisitor {
+    private List<Consumer<InvalidReferenceVisitor>> invalidReferences;
+
+    // Implementations for InvalidClassReferenceVisitor.
+
+    @Override
+    public void visitMissingClass(Clazz referencingClazz, String reference) {
+      invalidReferences.add(visitor -> visitor.visitMissingClass(referencingClazz, reference));
+    }
+
+    @Override
+    public void visitProgramDependency(Clazz referencingClazz, Clazz dependency) {
+      invalidReferences.add(
+          visitor -> visitor.visitProgramDependency(referencingClazz, dependency));
+    }
+
+    // Implementations for InvalidMemberReferenceVisitor.
+
+    @Override
+    public void visitAnyMissingMember(
+        Clazz referencingClazz, Clazz reference, String name, String type) {
+      invalidReferences.add(
+          visitor -> visitor.visitAnyMissingMember(referencingClazz, reference, name, type));
+    }
+
+    @Override
+    public void visitAnyMissingField(
+        Clazz referencingClazz, Clazz reference, String name, String type) {
+      invalidReferences.add(
+          visitor -> visitor.visitAnyMissingField(referencingClazz, reference, name, type));
+    }
+
+    @Override
+    public void visitMissingProgramField(
+        Clazz referencingClazz, ProgramClass reference, String name, String type) {
+      invalidReferences.add(
+          visitor -> visitor.visitMissingProgramField(referencingClazz, reference, name, type));
+    }
+
+    @Override
+    public void visitMissingLibraryField(
+        Clazz referencingClazz, LibraryClass reference, String name, String type) {
+      invalidReferences.add(
+          visitor -> visitor.visitMissingLibraryField(referencingClazz, reference, name, type));
+    }
+
+    @Override
+    public void visitAnyMissingMethod(
+        Clazz referencingClazz, Clazz reference, String name, String type) {
+      invalidReferences.add(
+          visitor -> visitor.visitAnyMissingMethod(referencingClazz, reference, name, type));
+    }
+
+    @Override
+    public void visitMissingProgramMethod(
+        Clazz referencingClazz, ProgramClass reference, String name, String type) {
+      invalidReferences.add(
+          visitor -> visitor.visitMissingProgramMethod(referencingClazz, reference, name, type));
+    }
+
+    @Override
+    public void visitMissingLibraryMethod(
+        Clazz referencingClazz, LibraryClass reference, String name, String type) {
+      invalidReferences.add(
+          visitor -> visitor.visitMissingLibraryMethod(referencingClazz, reference, name, type));
+    }
+
+    @Override
+    public void visitMissingEnclosingMethod(
+        Clazz enclosingClazz, Clazz reference, String name, String type) {
+      invalidReferences.add(
+          visitor -> visitor.visitMissingEnclosingMethod(enclosingClazz, reference, name, type));
+    }
+  }
+}
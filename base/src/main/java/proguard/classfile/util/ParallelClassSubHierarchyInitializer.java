@@ -0,0 +1,163 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.classfile.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import proguard.classfile.ClassPool;
+import proguard.classfile.Clazz;
+import proguard.classfile.visitor.ClassPoolVisitor;
+import proguard.classfile.visitor.ClassVisitor;
+import proguard.classfile.visitor.ParallelAllClassVisitor;
+
+/**
+ * This {@link ClassPoolVisitor} fills out the subclasses of all classes in the class pools that it
+ * visits, like {@link ClassSubHierarchyInitializer}, but using multiple threads.
+ *
+ * <p>The classes of a class pool are split into contiguous chunks. Each thread collects the
+ * subclasses of the classes in its own chunk. The collected subclasses are then merged in the order
+ * of the chunks, so the resulting arrays of subclasses are exactly the same as the arrays of {@link
+ * ClassSubHierarchyInitializer}, including their order.
+ *
+ * <p>By default, it uses as many threads as a {@link ParallelAllClassVisitor}, and the threads
+ * record their metrics in the {@link proguard.analysis.metrics.MetricsRegistry} that is active in
+ * the calling thread, if any.
+ *
+ * <p>As for {@link ClassSubHierarchyInitializer}, you must create a single instance and apply it to
+ * subclass pools first; for example first the program class pool, then the underlying library
+ * class pool. The class pools must not be modified in the meantime.
+ */
+public class ParallelClassSubHierarchyInitializer implements ClassPoolVisitor {
+  private final int threadCount;
+
+  private final Map<Clazz, Set<Clazz>> subClassesMap = new HashMap<>();
+
+  /**
+   * Creates a new ParallelClassSubHierarchyInitializer that uses as many threads as a {@link
+   * ParallelAllClassVisitor}.
+   */
+  public ParallelClassSubHierarchyInitializer() {
+    this(ParallelAllClassVisitor.getThreadCount());
+  }
+
+  /**
+   * Creates a new ParallelClassSubHierarchyInitializer.
+   *
+   * @param threadCount the number of threads to use.
+   */
+  public ParallelClassSubHierarchyInitializer(int threadCount) {
+    this.threadCount = threadCount;
+  }
+
+  // Implementations for ClassPoolVisitor.
+
+  @Override
+  public void visitClassPool(ClassPool classPool) {
+    List<Clazz> classes = new ArrayList<>(classPool.size());
+    classPool.classes().forEach(classes::add);
+
+    // Collect the subclass information for the classes of all chunks.
+    List<Map<Clazz, Set<Clazz>>> chunkSubClassesMaps =
+        processChunks(
+            classes,
+            chunk -> {
+              Map<Clazz, Set<Clazz>> chunkSubClassesMap = new HashMap<>();
+              ClassVisitor subclassCollector =
+                  new ClassSubHierarchyInitializer.MySubclassCollector(chunkSubClassesMap);
+              chunk.forEach(clazz -> clazz.accept(subclassCollector));
+              return chunkSubClassesMap;
+            });
+
+    // Merge the subclasses in the order of the chunks.
+    for (Map<Clazz, Set<Clazz>> chunkSubClassesMap : chunkSubClassesMaps) {
+      chunkSubClassesMap.forEach(
+          (clazz, subClasses) ->
+              subClassesMap
+                  .computeIfAbsent(clazz, newClass -> new LinkedHashSet<>())
+                  .addAll(subClasses));
+    }
+
+    // Store the cached subclasses in all classes.
+    processChunks(
+        classes,
+        chunk -> {
+          ClassVisitor subclassSetter =
+              new ClassSubHierarchyInitializer.MySubclassSetter(subClassesMap);
+          chunk.forEach(clazz -> clazz.accept(subclassSetter));
+          return null;
+        });
+  }
+
+  // Small utility methods.
+
+  /**
+   * Processes contiguous chunks of the given classes in parallel, returning the results in the
+   * order of the chunks.
+   */
+  private <T> List<T> processChunks(List<Clazz> classes, ChunkProcessor<T> chunkProcessor) {
+    int chunkCount = Math.min(threadCount, classes.size());
+    if (chunkCount <= 1) {
+      return Collections.singletonList(chunkProcessor.process(classes));
+    }
+
+    int chunkSize = (classes.size() + chunkCount - 1) / chunkCount;
+
+    List<Callable<T>> tasks = new ArrayList<>(chunkCount);
+    for (int start = 0; start < classes.size(); start += chunkSize) {
+      List<Clazz> chunk = classes.subList(start, Math.min(start + chunkSize, classes.size()));
+      tasks.add(() -> chunkProcessor.process(chunk));
+    }
+
+    List<T> results = new ArrayList<>(tasks.size());
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            tasks.size(),
+            ParallelAllClassVisitor.createThreadFactory("Parallel Subclass Initializer"));
+    try {
+      for (Future<T> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Parallel execution was interrupted", e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException
+          ? (RuntimeException) e.getCause()
+          : new RuntimeException(e.getCause());
+    } finally {
+      executor.shutdown();
+    }
+
+    return results;
+  }
+
+  /** A function that processes a chunk of classes. */
+  private interface ChunkProcessor<T> {
+    T process(List<Clazz> chunk);
+  }
+}
@@ -22,7 +22,7 @@ import java.util.List;
 import proguard.util.*;
 
 /**
- * This class prints out and counts warnings.
+ * This class prints out and counts warnings. It is thread-safe, as long as its print writer is.
  *
  * @author Eric Lafortune
  */
@@ -79,7 +79,7 @@ public class WarningPrinter {
   }
 
   /** Prints out the given warning and increments the warning count. */
-  private void print(String warning) {
+  private synchronized void print(String warning) {
     printWriter.println(warning);
 
     warningCount++;
@@ -106,7 +106,7 @@ public class WarningPrinter {
   }
 
   /** Returns the number of warnings printed so far. */
-  public int getWarningCount() {
+  public synchronized int getWarningCount() {
     return warningCount;
   }
 }
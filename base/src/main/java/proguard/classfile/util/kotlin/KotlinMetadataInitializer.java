@@ -152,6 +152,10 @@ import proguard.classfile.visitor.ClassVisitor;
  * <p>- `initialize`: provide the {@link Clazz} and {@link kotlin.Metadata} field values to the
  * {@link KotlinMetadataInitializer#initialize(Clazz, int, int[], String[], String[], int, String,
  * String)} method to initialize Kotlin metadata for the given {@link Clazz}.
+ *
+ * <p>In lazy mode, the initializer only retains the raw {@link kotlin.Metadata} field values in a
+ * {@link LazyKotlinMetadata} instance, which parses them the first time that the Kotlin metadata of
+ * the class is visited. Corrupt metadata is then reported at that time, on that thread.
  */
 public class KotlinMetadataInitializer
     implements ClassVisitor,
@@ -171,13 +175,37 @@ public class KotlinMetadataInitializer
   private String pn;
 
   private final BiConsumer<Clazz, String> errorHandler;
+  private final boolean lazy;
 
   public KotlinMetadataInitializer(WarningPrinter warningPrinter) {
-    this((clazz, message) -> warningPrinter.print(clazz.getName(), message));
+    this(warningPrinter, false);
+  }
+
+  /**
+   * Creates a new KotlinMetadataInitializer.
+   *
+   * @param warningPrinter the printer for warnings about corrupt Kotlin metadata.
+   * @param lazy specifies whether the Kotlin metadata should only be parsed when it is first
+   *     visited.
+   */
+  public KotlinMetadataInitializer(WarningPrinter warningPrinter, boolean lazy) {
+    this((clazz, message) -> warningPrinter.print(clazz.getName(), message), lazy);
   }
 
   public KotlinMetadataInitializer(BiConsumer<Clazz, String> errorHandler) {
+    this(errorHandler, false);
+  }
+
+  /**
+   * Creates a new KotlinMetadataInitializer.
+   *
+   * @param errorHandler the handler for errors about corrupt Kotlin metadata.
+   * @param lazy specifies whether the Kotlin metadata should only be parsed when it is first
+   *     visited.
+   */
+  public KotlinMetadataInitializer(BiConsumer<Clazz, String> errorHandler, boolean lazy) {
     this.errorHandler = errorHandler;
+    this.lazy = lazy;
   }
 
   // Implementations for ClassVisitor
@@ -238,6 +266,20 @@ public class KotlinMetadataInitializer
    */
   public void initialize(
       Clazz clazz, int k, int[] mv, String[] d1, String[] d2, int xi, String xs, String pn) {
+    KotlinMetadata kotlinMetadata =
+        lazy
+            ? new LazyKotlinMetadata(this, k, mv, d1, d2, xi, xs, pn)
+            : createKotlinMetadata(clazz, k, mv, d1, d2, xi, xs, pn);
+
+    clazz.accept(new SimpleKotlinMetadataSetter(kotlinMetadata));
+  }
+
+  /**
+   * Parses the given {@link kotlin.Metadata} field values of the given {@link Clazz} into a Kotlin
+   * metadata model.
+   */
+  KotlinMetadata createKotlinMetadata(
+      Clazz clazz, int k, int[] mv, String[] d1, String[] d2, int xi, String xs, String pn) {
     // Parse the collected metadata.
     Metadata metadata = JvmMetadataUtil.Metadata(k, mv, d1, d2, xs, pn, xi);
     KotlinClassMetadata md;
@@ -255,9 +297,7 @@ public class KotlinMetadataInitializer
               + " (version "
               + version
               + ").");
-      clazz.accept(
-          new SimpleKotlinMetadataSetter(new UnsupportedKotlinMetadata(k, mv, xi, xs, pn)));
-      return;
+      return new UnsupportedKotlinMetadata(k, mv, xi, xs, pn);
     }
 
     try {
@@ -265,16 +305,14 @@ public class KotlinMetadataInitializer
         case METADATA_KIND_CLASS:
           KotlinClassKindMetadata kotlinClassKindMetadata = convertClassKindMetadata(metadata, md);
           kotlinClassKindMetadata.ownerClassName = clazz.getName();
-          clazz.accept(new SimpleKotlinMetadataSetter(kotlinClassKindMetadata));
-          break;
+          return kotlinClassKindMetadata;
 
         case METADATA_KIND_FILE_FACADE: // For package level functions/properties
           KotlinFileFacadeKindMetadata kotlinFileFacadeKindMetadata =
               convertFileFacadeKindMetadata(metadata, md);
 
           kotlinFileFacadeKindMetadata.ownerClassName = clazz.getName();
-          clazz.accept(new SimpleKotlinMetadataSetter(kotlinFileFacadeKindMetadata));
-          break;
+          return kotlinFileFacadeKindMetadata;
 
         case METADATA_KIND_SYNTHETIC_CLASS:
           KotlinSyntheticClassKindMetadata.Flavor flavor;
@@ -304,24 +342,19 @@ public class KotlinMetadataInitializer
             kotlinSyntheticClassKindMetadata.functions = Collections.emptyList();
           }
 
-          clazz.accept(new SimpleKotlinMetadataSetter(kotlinSyntheticClassKindMetadata));
-          break;
+          return kotlinSyntheticClassKindMetadata;
 
         case METADATA_KIND_MULTI_FILE_CLASS_FACADE:
           // The relevant data for this kind is in d1. It is a list of Strings
           // representing the part class names.
-          clazz.accept(
-              new SimpleKotlinMetadataSetter(
-                  new KotlinMultiFileFacadeKindMetadata(mv, d1, xi, xs, pn)));
-          break;
+          return new KotlinMultiFileFacadeKindMetadata(mv, d1, xi, xs, pn);
 
         case METADATA_KIND_MULTI_FILE_CLASS_PART:
           KotlinMultiFilePartKindMetadata kotlinMultiFilePartKindMetadata =
               convertMultiFilePartKindMetadata(metadata, md);
 
           kotlinMultiFilePartKindMetadata.ownerClassName = clazz.getName();
-          clazz.accept(new SimpleKotlinMetadataSetter(kotlinMultiFilePartKindMetadata));
-          break;
+          return kotlinMultiFilePartKindMetadata;
 
         default:
           // This happens when the library is outdated and a newer type of Kotlin class is passed.
@@ -330,9 +363,7 @@ public class KotlinMetadataInitializer
               "Unknown Kotlin class kind in class "
                   + clazz.getName()
                   + ". The metadata for this class will not be processed.");
-          clazz.accept(
-              new SimpleKotlinMetadataSetter(new UnsupportedKotlinMetadata(k, mv, xi, xs, pn)));
-          break;
+          return new UnsupportedKotlinMetadata(k, mv, xi, xs, pn);
       }
     } catch (InconsistentKotlinMetadataException e) {
       errorHandler.accept(
@@ -342,8 +373,7 @@ public class KotlinMetadataInitializer
               + ". The metadata for this class will not be processed ("
               + e.getMessage()
               + ")");
-      clazz.accept(
-          new SimpleKotlinMetadataSetter(new UnsupportedKotlinMetadata(k, mv, xi, xs, pn)));
+      return new UnsupportedKotlinMetadata(k, mv, xi, xs, pn);
     }
   }
 
@@ -0,0 +1,118 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.classfile.util.kotlin;
+
+import proguard.classfile.Clazz;
+import proguard.classfile.LibraryClass;
+import proguard.classfile.ProgramClass;
+import proguard.classfile.kotlin.KotlinMetadata;
+import proguard.classfile.kotlin.visitor.KotlinMetadataVisitor;
+
+/**
+ * Placeholder for the Kotlin metadata of a class that retains the raw {@link kotlin.Metadata} field
+ * values, and only parses them into a Kotlin metadata model when the metadata is first visited.
+ * The model then replaces this placeholder in the class. Visitors therefore never see this
+ * placeholder, only the parsed model.
+ *
+ * <p>The {@link proguard.classfile.io.kotlin.KotlinMetadataWriter} leaves the original raw
+ * metadata of classes whose metadata has never been parsed untouched.
+ *
+ * <p>Any visitor of the Kotlin metadata parses it, including the Kotlin reference initialization of
+ * the {@link proguard.classfile.util.ClassReferenceInitializer} and the {@link
+ * proguard.classfile.util.ParallelClassReferenceInitializer}. Pipelines that initialize the
+ * references of all classes therefore parse all metadata right after reading it, so the lazy mode
+ * doesn't save any work there. It only helps if the metadata of some classes is never visited, for
+ * instance when classes are only read, filtered, and written again.
+ *
+ * <p>Corrupt metadata is only reported when it is parsed, to the error handler of the {@link
+ * KotlinMetadataInitializer}, on whichever thread first visits the metadata. The error handler
+ * therefore has to be thread-safe if classes are processed in parallel.
+ *
+ * @see KotlinMetadataInitializer
+ */
+public class LazyKotlinMetadata extends KotlinMetadata {
+  /** The protobuf-encoded metadata. */
+  public final String[] d1;
+
+  /** The strings that are referenced from the protobuf-encoded metadata. */
+  public final String[] d2;
+
+  private final KotlinMetadataInitializer kotlinMetadataInitializer;
+  private volatile KotlinMetadata kotlinMetadata;
+
+  LazyKotlinMetadata(
+      KotlinMetadataInitializer kotlinMetadataInitializer,
+      int k,
+      int[] mv,
+      String[] d1,
+      String[] d2,
+      int xi,
+      String xs,
+      String pn) {
+    super(k, mv, xi, xs, pn);
+    this.d1 = d1;
+    this.d2 = d2;
+    this.kotlinMetadataInitializer = kotlinMetadataInitializer;
+  }
+
+  /** Returns whether the raw metadata has already been parsed into a Kotlin metadata model. */
+  public boolean isInitialized() {
+    return kotlinMetadata != null;
+  }
+
+  /**
+   * Returns the Kotlin metadata model of the given class, parsing the raw metadata if necessary.
+   */
+  public KotlinMetadata getKotlinMetadata(Clazz clazz) {
+    KotlinMetadata result = kotlinMetadata;
+    if (result == null) {
+      synchronized (this) {
+        result = kotlinMetadata;
+        if (result == null) {
+          result =
+              kotlinMetadataInitializer.createKotlinMetadata(clazz, k, mv, d1, d2, xi, xs, pn);
+
+          // Replace this placeholder in the class, unless the metadata has been changed or removed
+          // in the meantime.
+          if (clazz instanceof ProgramClass) {
+            ProgramClass programClass = (ProgramClass) clazz;
+            if (programClass.kotlinMetadata == this) {
+              programClass.kotlinMetadata = result;
+            }
+          } else if (clazz instanceof LibraryClass) {
+            LibraryClass libraryClass = (LibraryClass) clazz;
+            if (libraryClass.kotlinMetadata == this) {
+              libraryClass.kotlinMetadata = result;
+            }
+          }
+
+          kotlinMetadata = result;
+        }
+      }
+    }
+
+    return result;
+  }
+
+  // Implementations for KotlinMetadata.
+
+  @Override
+  public void accept(Clazz clazz, KotlinMetadataVisitor kotlinMetadataVisitor) {
+    getKotlinMetadata(clazz).accept(clazz, kotlinMetadataVisitor);
+  }
+}
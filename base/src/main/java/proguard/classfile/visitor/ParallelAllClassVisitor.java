@@ -19,6 +19,7 @@ package proguard.classfile.visitor;
 
 import java.util.*;
 import java.util.concurrent.*;
+import proguard.analysis.metrics.MetricsRegistry;
 import proguard.classfile.*;
 
 /**
@@ -35,6 +36,10 @@ import proguard.classfile.*;
  * <p>It is possible to override the number of threads by setting the environment variable {@code
  * parallel.threads} to an integer > 0.
  *
+ * <p>The threads record their metrics in the {@link MetricsRegistry} that is active in the calling
+ * thread, if any. Other parallel processing can use the same configuration, with {@link
+ * #getThreadCount()} and {@link #createThreadFactory(String)}.
+ *
  * @author Thomas Neidhart
  */
 public class ParallelAllClassVisitor implements ClassPoolVisitor {
@@ -76,6 +81,24 @@ public class ParallelAllClassVisitor implements ClassPoolVisitor {
     this.classVisitorFactory = classVisitorFactory;
   }
 
+  /**
+   * Returns the number of parallel threads, as configured with the system property {@code
+   * parallel.threads}. A count of 1 or less means that processing should happen in the calling
+   * thread.
+   */
+  public static int getThreadCount() {
+    return THREAD_COUNT;
+  }
+
+  /**
+   * Creates a thread factory for threads with the given name, followed by a counter. The threads
+   * record their metrics in the {@link MetricsRegistry} that is active in the calling thread, if
+   * any.
+   */
+  public static ThreadFactory createThreadFactory(String threadName) {
+    return new MyThreadFactory(threadName, MetricsRegistry.getActive());
+  }
+
   // Implementations for ClassPoolVisitor.
 
   public void visitClassPool(ClassPool classPool) {
@@ -84,7 +107,15 @@ public class ParallelAllClassVisitor implements ClassPoolVisitor {
       // was overridden by an environment variable.
       classPool.classesAccept(classVisitorFactory.createClassVisitor());
     } else {
-      ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT, new MyThreadFactory());
+      ExecutorService executor =
+          Executors.newFixedThreadPool(
+              THREAD_COUNT,
+              new MyThreadFactory("Parallel Class Visitor", MetricsRegistry.getActive()) {
+                @Override
+                protected Thread newThread(String name, Runnable runnable) {
+                  return new MyClassVisitorThread(name, runnable);
+                }
+              });
 
       MyThreadedClassVisitor classVisitor = new MyThreadedClassVisitor(executor);
 
@@ -107,19 +138,37 @@ public class ParallelAllClassVisitor implements ClassPoolVisitor {
     }
   }
 
-  private class MyThreadFactory implements ThreadFactory {
+  private static class MyThreadFactory implements ThreadFactory {
+    private final String threadName;
+    private final MetricsRegistry metrics;
     private int threadCounter = 0;
 
+    public MyThreadFactory(String threadName, MetricsRegistry metrics) {
+      this.threadName = threadName;
+      this.metrics = metrics;
+    }
+
     public Thread newThread(Runnable runnable) {
-      return new MyClassVisitorThread(++threadCounter, runnable);
+      // Pass on the metrics registry of the calling thread.
+      return newThread(
+          threadName + " " + ++threadCounter,
+          () -> {
+            try (MetricsRegistry.Scope scope = MetricsRegistry.activate(metrics)) {
+              runnable.run();
+            }
+          });
+    }
+
+    protected Thread newThread(String name, Runnable runnable) {
+      return new Thread(runnable, name);
     }
   }
 
   private class MyClassVisitorThread extends Thread {
     private final ClassVisitor classVisitor = classVisitorFactory.createClassVisitor();
 
-    public MyClassVisitorThread(int counter, Runnable runnable) {
-      super(runnable, "Parallel Class Visitor " + counter);
+    public MyClassVisitorThread(String name, Runnable runnable) {
+      super(runnable, name);
     }
   }
 
@@ -10,6 +10,7 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import proguard.classfile.Clazz;
+import proguard.classfile.MethodDescriptor;
 import proguard.classfile.MethodSignature;
 import proguard.classfile.util.ClassUtil;
 import proguard.evaluation.executor.Executor;
@@ -20,7 +21,8 @@ import proguard.evaluation.value.TypedReferenceValue;
  * Class for performing lookups of registered executors based on method signatures.
  *
  * <p>Dynamic lookup is performed for instance methods by using the analyzed type, if available,
- * instead of the static type of the target method.
+ * instead of the static type of the target method. The supported signatures are indexed by class
+ * type, method name, and descriptor, so lookups don't need to create any signatures.
  *
  * <p>Executors are expected to provide exactly all the methods they expect to be able to support
  * via {@link Executor#getSupportedMethodSignatures()}, for example to support inheritance the
@@ -33,6 +35,12 @@ final class ExecutorLookup {
       System.getProperty("proguard.value.logerrors") != null;
   private final Map<MethodSignature, Executor> executorFromSignature = new HashMap<>();
 
+  // The supported signatures, indexed by the internal type of their class,
+  // their method name, and their method descriptor, so dynamic lookups don't
+  // need to create new signatures.
+  private final Map<String, Map<String, Map<MethodDescriptor, MethodSignature>>>
+      signaturesByClassType = new HashMap<>();
+
   private final Set<String> supportedClasses = new HashSet<>();
 
   /**
@@ -55,8 +63,14 @@ final class ExecutorLookup {
                 "Signature {} is supported by multiple executors. {} will be ignored",
                 signature,
                 executor.getClass().getSimpleName());
-        } else {
+        } else if (signature.getClassName() != null) {
           supportedClasses.add(signature.getClassName());
+          signaturesByClassType
+              .computeIfAbsent(
+                  ClassUtil.internalTypeFromClassName(signature.getClassName()),
+                  type -> new HashMap<>())
+              .computeIfAbsent(signature.method, method -> new HashMap<>())
+              .put(signature.descriptor, signature);
         }
       }
     }
@@ -69,44 +83,62 @@ final class ExecutorLookup {
    * @return Executor, if the method can be handled. Null otherwise.
    */
   public @Nullable Executor lookupExecutor(@NotNull MethodExecutionInfo info) {
-    MethodSignature targetSignature;
     MethodSignature staticSignature = info.getSignature();
-    boolean isTargetDynamic = false;
 
     if (info.isInstanceMethod()
         && (info.getInstanceNonStatic() instanceof TypedReferenceValue)
         && info.getInstanceNonStatic().getType() != null) {
       // Try to perform a "dynamic" lookup for instance methods if additional type information is
       // available
-      isTargetDynamic = true;
-      TypedReferenceValue instance = (TypedReferenceValue) info.getInstanceNonStatic();
-      targetSignature =
-          new MethodSignature(
-              ClassUtil.internalClassNameFromClassType(instance.getType()),
-              staticSignature.method,
-              staticSignature.descriptor);
-    } else {
-      // For the remaining invocations just use the static signature
-      targetSignature = staticSignature;
-    }
+      String targetType = info.getInstanceNonStatic().getType();
+      MethodSignature targetSignature = findSignature(targetType, staticSignature);
+      if (targetSignature != null) {
+        info.setResolvedTargetSignature(targetSignature);
+        return executorFromSignature.get(targetSignature);
+      }
 
-    info.setResolvedTargetSignature(targetSignature);
+      if (PRINT_ERRORS && executorFromSignature.get(staticSignature) != null) {
+        log.warn(
+            "Dynamic target {} is not supported by the executors but static target {} is, check if your executor should also support the child class methods",
+            new MethodSignature(
+                ClassUtil.internalClassNameFromClassType(targetType),
+                staticSignature.method,
+                staticSignature.descriptor),
+            staticSignature);
+      }
 
-    Executor targetExecutor = executorFromSignature.get(targetSignature);
+      return null;
+    }
 
-    if (PRINT_ERRORS
-        && isTargetDynamic
-        && targetExecutor == null
-        && executorFromSignature.get(staticSignature) != null) {
-      log.warn(
-          "Dynamic target {} is not supported by the executors but static target {} is, check if your executor should also support the child class methods",
-          targetSignature,
-          staticSignature);
+    // For the remaining invocations just use the static signature
+    Executor targetExecutor = executorFromSignature.get(staticSignature);
+    if (targetExecutor != null) {
+      info.setResolvedTargetSignature(staticSignature);
     }
 
     return targetExecutor;
   }
 
+  /**
+   * Returns the supported signature with the given class type and the method name and descriptor of
+   * the given signature, or null if there isn't any.
+   */
+  private @Nullable MethodSignature findSignature(String classType, MethodSignature signature) {
+    Map<String, Map<MethodDescriptor, MethodSignature>> signaturesByMethod =
+        signaturesByClassType.get(classType);
+    if (signaturesByMethod == null) {
+      return null;
+    }
+
+    Map<MethodDescriptor, MethodSignature> signaturesByDescriptor =
+        signaturesByMethod.get(signature.method);
+    if (signaturesByDescriptor == null) {
+      return null;
+    }
+
+    return signaturesByDescriptor.get(signature.descriptor);
+  }
+
   /**
    * Check, whether the given signature is supported by this executor.
    *
@@ -20,6 +20,8 @@ package proguard.evaluation;
 import java.util.Arrays;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import proguard.analysis.metrics.FlightRecorderEventType;
+import proguard.analysis.metrics.MetricsRegistry;
 import proguard.classfile.Clazz;
 import proguard.classfile.Method;
 import proguard.classfile.attribute.Attribute;
@@ -74,6 +76,16 @@ public class PartialEvaluator implements AttributeVisitor, ExceptionInfoVisitor
 
   private static final Logger logger = LogManager.getLogger(PartialEvaluator.class);
 
+  private static final FlightRecorderEventType EVALUATION_EVENT_TYPE =
+      new FlightRecorderEventType(
+          "proguard.PartialEvaluation",
+          "Partial Evaluation",
+          "Partial evaluation of the code of a method",
+          FlightRecorderEventType.field(String.class, "className", "Class"),
+          FlightRecorderEventType.field(String.class, "method", "Method"),
+          FlightRecorderEventType.field(int.class, "codeLength", "Code Length"),
+          FlightRecorderEventType.field(long.class, "evaluationCount", "Evaluation Count"));
+
   // The analysis will generalize stack/vars after visiting an instruction this many times.
   private static final int GENERALIZE_AFTER_N_EVALUATIONS = 5;
   // If the analysis visits an instruction this many times (this can happen e.g. for big switches),
@@ -340,11 +352,31 @@ public class PartialEvaluator implements AttributeVisitor, ExceptionInfoVisitor
     //            clazz.getName().equals("abc/Def") &&
     //            method.getName(clazz).equals("abc");
 
+    MetricsRegistry metrics = MetricsRegistry.getActive();
+    long startTime = metrics != null ? System.nanoTime() : 0L;
+    FlightRecorderEventType.Event event = EVALUATION_EVENT_TYPE.begin();
+
     // TODO: Remove this when the partial evaluator has stabilized.
     // Catch any unexpected exceptions from the actual visiting method.
     try {
       // Process the code.
       visitCodeAttribute0(clazz, method, codeAttribute);
+
+      if (metrics != null) {
+        metrics.timer(MetricsRegistry.PARTIAL_EVALUATION).record(System.nanoTime() - startTime);
+        metrics
+            .histogram(MetricsRegistry.PARTIAL_EVALUATION_INSTRUCTIONS)
+            .record(evaluationCount());
+      }
+
+      if (event != null) {
+        event
+            .set(0, clazz.getName())
+            .set(1, method.getName(clazz) + method.getDescriptor(clazz))
+            .set(2, codeAttribute.u4codeLength)
+            .set(3, evaluationCount())
+            .commit();
+      }
     } catch (ProguardCoreException ex) {
       if (stateTracker != null) {
         stateTracker.registerException(clazz, method, codeAttribute, this, ex);
@@ -1122,6 +1154,16 @@ public class PartialEvaluator implements AttributeVisitor, ExceptionInfoVisitor
 
   // Small utility methods.
 
+  /** Returns the total number of instruction evaluations in the most recently evaluated code. */
+  private long evaluationCount() {
+    long count = 0L;
+    for (int offset = 0; offset < codeLength; offset++) {
+      count += evaluationCounts[offset];
+    }
+
+    return count;
+  }
+
   /** Initializes the data structures for the variables, stack, etc. */
   private void initializeArrays(CodeAttribute codeAttribute) {
     int newCodeLength = codeAttribute.u4codeLength;
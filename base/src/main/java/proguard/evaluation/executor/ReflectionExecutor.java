@@ -21,12 +21,20 @@ package proguard.evaluation.executor;
 import static proguard.classfile.TypeConstants.VOID;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import proguard.classfile.JavaConstants;
 import proguard.classfile.JavaTypeConstants;
 import proguard.classfile.MethodDescriptor;
+import proguard.classfile.MethodSignature;
 import proguard.classfile.TypeConstants;
 import proguard.classfile.util.ClassUtil;
 import proguard.evaluation.MethodResult;
@@ -41,9 +49,45 @@ import proguard.evaluation.value.object.AnalyzedObject;
  * This {@link Executor} provides an implementation for {@link Executor#getMethodResult} which tries
  * to resolve the method at runtime and execute it using Java's reflection API {@link
  * java.lang.reflect}.
+ *
+ * <p>The resolved methods and constructors are cached, including the ones that can't be resolved.
+ * Optionally, the results of methods are memoized for calling instances and parameters that are
+ * immutable, such as strings and boxed primitives. This is only correct if the supported methods
+ * are pure, i.e. if their results only depend on their calling instance and parameters, and if
+ * they don't have any side effects.
  */
 public abstract class ReflectionExecutor implements Executor {
 
+  private static final int MAX_MEMOIZED_RESULT_COUNT = 10000;
+
+  // Markers for memoized null results and for memoized results that are
+  // the calling instance itself.
+  private static final Object NULL_RESULT = new Object();
+  private static final Object INSTANCE_RESULT = new Object();
+
+  // The resolved methods and constructors only depend on the classes of
+  // the runtime, so they can be shared between all executors.
+  private static final Map<MethodSignature, ResolvedMember> resolvedMembers =
+      new ConcurrentHashMap<>();
+
+  private final Map<MemoizedCall, Object> memoizedResults;
+
+  /** Creates a new ReflectionExecutor that doesn't memoize the results of methods. */
+  protected ReflectionExecutor() {
+    this(false);
+  }
+
+  /**
+   * Creates a new ReflectionExecutor.
+   *
+   * @param memoizeResults specifies whether the results of methods should be memoized for
+   *     immutable calling instances and parameters. Only set this if all supported methods are
+   *     pure.
+   */
+  protected ReflectionExecutor(boolean memoizeResults) {
+    this.memoizedResults = memoizeResults ? new ConcurrentHashMap<>() : null;
+  }
+
   @Override
   public MethodResult getMethodResult(
       MethodExecutionInfo methodExecutionInfo, ValueCalculator valueCalculator) {
@@ -130,9 +174,13 @@ public abstract class ReflectionExecutor implements Executor {
       ReflectionParameters reflectionParameters) {
     Object newReferenceId;
     try {
-      Class<?> baseClass =
-          Class.forName(
-              ClassUtil.externalClassName(methodExecutionInfo.getSignature().getClassName()));
+      Method method =
+          (Method)
+              resolveMember(
+                  methodExecutionInfo.getSignature(), false, reflectionParameters.classes);
+      if (method == null) {
+        return MethodResult.invalidResult();
+      }
 
       Object callingInstance = null;
       boolean isCallingInstanceMutable = false;
@@ -149,11 +197,41 @@ public abstract class ReflectionExecutor implements Executor {
 
       MethodResult.Builder resultBuilder = new MethodResult.Builder();
 
-      // Try to resolve the method via reflection and invoke the method.
-      Object returnResult =
-          baseClass
-              .getMethod(methodExecutionInfo.getSignature().method, reflectionParameters.classes)
-              .invoke(callingInstance, reflectionParameters.objects);
+      // Check whether we've already invoked the method with the same
+      // immutable values.
+      MemoizedCall memoizedCall = null;
+      Object memoizedResult = null;
+      if (memoizedResults != null
+          && !isCallingInstanceMutable
+          && isImmutable(callingInstance)
+          && areImmutable(reflectionParameters.objects)) {
+        memoizedCall =
+            new MemoizedCall(
+                methodExecutionInfo.getSignature(), callingInstance, reflectionParameters.objects);
+        memoizedResult = memoizedResults.get(memoizedCall);
+      }
+
+      // Invoke the method, unless we already know its result.
+      Object returnResult;
+      if (memoizedResult == null) {
+        returnResult = method.invoke(callingInstance, reflectionParameters.objects);
+
+        if (memoizedCall != null && isImmutable(returnResult)) {
+          if (memoizedResults.size() >= MAX_MEMOIZED_RESULT_COUNT) {
+            memoizedResults.clear();
+          }
+          memoizedResults.put(
+              memoizedCall,
+              returnResult == null
+                  ? NULL_RESULT
+                  : returnResult == callingInstance ? INSTANCE_RESULT : returnResult);
+        }
+      } else {
+        returnResult =
+            memoizedResult == NULL_RESULT
+                ? null
+                : memoizedResult == INSTANCE_RESULT ? callingInstance : memoizedResult;
+      }
 
       // The new reference id is the instance one if the method returned the instance
       newReferenceId = null;
@@ -178,12 +256,7 @@ public abstract class ReflectionExecutor implements Executor {
 
       return resultBuilder.build();
 
-    } catch (ClassNotFoundException
-        | NoSuchMethodException
-        | SecurityException
-        | IllegalAccessException
-        | IllegalArgumentException
-        | InvocationTargetException e) {
+    } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
       return MethodResult.invalidResult();
     }
   }
@@ -193,14 +266,14 @@ public abstract class ReflectionExecutor implements Executor {
       ValueCalculator valueCalculator,
       ReflectionParameters reflectionParameters) {
     try {
-      Class<?> baseClass =
-          Class.forName(
-              ClassUtil.externalClassName(methodExecutionInfo.getSignature().getClassName()));
+      Constructor<?> constructor =
+          (Constructor<?>)
+              resolveMember(methodExecutionInfo.getSignature(), true, reflectionParameters.classes);
+      if (constructor == null) {
+        return MethodResult.invalidResult();
+      }
 
-      Object newInstance =
-          baseClass
-              .getConstructor(reflectionParameters.classes)
-              .newInstance(reflectionParameters.objects);
+      Object newInstance = constructor.newInstance(reflectionParameters.objects);
 
       // Try to resolve the constructor reflectively and create a new instance.
       return new MethodResult.Builder()
@@ -215,10 +288,7 @@ public abstract class ReflectionExecutor implements Executor {
                       methodExecutionInfo.getSpecificInstance().id)
                   .referenceValue())
           .build();
-    } catch (ClassNotFoundException
-        | NoSuchMethodException
-        | SecurityException
-        | InstantiationException
+    } catch (InstantiationException
         | IllegalAccessException
         | IllegalArgumentException
         | InvocationTargetException e) {
@@ -226,6 +296,61 @@ public abstract class ReflectionExecutor implements Executor {
     }
   }
 
+  /**
+   * Returns the method or constructor with the given signature and parameter classes, or null if it
+   * can't be resolved. The results are cached.
+   */
+  private static Executable resolveMember(
+      MethodSignature signature, boolean isConstructor, Class<?>[] parameterClasses) {
+    ResolvedMember resolvedMember = resolvedMembers.get(signature);
+
+    // The parameter classes generally follow from the signature, but array
+    // classes may depend on the actual values.
+    if (resolvedMember == null
+        || !Arrays.equals(resolvedMember.parameterClasses, parameterClasses)) {
+      Executable member;
+      try {
+        Class<?> baseClass = Class.forName(ClassUtil.externalClassName(signature.getClassName()));
+
+        member =
+            isConstructor
+                ? baseClass.getConstructor(parameterClasses)
+                : baseClass.getMethod(signature.method, parameterClasses);
+      } catch (ClassNotFoundException | NoSuchMethodException | SecurityException e) {
+        member = null;
+      }
+
+      resolvedMember = new ResolvedMember(parameterClasses, member);
+      resolvedMembers.put(signature, resolvedMember);
+    }
+
+    return resolvedMember.member;
+  }
+
+  /** Returns whether the given object is null or an instance of an immutable class. */
+  private static boolean isImmutable(Object object) {
+    return object == null
+        || object instanceof String
+        || object instanceof Integer
+        || object instanceof Long
+        || object instanceof Float
+        || object instanceof Double
+        || object instanceof Character
+        || object instanceof Byte
+        || object instanceof Short
+        || object instanceof Boolean;
+  }
+
+  /** Returns whether all given objects are null or instances of immutable classes. */
+  private static boolean areImmutable(Object[] objects) {
+    for (Object object : objects) {
+      if (!isImmutable(object)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private MethodResult createFallbackResultMethod(
       MethodExecutionInfo methodExecutionInfo, ValueCalculator valueCalculator) {
     MethodResult.Builder builder = new MethodResult.Builder();
@@ -321,6 +446,56 @@ public abstract class ReflectionExecutor implements Executor {
     }
   }
 
+  /** A resolved method or constructor, or null, for the given parameter classes. */
+  private static class ResolvedMember {
+    private final Class<?>[] parameterClasses;
+    private final Executable member;
+
+    private ResolvedMember(Class<?>[] parameterClasses, Executable member) {
+      this.parameterClasses = parameterClasses;
+      this.member = member;
+    }
+  }
+
+  /** The key of a memoized method result: the method, its calling instance, and parameters. */
+  private static class MemoizedCall {
+    private final MethodSignature signature;
+    private final Object instance;
+    private final Object[] parameters;
+    private final int hashCode;
+
+    private MemoizedCall(MethodSignature signature, Object instance, Object[] parameters) {
+      this.signature = signature;
+      this.instance = instance;
+      this.parameters = parameters;
+      this.hashCode =
+          31 * (31 * signature.hashCode() + Objects.hashCode(instance))
+              + Arrays.hashCode(parameters);
+    }
+
+    // Implementations for Object.
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MemoizedCall)) {
+        return false;
+      }
+      MemoizedCall other = (MemoizedCall) o;
+      return hashCode == other.hashCode
+          && signature.equals(other.signature)
+          && Objects.equals(instance, other.instance)
+          && Arrays.equals(parameters, other.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
   /**
    * This class represents the parameters needed for invoking a method using Java's reflection API.
    * It is capable of parsing these parameters arrays of {@link Value}s.
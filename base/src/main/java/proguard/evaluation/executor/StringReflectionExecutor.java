@@ -59,6 +59,18 @@ public class StringReflectionExecutor extends ReflectionExecutor {
   private final ClassPool libraryClassPool;
 
   public StringReflectionExecutor(ClassPool libraryClassPool) {
+    this(libraryClassPool, false);
+  }
+
+  /**
+   * Creates a new StringReflectionExecutor.
+   *
+   * @param libraryClassPool the library class pool, containing the supported classes.
+   * @param memoizeResults specifies whether the results of methods of {@link String} should be
+   *     memoized for the same parameters.
+   */
+  public StringReflectionExecutor(ClassPool libraryClassPool, boolean memoizeResults) {
+    super(memoizeResults);
     this.libraryClassPool = libraryClassPool;
   }
 
@@ -146,14 +158,24 @@ public class StringReflectionExecutor extends ReflectionExecutor {
   public static class Builder implements Executor.Builder<StringReflectionExecutor> {
 
     private final ClassPool libraryClassPool;
+    private boolean memoizeResults = false;
 
     public Builder(ClassPool libraryClassPool) {
       this.libraryClassPool = libraryClassPool;
     }
 
+    /**
+     * Specifies whether the results of methods of {@link String} should be memoized, so they don't
+     * need to be invoked again for the same parameters. Defaults to false.
+     */
+    public Builder setMemoizeResults(boolean memoizeResults) {
+      this.memoizeResults = memoizeResults;
+      return this;
+    }
+
     @Override
     public StringReflectionExecutor build() {
-      return new StringReflectionExecutor(libraryClassPool);
+      return new StringReflectionExecutor(libraryClassPool, memoizeResults);
     }
   }
 }
@@ -95,6 +95,13 @@ public class JsonPrinter implements PartialEvaluatorStateTracker {
     return stateTracker.toJson();
   }
 
+  /**
+   * @return the record of the last tracked code attribute, or null if there is none.
+   */
+  CodeAttributeRecord getLastCodeAttribute() {
+    return stateTracker.getLastCodeAttribute();
+  }
+
   public void printState() {
     System.out.println(getJson());
   }
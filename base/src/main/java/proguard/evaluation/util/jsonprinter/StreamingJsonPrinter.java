@@ -0,0 +1,533 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.evaluation.util.jsonprinter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import proguard.classfile.Clazz;
+import proguard.classfile.Method;
+import proguard.classfile.attribute.CodeAttribute;
+import proguard.classfile.attribute.ExceptionInfo;
+import proguard.classfile.instruction.Instruction;
+import proguard.evaluation.BasicBranchUnit;
+import proguard.evaluation.PartialEvaluator;
+import proguard.evaluation.TracedStack;
+import proguard.evaluation.TracedVariables;
+import proguard.evaluation.Variables;
+import proguard.evaluation.util.PartialEvaluatorStateTracker;
+import proguard.evaluation.value.InstructionOffsetValue;
+import proguard.util.StringMatcher;
+
+/**
+ * Tracks the state of the partial evaluator, like a {@link JsonPrinter}, but writes the trace of
+ * each code attribute to the given writer as soon as its evaluation is done, as a single line of
+ * JSON. Only the trace of the code attribute that is being evaluated is kept in memory, so the
+ * printer can trace the evaluation of entire applications.
+ *
+ * <p>The code attributes can be filtered by class name and method name, and sampled, so only every
+ * n-th matching code attribute is traced. The number of traced instruction evaluations per code
+ * attribute is limited, to bound the size of the traces of evaluations that blow up. The limit is
+ * {@link #DEFAULT_MAX_INSTRUCTION_EVALUATIONS}, unless specified otherwise.
+ *
+ * <p>The written trace can be converted to the JSON format of a {@link JsonPrinter}, for the
+ * visualizer, with {@link #convertTrace(Reader, Writer)}. The writer may for example compress the
+ * trace, as long as the converter gets the corresponding reader.
+ */
+public class StreamingJsonPrinter implements PartialEvaluatorStateTracker {
+  /** The default maximum number of traced instruction evaluations per code attribute. */
+  public static final int DEFAULT_MAX_INSTRUCTION_EVALUATIONS = 10000;
+
+  /** The writer to which the traces of the code attributes are written. */
+  private final Writer writer;
+
+  /** Filter on the class names, only evaluations of matching classes are processed. */
+  private final StringMatcher classNameFilter;
+
+  /** Filter on the method names, only evaluations of matching methods are processed. */
+  private final StringMatcher methodNameFilter;
+
+  /** Only every n-th matching code attribute is processed. */
+  private final int samplingInterval;
+
+  /** The maximum number of traced instruction evaluations per code attribute. */
+  private final int maxInstructionEvaluations;
+
+  /** The number of matching code attributes so far, for the sampling. */
+  private int matchingCodeAttributeCount;
+
+  /** Tracks the current code attribute, or null if it is not processed. */
+  private JsonPrinter printer;
+
+  /** The number of traced instruction evaluations of the current code attribute. */
+  private int instructionEvaluationCount;
+
+  /** The offset of the last traced instruction evaluation of the current code attribute. */
+  private int lastInstructionOffset;
+
+  /**
+   * Creates a new StreamingJsonPrinter that traces all code attributes, with at most {@link
+   * #DEFAULT_MAX_INSTRUCTION_EVALUATIONS} instruction evaluations each.
+   */
+  public StreamingJsonPrinter(Writer writer) {
+    this(writer, null, null);
+  }
+
+  /**
+   * Creates a new StreamingJsonPrinter that traces the code attributes of the matching classes and
+   * methods, with at most {@link #DEFAULT_MAX_INSTRUCTION_EVALUATIONS} instruction evaluations
+   * each.
+   *
+   * @param writer the writer to which the traces are written.
+   * @param classNameFilter the filter on the internal class names, or null to trace all classes.
+   * @param methodNameFilter the filter on the method names, or null to trace all methods.
+   */
+  public StreamingJsonPrinter(
+      Writer writer, StringMatcher classNameFilter, StringMatcher methodNameFilter) {
+    this(writer, classNameFilter, methodNameFilter, 1, DEFAULT_MAX_INSTRUCTION_EVALUATIONS);
+  }
+
+  /**
+   * Creates a new StreamingJsonPrinter that traces a sample of the code attributes of the matching
+   * classes and methods.
+   *
+   * @param writer the writer to which the traces are written.
+   * @param classNameFilter the filter on the internal class names, or null to trace all classes.
+   * @param methodNameFilter the filter on the method names, or null to trace all methods.
+   * @param samplingInterval only every n-th matching code attribute is traced, starting with the
+   *     first one.
+   * @param maxInstructionEvaluations the maximum number of traced instruction evaluations per code
+   *     attribute. The traces of longer evaluations are truncated.
+   */
+  public StreamingJsonPrinter(
+      Writer writer,
+      StringMatcher classNameFilter,
+      StringMatcher methodNameFilter,
+      int samplingInterval,
+      int maxInstructionEvaluations) {
+    if (samplingInterval < 1) {
+      throw new IllegalArgumentException("The sampling interval must be at least 1");
+    }
+
+    this.writer = writer;
+    this.classNameFilter = classNameFilter;
+    this.methodNameFilter = methodNameFilter;
+    this.samplingInterval = samplingInterval;
+    this.maxInstructionEvaluations = maxInstructionEvaluations;
+  }
+
+  /**
+   * Converts a trace that was written by a StreamingJsonPrinter to the JSON format of a {@link
+   * JsonPrinter}.
+   */
+  public static void convertTrace(Reader traceReader, Writer jsonWriter) throws IOException {
+    BufferedReader reader = new BufferedReader(traceReader);
+
+    jsonWriter.write("{\"codeAttributes\":[");
+    String separator = "";
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (!line.isEmpty()) {
+        jsonWriter.write(separator);
+        jsonWriter.write(line);
+        separator = ",";
+      }
+    }
+    jsonWriter.write("]}");
+  }
+
+  /**
+   * Converts a trace file that was written by a StreamingJsonPrinter to a JSON file in the format
+   * of a {@link JsonPrinter}. Both files are encoded in UTF-8.
+   */
+  public static void convertTrace(String traceFileName, String jsonFileName) {
+    try (Reader reader =
+            new InputStreamReader(new FileInputStream(traceFileName), StandardCharsets.UTF_8);
+        Writer writer =
+            new BufferedWriter(
+                new OutputStreamWriter(
+                    new FileOutputStream(jsonFileName), StandardCharsets.UTF_8))) {
+      convertTrace(reader, writer);
+    } catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /** Writes the trace of the current code attribute and stops tracking it. */
+  private void writeCodeAttribute() {
+    CodeAttributeRecord codeAttribute = printer.getLastCodeAttribute();
+    if (instructionEvaluationCount > maxInstructionEvaluations
+        && codeAttribute.getError() == null) {
+      codeAttribute.setError(
+          new ErrorRecord(
+              lastInstructionOffset,
+              "Trace truncated after " + maxInstructionEvaluations + " instruction evaluations"));
+    }
+
+    String json = codeAttribute.toJson(new StringBuilder()).toString();
+    try {
+      // Make sure that the trace of the code attribute fits on a single line.
+      for (int index = 0; index < json.length(); index++) {
+        char c = json.charAt(index);
+        switch (c) {
+          case '\n':
+            writer.write("\\n");
+            break;
+          case '\r':
+            writer.write("\\r");
+            break;
+          default:
+            writer.write(c);
+        }
+      }
+      writer.write('\n');
+    } catch (IOException ex) {
+      throw new RuntimeException(ex);
+    } finally {
+      printer = null;
+    }
+  }
+
+  /**
+   * @return whether the given code attribute should be traced.
+   */
+  private boolean shouldTrace(Clazz clazz, Method method) {
+    return (classNameFilter == null || classNameFilter.matches(clazz.getName()))
+        && (methodNameFilter == null || methodNameFilter.matches(method.getName(clazz)))
+        && matchingCodeAttributeCount++ % samplingInterval == 0;
+  }
+
+  /**
+   * @return whether the current event should be traced.
+   */
+  private boolean isTracing() {
+    return printer != null && instructionEvaluationCount <= maxInstructionEvaluations;
+  }
+
+  // region Code attribute level
+
+  @Override
+  public void startCodeAttribute(
+      Clazz clazz, Method method, CodeAttribute codeAttribute, Variables parameters) {
+    if (shouldTrace(clazz, method)) {
+      printer = new JsonPrinter();
+      instructionEvaluationCount = 0;
+      lastInstructionOffset = 0;
+      printer.startCodeAttribute(clazz, method, codeAttribute, parameters);
+    } else {
+      printer = null;
+    }
+  }
+
+  @Override
+  public void registerException(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      PartialEvaluator evaluator,
+      Throwable cause) {
+    if (printer != null) {
+      printer.registerException(clazz, method, codeAttribute, evaluator, cause);
+      writeCodeAttribute();
+    }
+  }
+
+  // endregion
+
+  // region Exception handling
+
+  @Override
+  public void startExceptionHandlingForBlock(
+      Clazz clazz, Method method, int startOffset, int endOffset) {
+    if (isTracing()) {
+      printer.startExceptionHandlingForBlock(clazz, method, startOffset, endOffset);
+    }
+  }
+
+  @Override
+  public void registerExceptionHandler(
+      Clazz clazz, Method method, int startPC, int endPC, ExceptionInfo info) {
+    if (isTracing()) {
+      printer.registerExceptionHandler(clazz, method, startPC, endPC, info);
+    }
+  }
+
+  @Override
+  public void registerUnusedExceptionHandler(
+      Clazz clazz, Method method, int startPC, int endPC, ExceptionInfo info) {
+    if (isTracing()) {
+      printer.registerUnusedExceptionHandler(clazz, method, startPC, endPC, info);
+    }
+  }
+
+  // endregion
+
+  // region Results
+
+  @Override
+  public void evaluationResults(
+      Clazz clazz, Method method, CodeAttribute codeAttribute, PartialEvaluator evaluator) {
+    if (printer != null) {
+      printer.evaluationResults(clazz, method, codeAttribute, evaluator);
+      writeCodeAttribute();
+    }
+  }
+
+  // endregion
+
+  // region Instruction block level
+
+  @Override
+  public void startInstructionBlock(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      TracedVariables startVariables,
+      TracedStack startStack,
+      int startOffset) {
+    if (isTracing()) {
+      printer.startInstructionBlock(
+          clazz, method, codeAttribute, startVariables, startStack, startOffset);
+    }
+  }
+
+  @Override
+  public void startBranchCodeBlockEvaluation(List<PartialEvaluator.InstructionBlock> branchStack) {
+    if (isTracing()) {
+      printer.startBranchCodeBlockEvaluation(branchStack);
+    }
+  }
+
+  @Override
+  public void instructionBlockDone(
+      Clazz clazz,
+      Method method,
+      CodeAttribute codeAttribute,
+      TracedVariables startVariables,
+      TracedStack startStack,
+      int startOffset) {
+    if (isTracing()) {
+      printer.instructionBlockDone(
+          clazz, method, codeAttribute, startVariables, startStack, startOffset);
+    }
+  }
+
+  // endregion
+
+  // region Instruction level
+
+  @Override
+  public void skipInstructionBlock(
+      Clazz clazz,
+      Method method,
+      int instructionOffset,
+      Instruction instruction,
+      TracedVariables variablesBefore,
+      TracedStack stackBefore,
+      int evaluationCount) {
+    if (isTracing()) {
+      printer.skipInstructionBlock(
+          clazz,
+          method,
+          instructionOffset,
+          instruction,
+          variablesBefore,
+          stackBefore,
+          evaluationCount);
+    }
+  }
+
+  @Override
+  public void generalizeInstructionBlock(
+      Clazz clazz,
+      Method method,
+      int instructionOffset,
+      Instruction instruction,
+      TracedVariables variablesBefore,
+      TracedStack stackBefore,
+      int evaluationCount) {
+    if (isTracing()) {
+      printer.generalizeInstructionBlock(
+          clazz,
+          method,
+          instructionOffset,
+          instruction,
+          variablesBefore,
+          stackBefore,
+          evaluationCount);
+    }
+  }
+
+  @Override
+  public void startInstructionEvaluation(
+      Clazz clazz,
+      Method method,
+      int instructionOffset,
+      Instruction instruction,
+      TracedVariables variablesBefore,
+      TracedStack stackBefore,
+      int evaluationCount) {
+    if (printer != null) {
+      // Stop tracing once the maximum number of instruction evaluations is exceeded.
+      if (++instructionEvaluationCount > maxInstructionEvaluations) {
+        return;
+      }
+
+      lastInstructionOffset = instructionOffset;
+      printer.startInstructionEvaluation(
+          clazz,
+          method,
+          instructionOffset,
+          instruction,
+          variablesBefore,
+          stackBefore,
+          evaluationCount);
+    }
+  }
+
+  @Override
+  public void afterInstructionEvaluation(
+      Clazz clazz,
+      Method method,
+      int instructionOffset,
+      Instruction instruction,
+      TracedVariables variablesAfter,
+      TracedStack stackAfter,
+      BasicBranchUnit branchUnit,
+      InstructionOffsetValue branchTarget) {
+    if (isTracing()) {
+      printer.afterInstructionEvaluation(
+          clazz,
+          method,
+          instructionOffset,
+          instruction,
+          variablesAfter,
+          stackAfter,
+          branchUnit,
+          branchTarget);
+    }
+  }
+
+  @Override
+  public void definitiveBranch(
+      Clazz clazz,
+      Method method,
+      int instructionOffset,
+      Instruction instruction,
+      TracedVariables variablesAfter,
+      TracedStack stackAfter,
+      InstructionOffsetValue branchTargets) {
+    if (isTracing()) {
+      printer.definitiveBranch(
+          clazz, method, instructionOffset, instruction, variablesAfter, stackAfter, branchTargets);
+    }
+  }
+
+  @Override
+  public void registerAlternativeBranch(
+      Clazz clazz,
+      Method method,
+      int fromInstructionOffset,
+      Instruction fromInstruction,
+      TracedVariables variablesAfter,
+      TracedStack stackAfter,
+      int branchIndex,
+      int branchTargetCount,
+      int offset) {
+    if (isTracing()) {
+      printer.registerAlternativeBranch(
+          clazz,
+          method,
+          fromInstructionOffset,
+          fromInstruction,
+          variablesAfter,
+          stackAfter,
+          branchIndex,
+          branchTargetCount,
+          offset);
+    }
+  }
+
+  // endregion
+
+  // region subroutines
+
+  @Override
+  public void startSubroutine(
+      Clazz clazz,
+      Method method,
+      TracedVariables startVariables,
+      TracedStack startStack,
+      int subroutineStart,
+      int subroutineEnd) {
+    if (isTracing()) {
+      printer.startSubroutine(
+          clazz, method, startVariables, startStack, subroutineStart, subroutineEnd);
+    }
+  }
+
+  @Override
+  public void registerSubroutineReturn(
+      Clazz clazz,
+      Method method,
+      int returnOffset,
+      TracedVariables returnVariables,
+      TracedStack returnStack) {
+    if (isTracing()) {
+      printer.registerSubroutineReturn(clazz, method, returnOffset, returnVariables, returnStack);
+    }
+  }
+
+  @Override
+  public void generalizeSubroutine(
+      Clazz clazz,
+      Method method,
+      TracedVariables startVariables,
+      TracedStack startStack,
+      int subroutineStart,
+      int subroutineEnd) {
+    if (isTracing()) {
+      printer.generalizeSubroutine(
+          clazz, method, startVariables, startStack, subroutineStart, subroutineEnd);
+    }
+  }
+
+  @Override
+  public void endSubroutine(
+      Clazz clazz,
+      Method method,
+      TracedVariables variablesAfter,
+      TracedStack stackAfter,
+      int subroutineStart,
+      int subroutineEnd) {
+    if (isTracing()) {
+      printer.endSubroutine(
+          clazz, method, variablesAfter, stackAfter, subroutineStart, subroutineEnd);
+    }
+  }
+
+  // endregion
+}
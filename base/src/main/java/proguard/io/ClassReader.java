@@ -18,6 +18,7 @@
 package proguard.io;
 
 import java.io.*;
+import proguard.analysis.metrics.MetricsRegistry;
 import proguard.classfile.*;
 import proguard.classfile.io.*;
 import proguard.classfile.util.*;
@@ -76,6 +77,35 @@ public class ClassReader implements DataEntryReader {
       boolean includeKotlinMetadata,
       WarningPrinter warningPrinter,
       ClassVisitor classVisitor) {
+    this(
+        isLibrary,
+        skipNonPublicLibraryClasses,
+        skipNonPublicLibraryClassMembers,
+        ignoreStackMapAttributes,
+        includeKotlinMetadata,
+        false,
+        warningPrinter,
+        classVisitor);
+  }
+
+  /**
+   * Creates a new ClassReader for reading the specified Clazz objects.
+   *
+   * @param lazyKotlinMetadata specifies whether the Kotlin metadata should only be parsed when it
+   *     is first visited, instead of while reading the classes. Only applicable if the Kotlin
+   *     metadata is included. Initializing the class references also visits the metadata, and
+   *     corrupt metadata is only reported when it is parsed. See {@link
+   *     proguard.classfile.util.kotlin.LazyKotlinMetadata}.
+   */
+  public ClassReader(
+      boolean isLibrary,
+      boolean skipNonPublicLibraryClasses,
+      boolean skipNonPublicLibraryClassMembers,
+      boolean ignoreStackMapAttributes,
+      boolean includeKotlinMetadata,
+      boolean lazyKotlinMetadata,
+      WarningPrinter warningPrinter,
+      ClassVisitor classVisitor) {
     this.isLibrary = isLibrary;
     this.skipNonPublicLibraryClasses = skipNonPublicLibraryClasses;
     this.skipNonPublicLibraryClassMembers = skipNonPublicLibraryClassMembers;
@@ -83,13 +113,18 @@ public class ClassReader implements DataEntryReader {
     this.warningPrinter = warningPrinter;
     this.classVisitor = classVisitor;
     this.kmInitializer =
-        includeKotlinMetadata ? new KotlinMetadataInitializer(warningPrinter) : null;
+        includeKotlinMetadata
+            ? new KotlinMetadataInitializer(warningPrinter, lazyKotlinMetadata)
+            : null;
   }
 
   // Implementations for DataEntryReader.
 
   @Override
   public void read(DataEntry dataEntry) throws IOException {
+    MetricsRegistry metrics = MetricsRegistry.getActive();
+    long startTime = metrics != null ? System.nanoTime() : 0L;
+
     try {
       // Get the input stream.
       InputStream inputStream = dataEntry.getInputStream();
@@ -124,6 +159,10 @@ public class ClassReader implements DataEntryReader {
         clazz.accept(programClassReader);
       }
 
+      if (metrics != null) {
+        metrics.timer(MetricsRegistry.CLASS_READING).record(System.nanoTime() - startTime);
+      }
+
       // Apply the visitor, if we have a real class.
       String className = clazz.getName();
       if (className != null) {
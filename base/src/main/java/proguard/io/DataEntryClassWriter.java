@@ -65,7 +65,7 @@ public class DataEntryClassWriter implements ClassVisitor {
         // Write the class to the output entry.
         DataOutputStream classOutputStream = new DataOutputStream(outputStream);
         try {
-          new ProgramClassWriter(classOutputStream).visitProgramClass(programClass);
+          writeClass(programClass, classOutputStream);
         } finally {
           classOutputStream.close();
         }
@@ -82,4 +82,13 @@ public class DataEntryClassWriter implements ClassVisitor {
           e);
     }
   }
+
+  /**
+   * Writes the given program class to the given output stream. Subclasses may for instance write
+   * classes that they have serialized in advance.
+   */
+  protected void writeClass(ProgramClass programClass, DataOutputStream outputStream)
+      throws IOException {
+    new ProgramClassWriter(outputStream).visitProgramClass(programClass);
+  }
 }
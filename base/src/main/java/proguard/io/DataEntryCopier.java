@@ -36,11 +36,27 @@ public class DataEntryCopier implements DataEntryReader {
   private static final Logger logger = LogManager.getLogger(DataEntryCopier.class);
 
   private final DataEntryWriter dataEntryWriter;
+  private final boolean copyCompressedData;
   private final byte[] buffer = new byte[BUFFER_SIZE];
 
   /** Creates a new DataEntryCopier. */
   public DataEntryCopier(DataEntryWriter dataEntryWriter) {
+    this(dataEntryWriter, false);
+  }
+
+  /**
+   * Creates a new DataEntryCopier that optionally copies compressed zip entries without
+   * decompressing and compressing them again. This only applies to entries of zip files that are
+   * written unchanged to compressed entries of zip files. The copied entries then keep their
+   * original compressed data.
+   *
+   * @param dataEntryWriter the writer to which the entries are copied.
+   * @param copyCompressedData specifies whether to copy the compressed data of zip entries, when
+   *     possible.
+   */
+  public DataEntryCopier(DataEntryWriter dataEntryWriter, boolean copyCompressedData) {
     this.dataEntryWriter = dataEntryWriter;
+    this.copyCompressedData = copyCompressedData;
   }
 
   // Implementations for DataEntryReader.
@@ -55,6 +71,11 @@ public class DataEntryCopier implements DataEntryReader {
         OutputStream outputStream = dataEntryWriter.createOutputStream(dataEntry);
         if (outputStream != null) {
           try {
+            // Can we copy the compressed data straight to the output entry?
+            if (copyCompressedData && copyCompressedData(dataEntry, outputStream)) {
+              return;
+            }
+
             InputStream inputStream = dataEntry.getInputStream();
 
             try {
@@ -81,6 +102,34 @@ public class DataEntryCopier implements DataEntryReader {
     }
   }
 
+  /**
+   * Copies the compressed data of the given data entry to the given output stream, if they are a
+   * zip entry from an input zip file and a compressed zip entry in an output zip file,
+   * respectively.
+   *
+   * @return whether the data have been copied.
+   */
+  private boolean copyCompressedData(DataEntry dataEntry, OutputStream outputStream)
+      throws IOException {
+    if (dataEntry instanceof ZipFileDataEntry
+        && outputStream instanceof ZipOutput.CompressedDataOutput) {
+      ZipFileDataEntry zipFileDataEntry = (ZipFileDataEntry) dataEntry;
+
+      byte[] compressedData = zipFileDataEntry.getCompressedData();
+      if (compressedData != null) {
+        ((ZipOutput.CompressedDataOutput) outputStream)
+            .writeCompressedData(
+                compressedData,
+                zipFileDataEntry.getCrc(),
+                zipFileDataEntry.getUncompressedSize());
+
+        return true;
+      }
+    }
+
+    return false;
+  }
+
   /**
    * Copies all data that it can read from the given input stream to the given output stream. The
    * caller of this method will open and afterwards flush and close the input stream and the output
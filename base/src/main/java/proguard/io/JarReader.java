@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.nio.charset.*;
 import java.util.Enumeration;
 import java.util.zip.*;
+import proguard.analysis.metrics.FlightRecorderEventType;
 
 /**
  * This {@link DataEntryReader} lets a given {@link DataEntryReader} read all data entries of the
@@ -29,6 +30,14 @@ import java.util.zip.*;
  * @author Eric Lafortune
  */
 public class JarReader implements DataEntryReader {
+  private static final FlightRecorderEventType READ_ARCHIVE_EVENT_TYPE =
+      new FlightRecorderEventType(
+          "proguard.ReadArchive",
+          "Read Archive",
+          "Reading all entries of an archive",
+          FlightRecorderEventType.field(String.class, "archive", "Archive"),
+          FlightRecorderEventType.field(int.class, "entryCount", "Entry Count"));
+
   private final boolean jmod;
   private final DataEntryReader dataEntryReader;
 
@@ -56,12 +65,28 @@ public class JarReader implements DataEntryReader {
 
   @Override
   public void read(DataEntry dataEntry) throws IOException {
+    FlightRecorderEventType.Event event = READ_ARCHIVE_EVENT_TYPE.begin();
+
+    int entryCount = readEntries(dataEntry);
+
+    if (event != null) {
+      event.set(0, dataEntry.getName()).set(1, entryCount).commit();
+    }
+  }
+
+  // Small utility methods.
+
+  /** Reads all entries of the given archive data entry, and returns their number. */
+  private int readEntries(DataEntry dataEntry) throws IOException {
+    int entryCount = 0;
+
     // Can we parse the jar entries more robustly from a file?
     if (dataEntry instanceof FileDataEntry) {
       // Read the data entry using its file.
       FileDataEntry fileDataEntry = (FileDataEntry) dataEntry;
 
       ZipFile zipFile = new ZipFile(fileDataEntry.getFile(), StandardCharsets.UTF_8);
+      ZipCentralDirectory centralDirectory = new ZipCentralDirectory(fileDataEntry.getFile());
 
       try {
         Enumeration entries = zipFile.entries();
@@ -71,10 +96,16 @@ public class JarReader implements DataEntryReader {
           ZipEntry zipEntry = (ZipEntry) entries.nextElement();
 
           // Delegate the actual reading to the data entry reader.
-          dataEntryReader.read(new ZipFileDataEntry(dataEntry, zipEntry, zipFile));
+          dataEntryReader.read(
+              new ZipFileDataEntry(dataEntry, zipEntry, zipFile, centralDirectory));
+          entryCount++;
         }
       } finally {
-        zipFile.close();
+        try {
+          centralDirectory.close();
+        } finally {
+          zipFile.close();
+        }
       }
     } else {
       if (jmod) {
@@ -97,10 +128,13 @@ public class JarReader implements DataEntryReader {
 
           // Delegate the actual reading to the data entry reader.
           dataEntryReader.read(new ZipDataEntry(dataEntry, zipEntry, zipInputStream));
+          entryCount++;
         }
       } finally {
         dataEntry.closeInputStream();
       }
     }
+
+    return entryCount;
   }
 }
@@ -0,0 +1,198 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.io;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import proguard.classfile.*;
+import proguard.classfile.io.ProgramClassWriter;
+import proguard.classfile.visitor.ClassPoolVisitor;
+import proguard.classfile.visitor.ParallelAllClassVisitor;
+
+/**
+ * This {@link ClassPoolVisitor} writes out the {@link ProgramClass} instances of the class pools
+ * that it visits to the given {@link DataEntryWriter}, like a {@link DataEntryClassWriter}, but
+ * serializing the classes in multiple threads.
+ *
+ * <p>Each thread serializes classes into its own reusable buffer. The calling thread then writes
+ * the serialized classes to the data entry writer, in the order of the class pool, while the other
+ * threads serialize the next classes. The data entry writer is therefore only called from the
+ * calling thread, and the output is the same as with a {@link DataEntryClassWriter}. Classes that
+ * the data entry writer discards are not serialized, unless their serialization has already
+ * started.
+ *
+ * <p>By default, it uses as many threads as a {@link ParallelAllClassVisitor}, and the threads
+ * record their metrics in the {@link proguard.analysis.metrics.MetricsRegistry} that is active in
+ * the calling thread, if any.
+ *
+ * <p>The classes must not be modified while they are being written.
+ */
+public class ParallelDataEntryClassWriter implements ClassPoolVisitor {
+  // The number of classes that each thread may serialize ahead of the writer.
+  private static final int CLASSES_AHEAD_PER_THREAD = 4;
+
+  private final DataEntry templateDataEntry;
+  private final DataEntryWriter dataEntryWriter;
+  private final int threadCount;
+
+  /**
+   * Creates a new ParallelDataEntryClassWriter for writing to the given DataEntryWriter, using as
+   * many threads as a {@link ParallelAllClassVisitor}.
+   */
+  public ParallelDataEntryClassWriter(DataEntryWriter dataEntryWriter) {
+    this(new FileDataEntry(new File(""), new File("")), dataEntryWriter);
+  }
+
+  /**
+   * Creates a new ParallelDataEntryClassWriter for writing to the given DataEntryWriter, based on
+   * the given template DataEntry, using as many threads as a {@link ParallelAllClassVisitor}.
+   */
+  public ParallelDataEntryClassWriter(
+      DataEntry templateDataEntry, DataEntryWriter dataEntryWriter) {
+    this(templateDataEntry, dataEntryWriter, ParallelAllClassVisitor.getThreadCount());
+  }
+
+  /**
+   * Creates a new ParallelDataEntryClassWriter for writing to the given DataEntryWriter, based on
+   * the given template DataEntry.
+   *
+   * @param templateDataEntry the data entry on which the names of the class entries are based.
+   * @param dataEntryWriter the writer for the class entries.
+   * @param threadCount the number of threads that serialize the classes.
+   */
+  public ParallelDataEntryClassWriter(
+      DataEntry templateDataEntry, DataEntryWriter dataEntryWriter, int threadCount) {
+    this.templateDataEntry = templateDataEntry;
+    this.dataEntryWriter = dataEntryWriter;
+    this.threadCount = threadCount;
+  }
+
+  // Implementations for ClassPoolVisitor.
+
+  @Override
+  public void visitClassPool(ClassPool classPool) {
+    if (threadCount <= 1) {
+      classPool.classesAccept(new DataEntryClassWriter(templateDataEntry, dataEntryWriter));
+      return;
+    }
+
+    List<ProgramClass> programClasses = new ArrayList<>(classPool.size());
+    classPool.classesAccept(
+        clazz -> {
+          if (clazz instanceof ProgramClass) {
+            programClasses.add((ProgramClass) clazz);
+          }
+        });
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threadCount, ParallelAllClassVisitor.createThreadFactory("Parallel Class Writer"));
+    ThreadLocal<ClassBuffer> classBuffers = ThreadLocal.withInitial(ClassBuffer::new);
+    MyClassWriter classWriter = new MyClassWriter();
+    try {
+      // Serialize a limited number of classes ahead, so the serialized
+      // classes don't all have to be kept in memory at the same time.
+      int classCount = programClasses.size();
+      int classesAhead = threadCount * CLASSES_AHEAD_PER_THREAD;
+      List<Future<byte[]>> futures = new ArrayList<>(classCount);
+      for (int index = 0; index < classCount; index++) {
+        futures.add(null);
+      }
+
+      for (int index = 0; index < Math.min(classesAhead, classCount); index++) {
+        futures.set(index, submit(executor, classBuffers, programClasses.get(index)));
+      }
+
+      // Write the serialized classes in the order of the class pool.
+      for (int index = 0; index < classCount; index++) {
+        classWriter.classFuture = futures.set(index, null);
+
+        int nextIndex = index + classesAhead;
+        if (nextIndex < classCount) {
+          futures.set(nextIndex, submit(executor, classBuffers, programClasses.get(nextIndex)));
+        }
+
+        classWriter.visitProgramClass(programClasses.get(index));
+
+        // Don't serialize the class if the data entry writer discarded
+        // it, unless its serialization has already started.
+        if (classWriter.classFuture != null) {
+          classWriter.classFuture.cancel(false);
+          classWriter.classFuture = null;
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  // Small utility methods.
+
+  /** Submits the serialization of the given class with a buffer of the executing thread. */
+  private Future<byte[]> submit(
+      ExecutorService executor, ThreadLocal<ClassBuffer> classBuffers, ProgramClass programClass) {
+    return executor.submit(() -> classBuffers.get().serialize(programClass));
+  }
+
+  /**
+   * This {@link DataEntryClassWriter} writes the class that is serialized by its current future, if
+   * the data entry writer doesn't discard it.
+   */
+  private class MyClassWriter extends DataEntryClassWriter {
+    private Future<byte[]> classFuture;
+
+    public MyClassWriter() {
+      super(templateDataEntry, dataEntryWriter);
+    }
+
+    @Override
+    protected void writeClass(ProgramClass programClass, DataOutputStream outputStream)
+        throws IOException {
+      Future<byte[]> future = classFuture;
+      classFuture = null;
+
+      try {
+        outputStream.write(future.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Parallel execution was interrupted", e);
+      } catch (ExecutionException e) {
+        throw e.getCause() instanceof RuntimeException
+            ? (RuntimeException) e.getCause()
+            : new RuntimeException(e.getCause());
+      }
+    }
+  }
+
+  /**
+   * This growable buffer serializes classes. It keeps its capacity between classes, so it only
+   * grows for the largest classes.
+   */
+  private static class ClassBuffer extends ByteArrayOutputStream {
+    private final ProgramClassWriter programClassWriter =
+        new ProgramClassWriter(new DataOutputStream(this));
+
+    public byte[] serialize(ProgramClass programClass) {
+      reset();
+      programClassWriter.visitProgramClass(programClass);
+      return toByteArray();
+    }
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.io;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.ZipEntry;
+
+/**
+ * This class reads the compressed data of entries in a zip file, straight from the file, without
+ * decompressing them. It parses the central directory of the zip file when it first needs it, to
+ * find the local headers of the entries.
+ *
+ * <p>The zip file is opened once, when the first entry is read, and stays open until this
+ * instance is closed. Entries can then be read concurrently, with positional reads.
+ */
+class ZipCentralDirectory implements Closeable {
+  private static final int MAGIC_LOCAL_FILE_HEADER = 0x04034b50;
+  private static final int MAGIC_CENTRAL_DIRECTORY_FILE_HEADER = 0x02014b50;
+  private static final int MAGIC_END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+  private static final int MAGIC_ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+  private static final int MAGIC_ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR = 0x07064b50;
+  private static final int MAGIC_ZIP64_EXTENDED_EXTRA_INFORMATION_FIELD = 0x0001;
+
+  private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE = 20;
+  private static final int CENTRAL_DIRECTORY_FILE_HEADER_SIZE = 46;
+  private static final int LOCAL_FILE_HEADER_SIZE = 30;
+  private static final int MAX_COMMENT_SIZE = 0xffff;
+
+  private static final int GENERAL_PURPOSE_FLAG_ENCRYPTED = 0x0001;
+  private static final long FIELD_TOO_SMALL_32BIT = 0xffffffffL;
+
+  private final File file;
+  private FileChannel fileChannel;
+  private volatile Map<String, Long> localFileHeaderOffsets;
+
+  /**
+   * Creates a new ZipCentralDirectory.
+   *
+   * @param file the zip file.
+   */
+  public ZipCentralDirectory(File file) {
+    this.file = file;
+  }
+
+  /**
+   * Returns the raw compressed data of the given entry of the zip file, or null if they can't be
+   * found, e.g. because the entry isn't compressed with the deflate method or because it is
+   * encrypted.
+   */
+  public byte[] readCompressedData(ZipEntry zipEntry) throws IOException {
+    long compressedSize = zipEntry.getCompressedSize();
+    if (zipEntry.getMethod() != ZipEntry.DEFLATED
+        || compressedSize < 0
+        || compressedSize > Integer.MAX_VALUE) {
+      return null;
+    }
+
+    try {
+      Map<String, Long> offsets = localFileHeaderOffsets;
+      if (offsets == null) {
+        offsets = initialize();
+      }
+
+      Long offset = offsets.get(zipEntry.getName());
+      if (offset == null) {
+        return null;
+      }
+
+      // Check the local file header.
+      byte[] header = new byte[LOCAL_FILE_HEADER_SIZE];
+      readFully(fileChannel, offset, header);
+
+      if (readInt(header, 0) != MAGIC_LOCAL_FILE_HEADER
+          || (readShort(header, 6) & GENERAL_PURPOSE_FLAG_ENCRYPTED) != 0
+          || readShort(header, 8) != ZipEntry.DEFLATED) {
+        return null;
+      }
+
+      int nameLength = readShort(header, 26);
+      int extraFieldLength = readShort(header, 28);
+
+      // Read the compressed data that follow the local file header.
+      byte[] compressedData = new byte[(int) compressedSize];
+      long dataOffset = offset + LOCAL_FILE_HEADER_SIZE + nameLength + extraFieldLength;
+      readFully(fileChannel, dataOffset, compressedData);
+
+      return compressedData;
+    } catch (EOFException e) {
+      // The zip file is malformed.
+      return null;
+    }
+  }
+
+  // Implementations for Closeable.
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (fileChannel != null) {
+      fileChannel.close();
+    }
+  }
+
+  // Small utility methods.
+
+  /**
+   * Opens the zip file and reads the offsets of the local file headers, if that hasn't happened
+   * yet.
+   */
+  private synchronized Map<String, Long> initialize() throws IOException {
+    if (localFileHeaderOffsets == null) {
+      if (fileChannel == null) {
+        fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+      }
+      localFileHeaderOffsets = readLocalFileHeaderOffsets(fileChannel);
+    }
+
+    return localFileHeaderOffsets;
+  }
+
+  /** Reads the offsets of the local file headers from the central directory of the zip file. */
+  private static Map<String, Long> readLocalFileHeaderOffsets(FileChannel fileChannel)
+      throws IOException {
+    Map<String, Long> offsets = new HashMap<>();
+
+    // Find the end of the central directory, before the archive comment.
+    long fileLength = fileChannel.size();
+    int tailLength =
+        (int) Math.min(fileLength, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE);
+    byte[] tail = new byte[tailLength];
+    readFully(fileChannel, fileLength - tailLength, tail);
+
+    int endIndex = tailLength - END_OF_CENTRAL_DIRECTORY_SIZE;
+    while (endIndex >= 0 && readInt(tail, endIndex) != MAGIC_END_OF_CENTRAL_DIRECTORY) {
+      endIndex--;
+    }
+
+    if (endIndex < 0) {
+      return offsets;
+    }
+
+    long centralDirectorySize = readUnsignedInt(tail, endIndex + 12);
+    long centralDirectoryOffset = readUnsignedInt(tail, endIndex + 16);
+
+    // Is there a zip64 end of central directory?
+    int locatorIndex = endIndex - ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE;
+    if (locatorIndex >= 0
+        && readInt(tail, locatorIndex) == MAGIC_ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR) {
+      byte[] zip64End = new byte[56];
+      readFully(fileChannel, readLong(tail, locatorIndex + 8), zip64End);
+
+      if (readInt(zip64End, 0) == MAGIC_ZIP64_END_OF_CENTRAL_DIRECTORY) {
+        centralDirectorySize = readLong(zip64End, 40);
+        centralDirectoryOffset = readLong(zip64End, 48);
+      }
+    }
+
+    if (centralDirectorySize > Integer.MAX_VALUE) {
+      return offsets;
+    }
+
+    byte[] centralDirectory = new byte[(int) centralDirectorySize];
+    readFully(fileChannel, centralDirectoryOffset, centralDirectory);
+
+    // Collect the local file header offsets of all entries.
+    int index = 0;
+    while (index + CENTRAL_DIRECTORY_FILE_HEADER_SIZE <= centralDirectory.length
+        && readInt(centralDirectory, index) == MAGIC_CENTRAL_DIRECTORY_FILE_HEADER) {
+      long uncompressedSize = readUnsignedInt(centralDirectory, index + 24);
+      long compressedSize = readUnsignedInt(centralDirectory, index + 20);
+      int nameLength = readShort(centralDirectory, index + 28);
+      int extraFieldLength = readShort(centralDirectory, index + 30);
+      int commentLength = readShort(centralDirectory, index + 32);
+      long offset = readUnsignedInt(centralDirectory, index + 42);
+
+      int nameIndex = index + CENTRAL_DIRECTORY_FILE_HEADER_SIZE;
+      int extraFieldIndex = nameIndex + nameLength;
+      int nextIndex = extraFieldIndex + extraFieldLength + commentLength;
+      if (nextIndex > centralDirectory.length) {
+        break;
+      }
+
+      String name = new String(centralDirectory, nameIndex, nameLength, StandardCharsets.UTF_8);
+
+      // Get the actual offset from the zip64 extended information
+      // field, if necessary. Its fields are only present if the
+      // corresponding fields in the header are too small.
+      if (offset == FIELD_TOO_SMALL_32BIT) {
+        int fieldIndex = extraFieldIndex;
+        int extraFieldEnd = extraFieldIndex + extraFieldLength;
+        while (fieldIndex + 4 <= extraFieldEnd) {
+          int fieldId = readShort(centralDirectory, fieldIndex);
+          int fieldSize = readShort(centralDirectory, fieldIndex + 2);
+          if (fieldId == MAGIC_ZIP64_EXTENDED_EXTRA_INFORMATION_FIELD) {
+            int valueIndex = fieldIndex + 4;
+            if (uncompressedSize == FIELD_TOO_SMALL_32BIT) {
+              valueIndex += 8;
+            }
+            if (compressedSize == FIELD_TOO_SMALL_32BIT) {
+              valueIndex += 8;
+            }
+            if (valueIndex + 8 <= fieldIndex + 4 + fieldSize) {
+              offset = readLong(centralDirectory, valueIndex);
+            }
+            break;
+          }
+          fieldIndex += 4 + fieldSize;
+        }
+      }
+
+      offsets.put(name, offset);
+
+      index = nextIndex;
+    }
+
+    return offsets;
+  }
+
+  /**
+   * Fills the given array with bytes from the given file channel, starting at the given position.
+   * Positional reads don't change the position of the channel, so they can happen concurrently.
+   */
+  private static void readFully(FileChannel fileChannel, long position, byte[] bytes)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      int count = fileChannel.read(buffer, position + buffer.position());
+      if (count < 0) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  /** Reads a little-endian unsigned short value from the given array. */
+  private static int readShort(byte[] bytes, int index) {
+    return (bytes[index] & 0xff) | (bytes[index + 1] & 0xff) << 8;
+  }
+
+  /** Reads a little-endian int value from the given array. */
+  private static int readInt(byte[] bytes, int index) {
+    return readShort(bytes, index) | readShort(bytes, index + 2) << 16;
+  }
+
+  /** Reads a little-endian unsigned int value from the given array. */
+  private static long readUnsignedInt(byte[] bytes, int index) {
+    return readInt(bytes, index) & 0xffffffffL;
+  }
+
+  /** Reads a little-endian long value from the given array. */
+  private static long readLong(byte[] bytes, int index) {
+    return readUnsignedInt(bytes, index) | (long) readInt(bytes, index + 4) << 32;
+  }
+}
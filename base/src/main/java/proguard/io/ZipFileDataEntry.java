@@ -30,13 +30,42 @@ public class ZipFileDataEntry implements DataEntry {
   private final DataEntry parent;
   private final ZipEntry zipEntry;
   private ZipFile zipFile;
+  private final ZipCentralDirectory centralDirectory;
   private InputStream zipInputStream;
   private InputStream bufferedInputStream;
 
   public ZipFileDataEntry(DataEntry parent, ZipEntry zipEntry, ZipFile zipFile) {
+    this(parent, zipEntry, zipFile, null);
+  }
+
+  /**
+   * Creates a new ZipFileDataEntry that can also provide its compressed data.
+   *
+   * @param parent the parent data entry.
+   * @param zipEntry the zip entry.
+   * @param zipFile the zip file that contains the entry.
+   * @param centralDirectory an optional central directory of the zip file, shared between its
+   *     entries.
+   */
+  ZipFileDataEntry(
+      DataEntry parent, ZipEntry zipEntry, ZipFile zipFile, ZipCentralDirectory centralDirectory) {
     this.parent = parent;
     this.zipEntry = zipEntry;
     this.zipFile = zipFile;
+    this.centralDirectory = centralDirectory;
+  }
+
+  /** Returns the CRC-32 checksum of the uncompressed data of the underlying zip entry. */
+  public int getCrc() {
+    return (int) zipEntry.getCrc();
+  }
+
+  /**
+   * Returns the raw data of the underlying zip entry, as compressed with the deflate method, or
+   * null if they aren't available, e.g. because the entry isn't compressed.
+   */
+  public byte[] getCompressedData() throws IOException {
+    return centralDirectory != null ? centralDirectory.readCompressedData(zipEntry) : null;
   }
 
   // Implementations for DataEntry.
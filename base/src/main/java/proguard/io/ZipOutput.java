@@ -19,7 +19,9 @@ package proguard.io;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.zip.*;
+import proguard.analysis.metrics.FlightRecorderEventType;
 import proguard.util.*;
 
 /**
@@ -34,6 +36,14 @@ import proguard.util.*;
  * <p>The code automatically computes the CRC and lengths of the data, for compressed and
  * uncompressed data.
  *
+ * <p>The output streams of compressed entries implement {@link CompressedDataOutput}, so you can
+ * also write data that have already been compressed, e.g. from an unmodified entry of an input
+ * archive.
+ *
+ * <p>If you specify an executor service, the entries are compressed in parallel, on the threads of
+ * the executor service. Their data are still written in the order in which their output streams
+ * are closed, so the resulting zip data are the same.
+ *
  * @author Eric Lafortune
  */
 public class ZipOutput {
@@ -55,16 +65,29 @@ public class ZipOutput {
   private static final int ZIP64_EXTENDED_LARGE_EXTRA_INFORMATION_FIELD_SIZE = 24;
   private static final long ZIP64_FIELD_TOO_SMALL_32BIT = 0xFFFFFFFF;
 
+  // The maximum number of closed entries that may wait for their
+  // compression in parallel, before we wait for the oldest one.
+  private static final int MAX_PENDING_ENTRY_COUNT = 256;
+
   private static final boolean DEBUG = false;
 
+  private static final FlightRecorderEventType CLOSE_EVENT_TYPE =
+      new FlightRecorderEventType(
+          "proguard.ZipOutputClose",
+          "Zip Output Close",
+          "Writing the pending entries and the central directory of a zip archive",
+          FlightRecorderEventType.field(int.class, "entryCount", "Entry Count"));
+
   protected LargeDataOutputStream outputStream;
   private final int uncompressedAlignment;
 
   private final String comment;
   private final boolean useZip64;
+  private final ExecutorService executorService;
 
   private List<ZipEntry> zipEntries = new ArrayList<>();
   private Set<String> zipEntryNames = new HashSet<>();
+  private Queue<ZipEntry> pendingZipEntries = new ArrayDeque<>();
 
   // Regular constructors.
 
@@ -122,6 +145,7 @@ public class ZipOutput {
     this.uncompressedAlignment = uncompressedAlignment;
     this.useZip64 = useZip64;
     this.comment = comment;
+    this.executorService = null;
   }
 
   // These constructors write out a header immediately.
@@ -156,10 +180,34 @@ public class ZipOutput {
       boolean useZip64,
       String comment)
       throws IOException {
+    this(outputStream, header, uncompressedAlignment, useZip64, comment, null);
+  }
+
+  /**
+   * Creates a new ZipOutput that aligns uncompressed entries, contains a comment, and compresses
+   * its entries in parallel.
+   *
+   * @param outputStream the output stream to which the zip data will be written.
+   * @param header an optional header for the zip file.
+   * @param uncompressedAlignment the requested alignment of uncompressed data.
+   * @param useZip64 Whether to write out the archive in zip64 format.
+   * @param comment optional comment for the entire zip file.
+   * @param executorService an optional executor service for compressing entries in parallel. The
+   *     zip output doesn't shut it down.
+   */
+  public ZipOutput(
+      OutputStream outputStream,
+      byte[] header,
+      int uncompressedAlignment,
+      boolean useZip64,
+      String comment,
+      ExecutorService executorService)
+      throws IOException {
     this.outputStream = new LargeDataOutputStream(outputStream);
     this.uncompressedAlignment = uncompressedAlignment;
     this.useZip64 = useZip64;
     this.comment = comment;
+    this.executorService = executorService;
     if (header != null) {
       outputStream.write(header);
     }
@@ -231,14 +279,41 @@ public class ZipOutput {
     return entry.createOutputStream();
   }
 
+  /**
+   * This interface is implemented by the output streams of compressed zip entries. It accepts data
+   * that have already been compressed, so they don't need to be decompressed and compressed again.
+   */
+  public interface CompressedDataOutput {
+    /**
+     * Writes the complete data of the zip entry, compressed with the deflate method, without zlib
+     * header. The data replace any data written to the output stream.
+     *
+     * @param compressedData the compressed data.
+     * @param crc the CRC-32 checksum of the uncompressed data.
+     * @param uncompressedSize the size of the uncompressed data.
+     */
+    void writeCompressedData(byte[] compressedData, int crc, long uncompressedSize)
+        throws IOException;
+  }
+
   /**
    * Closes the zip archive, writing out its central directory and closing the underlying output
    * stream.
    */
   public void close() throws IOException {
+    FlightRecorderEventType.Event event = CLOSE_EVENT_TYPE.begin();
+    int entryCount = zipEntries.size();
+
+    // Make sure the data of all entries have been written.
+    writePendingEntries(true);
+
     long centralDirectoryOffset = writeStartOfCentralDirectory();
 
     close(centralDirectoryOffset);
+
+    if (event != null) {
+      event.set(0, entryCount).commit();
+    }
   }
 
   /**
@@ -265,6 +340,7 @@ public class ZipOutput {
     outputStream = null;
     zipEntries = null;
     zipEntryNames = null;
+    pendingZipEntries = null;
   }
 
   /** Returns the current size of the data written to the output stream. */
@@ -272,6 +348,21 @@ public class ZipOutput {
     return outputStream.getLongSize();
   }
 
+  /**
+   * Writes out the local headers and data of closed entries whose data is ready, in the order in
+   * which they were closed.
+   *
+   * @param wait specifies whether to wait for the data of all closed entries.
+   */
+  protected void writePendingEntries(boolean wait) throws IOException {
+    while (!pendingZipEntries.isEmpty()
+        && (wait
+            || pendingZipEntries.peek().pendingData.isDone()
+            || pendingZipEntries.size() > MAX_PENDING_ENTRY_COUNT)) {
+      pendingZipEntries.remove().writePendingData();
+    }
+  }
+
   /**
    * Starts the central directory.
    *
@@ -400,6 +491,8 @@ public class ZipOutput {
     private String name;
     private byte[] extraField;
     private String comment;
+    private Future<byte[]> pendingData;
+    private byte[] compressedData;
 
     /**
      * Creates a new zip entry, returning output stream to write its data. It is the caller's
@@ -432,10 +525,64 @@ public class ZipOutput {
 
     public OutputStream createOutputStream() throws IOException {
       return compressed
-          ? new CompressedZipEntryOutputStream()
+          ? executorService != null
+              ? new ParallelCompressedZipEntryOutputStream()
+              : new CompressedZipEntryOutputStream()
           : new UncompressedZipEntryOutputStream();
     }
 
+    /**
+     * Writes the local file header and the given data of this entry to the main zip output stream,
+     * or queues them if other entries are still being compressed in parallel.
+     */
+    private void writeData(byte[] bytes) throws IOException {
+      // Are entries still being compressed in parallel?
+      if (!pendingZipEntries.isEmpty()) {
+        // Write the data after the data of the pending entries.
+        pendingData = CompletableFuture.completedFuture(bytes);
+        pendingZipEntries.add(this);
+
+        writePendingEntries(false);
+      } else {
+        offset = outputStream.getLongSize();
+
+        writeLocalFileHeader();
+        outputStream.write(bytes);
+      }
+    }
+
+    /** Sets the given data that have already been compressed as the data of this entry. */
+    private void setCompressedData(byte[] compressedData, int crc, long uncompressedSize) {
+      this.compressedData = compressedData;
+      this.crc = crc;
+      this.compressedSize = compressedData.length;
+      this.uncompressedSize = uncompressedSize;
+    }
+
+    /**
+     * Writes the local file header and the data of this entry to the main zip output stream, after
+     * having waited for its pending data, if necessary.
+     */
+    private void writePendingData() throws IOException {
+      byte[] bytes;
+      try {
+        bytes = pendingData.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException(
+            "Interrupted while compressing zip entry [" + name + "]");
+      } catch (ExecutionException e) {
+        throw new IOException("Can't compress zip entry [" + name + "]", e.getCause());
+      }
+
+      pendingData = null;
+
+      offset = outputStream.getLongSize();
+
+      writeLocalFileHeader();
+      outputStream.write(bytes);
+    }
+
     /** Writes the local file header, which precedes the data, to the main zip output stream. */
     private void writeLocalFileHeader() throws IOException {
       if (DEBUG) {
@@ -621,13 +768,11 @@ public class ZipOutput {
 
         byte[] bytes = super.toByteArray();
 
-        offset = outputStream.getLongSize();
         crc = (int) crc32.getValue();
         compressedSize = bytes.length;
         uncompressedSize = bytes.length;
 
-        writeLocalFileHeader();
-        outputStream.write(bytes);
+        writeData(bytes);
       }
     }
 
@@ -635,7 +780,8 @@ public class ZipOutput {
      * This OutputStream writes its compressed zip entry out to its zip output stream when it is
      * closed.
      */
-    private class CompressedZipEntryOutputStream extends DeflaterOutputStream {
+    private class CompressedZipEntryOutputStream extends DeflaterOutputStream
+        implements CompressedDataOutput {
       private CRC32 crc32 = new CRC32();
 
       private CompressedZipEntryOutputStream() {
@@ -675,16 +821,93 @@ public class ZipOutput {
         super.def.end();
         super.close();
 
-        ByteArrayOutputStream byteArrayOutputStream = (ByteArrayOutputStream) super.out;
+        // Did we get data that have already been compressed?
+        if (compressedData != null) {
+          writeData(compressedData);
+        } else {
+          ByteArrayOutputStream byteArrayOutputStream = (ByteArrayOutputStream) super.out;
+
+          byte[] compressedBytes = byteArrayOutputStream.toByteArray();
+
+          crc = (int) crc32.getValue();
+          compressedSize = compressedBytes.length;
+
+          writeData(compressedBytes);
+        }
+      }
+
+      // Implementations for CompressedDataOutput.
+
+      @Override
+      public void writeCompressedData(byte[] compressedData, int crc, long uncompressedSize) {
+        setCompressedData(compressedData, crc, uncompressedSize);
+      }
+    }
+
+    /**
+     * This OutputStream collects the uncompressed data of its zip entry. When it is closed, it
+     * compresses the data on the executor service and queues the entry, to be written out to its
+     * zip output stream in order.
+     */
+    private class ParallelCompressedZipEntryOutputStream extends ByteArrayOutputStream
+        implements CompressedDataOutput {
+      private ParallelCompressedZipEntryOutputStream() {
+        super(16 * 1024);
+      }
+
+      // Overridden methods for OutputStream.
+
+      @Override
+      public void close() throws IOException {
+        super.close();
+
+        // Did we get data that have already been compressed?
+        if (compressedData != null) {
+          writeData(compressedData);
+        } else {
+          byte[] bytes = super.toByteArray();
+
+          pendingData = executorService.submit(() -> compress(bytes));
+          pendingZipEntries.add(ZipEntry.this);
+
+          writePendingEntries(false);
+        }
+      }
+
+      // Implementations for CompressedDataOutput.
+
+      @Override
+      public void writeCompressedData(byte[] compressedData, int crc, long uncompressedSize) {
+        setCompressedData(compressedData, crc, uncompressedSize);
+      }
+
+      /** Computes the CRC and compressed data of the given uncompressed data. */
+      private byte[] compress(byte[] bytes) throws IOException {
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, bytes.length);
+
+        ByteArrayOutputStream byteArrayOutputStream =
+            new ByteArrayOutputStream(Math.max(bytes.length / 2, 64));
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+          DeflaterOutputStream deflaterOutputStream =
+              new DeflaterOutputStream(byteArrayOutputStream, deflater, 1024);
+          deflaterOutputStream.write(bytes);
+          deflaterOutputStream.finish();
+        } finally {
+          // Make sure the memory is freed. [JDK-4797189]
+          deflater.end();
+        }
 
         byte[] compressedBytes = byteArrayOutputStream.toByteArray();
 
-        offset = outputStream.getLongSize();
+        // These fields are only read after the future has completed.
         crc = (int) crc32.getValue();
         compressedSize = compressedBytes.length;
+        uncompressedSize = bytes.length;
 
-        writeLocalFileHeader();
-        outputStream.write(compressedBytes);
+        return compressedBytes;
       }
     }
   }
@@ -18,6 +18,7 @@
 package proguard.io;
 
 import java.io.*;
+import java.util.concurrent.ExecutorService;
 import proguard.classfile.TypeConstants;
 import proguard.util.StringMatcher;
 
@@ -34,6 +35,7 @@ public class ZipWriter implements DataEntryWriter {
   private final int extraUncompressedAlignment;
   private final int modificationTime;
   private final byte[] header;
+  private final ExecutorService executorService;
   private final DataEntryWriter dataEntryWriter;
 
   private DataEntry currentParentEntry;
@@ -104,6 +106,7 @@ public class ZipWriter implements DataEntryWriter {
     this.extraUncompressedAlignment = extraUncompressedAlignment;
     this.modificationTime = modificationTime;
     this.header = null;
+    this.executorService = null;
     this.dataEntryWriter = dataEntryWriter;
   }
 
@@ -163,6 +166,7 @@ public class ZipWriter implements DataEntryWriter {
     this.extraUncompressedAlignment = extraUncompressedAlignment;
     this.modificationTime = modificationTime;
     this.header = header;
+    this.executorService = null;
     this.dataEntryWriter = dataEntryWriter;
   }
 
@@ -189,6 +193,45 @@ public class ZipWriter implements DataEntryWriter {
       int modificationTime,
       byte[] header,
       DataEntryWriter dataEntryWriter) {
+    this(
+        uncompressedFilter,
+        uncompressedAlignment,
+        useZip64,
+        extraUncompressedAlignmentFilter,
+        extraUncompressedAlignment,
+        modificationTime,
+        header,
+        null,
+        dataEntryWriter);
+  }
+
+  /**
+   * Creates a new ZipWriter that compresses zip entries in parallel.
+   *
+   * @param uncompressedFilter an optional filter for files that should not be compressed.
+   * @param uncompressedAlignment the desired alignment for the data of uncompressed entries.
+   * @param useZip64 Whether to write out the archive in zip64 format.
+   * @param extraUncompressedAlignmentFilter an optional filter for files that should not be
+   *     compressed and use a different alignment.
+   * @param extraUncompressedAlignment the desired alignment for the data of entries matching
+   *     extraAlignmentFilter.
+   * @param modificationTime the modification date and time of the zip entries, in DOS format.
+   * @param header an optional header for the zip files.
+   * @param executorService an optional executor service for compressing zip entries in parallel.
+   *     The writer doesn't shut it down.
+   * @param dataEntryWriter the data entry writer that can provide output streams for the zip
+   *     archives.
+   */
+  public ZipWriter(
+      StringMatcher uncompressedFilter,
+      int uncompressedAlignment,
+      boolean useZip64,
+      StringMatcher extraUncompressedAlignmentFilter,
+      int extraUncompressedAlignment,
+      int modificationTime,
+      byte[] header,
+      ExecutorService executorService,
+      DataEntryWriter dataEntryWriter) {
     this.uncompressedFilter = uncompressedFilter;
     this.uncompressedAlignment = uncompressedAlignment;
     this.useZip64 = useZip64;
@@ -196,6 +239,7 @@ public class ZipWriter implements DataEntryWriter {
     this.extraUncompressedAlignment = extraUncompressedAlignment;
     this.modificationTime = modificationTime;
     this.header = header;
+    this.executorService = executorService;
     this.dataEntryWriter = dataEntryWriter;
   }
 
@@ -309,7 +353,8 @@ public class ZipWriter implements DataEntryWriter {
       boolean useZip64,
       String comment)
       throws IOException {
-    return new ZipOutput(outputStream, header, uncompressedAlignment, useZip64, comment);
+    return new ZipOutput(
+        outputStream, header, uncompressedAlignment, useZip64, comment, executorService);
   }
 
   private void finishIfNecessary(DataEntry dataEntry) throws IOException {
@@ -23,6 +23,7 @@ import proguard.classfile.attribute.*;
 import proguard.classfile.attribute.preverification.*;
 import proguard.classfile.attribute.visitor.AttributeVisitor;
 import proguard.classfile.editor.*;
+import proguard.classfile.instruction.*;
 import proguard.classfile.util.*;
 import proguard.classfile.visitor.ClassPrinter;
 import proguard.evaluation.*;
@@ -34,6 +35,9 @@ import proguard.exception.ProguardCoreException;
  * This {@link AttributeVisitor} adds preverification information (for Java Micro Edition or for
  * Java 6 or higher) to the code attributes that it visits.
  *
+ * <p>This visitor is not thread-safe. A {@link ParallelCodePreverifier} preverifies classes in
+ * parallel, with a preverifier per thread.
+ *
  * @author Eric Lafortune
  */
 public class CodePreverifier implements AttributeVisitor {
@@ -60,6 +64,7 @@ public class CodePreverifier implements AttributeVisitor {
   private final LivenessAnalyzer livenessAnalyzer =
       new LivenessAnalyzer(partialEvaluator, false, initializationFinder, false);
   private final CodeAttributeEditor codeAttributeEditor = new CodeAttributeEditor();
+  private final ReusingInstructionFactory instructionFactory = new ReusingInstructionFactory();
 
   /** Creates a new CodePreverifier. */
   public CodePreverifier(boolean microEdition) {
@@ -101,42 +106,64 @@ public class CodePreverifier implements AttributeVisitor {
 
     int codeLength = codeAttribute.u4codeLength;
 
-    // Evaluate the method.
-    partialEvaluator.visitCodeAttribute(clazz, method, codeAttribute);
-    initializationFinder.visitCodeAttribute(clazz, method, codeAttribute);
-    livenessAnalyzer.visitCodeAttribute(clazz, method, codeAttribute);
-
     // We may have to remove unreachable code.
     codeAttributeEditor.reset(codeLength);
 
     // Collect the stack map frames.
     List stackMapFrameList = new ArrayList();
 
-    for (int offset = 0; offset < codeLength; offset++) {
-      // Only store frames at the beginning of code blocks.
-      if (!partialEvaluator.isTraced(offset)) {
-        // Mark the unreachable instruction for deletion.
+    // Is the reachable code free of any branches and exception handlers?
+    int reachableCodeLength = straightLineCodeLength(codeAttribute);
+    if (reachableCodeLength >= 0) {
+      // The code doesn't need any stack map frames, so we don't have to
+      // evaluate it. Just mark the same offsets for deletion as the
+      // evaluation below: all offsets that aren't reachable instructions.
+      byte[] code = codeAttribute.code;
+      int offset = 0;
+      while (offset < reachableCodeLength) {
+        int nextOffset = offset + instructionFactory.create(code, offset).length(offset);
+        for (int innerOffset = offset + 1; innerOffset < nextOffset; innerOffset++) {
+          codeAttributeEditor.deleteInstruction(innerOffset);
+        }
+
+        offset = nextOffset;
+      }
+
+      for (; offset < codeLength; offset++) {
         codeAttributeEditor.deleteInstruction(offset);
-      } else if (partialEvaluator.isBranchOrExceptionTarget(offset)) {
-        // Convert the variable values to types.
-        VerificationType[] variableTypes =
-            correspondingVerificationTypes(
-                programClass,
-                programMethod,
-                codeAttribute,
-                offset,
-                partialEvaluator.getVariablesBefore(offset));
-
-        // Convert the stack values to types.
-        VerificationType[] stackTypes =
-            correspondingVerificationTypes(
-                programClass,
-                programMethod,
-                codeAttribute,
-                offset,
-                partialEvaluator.getStackBefore(offset));
-        // Create and store a new frame.
-        stackMapFrameList.add(new FullFrame(offset, variableTypes, stackTypes));
+      }
+    } else {
+      // Evaluate the method.
+      partialEvaluator.visitCodeAttribute(clazz, method, codeAttribute);
+      initializationFinder.visitCodeAttribute(clazz, method, codeAttribute);
+      livenessAnalyzer.visitCodeAttribute(clazz, method, codeAttribute);
+
+      for (int offset = 0; offset < codeLength; offset++) {
+        // Only store frames at the beginning of code blocks.
+        if (!partialEvaluator.isTraced(offset)) {
+          // Mark the unreachable instruction for deletion.
+          codeAttributeEditor.deleteInstruction(offset);
+        } else if (partialEvaluator.isBranchOrExceptionTarget(offset)) {
+          // Convert the variable values to types.
+          VerificationType[] variableTypes =
+              correspondingVerificationTypes(
+                  programClass,
+                  programMethod,
+                  codeAttribute,
+                  offset,
+                  partialEvaluator.getVariablesBefore(offset));
+
+          // Convert the stack values to types.
+          VerificationType[] stackTypes =
+              correspondingVerificationTypes(
+                  programClass,
+                  programMethod,
+                  codeAttribute,
+                  offset,
+                  partialEvaluator.getStackBefore(offset));
+          // Create and store a new frame.
+          stackMapFrameList.add(new FullFrame(offset, variableTypes, stackTypes));
+        }
       }
     }
 
@@ -571,6 +598,48 @@ public class CodePreverifier implements AttributeVisitor {
     return true;
   }
 
+  /**
+   * Returns the length of the reachable code, up to and including the first instruction that
+   * returns or throws, if the reachable code doesn't contain any branch instructions, switch
+   * instructions, or subroutine instructions, and if the code doesn't have any exception handlers.
+   * Returns -1 otherwise. The scan stops at the end of the reachable code, so it never decodes any
+   * unreachable code.
+   */
+  private int straightLineCodeLength(CodeAttribute codeAttribute) {
+    if (codeAttribute.u2exceptionTableLength > 0) {
+      return -1;
+    }
+
+    byte[] code = codeAttribute.code;
+    int codeLength = codeAttribute.u4codeLength;
+
+    int offset = 0;
+    while (offset < codeLength) {
+      // Note that the instruction is reused for the next instruction of the same kind.
+      Instruction instruction = instructionFactory.create(code, offset);
+      if (instruction instanceof BranchInstruction
+          || instruction instanceof SwitchInstruction
+          || instruction.opcode == Instruction.OP_RET) {
+        return -1;
+      }
+
+      offset += instruction.length(offset);
+
+      switch (instruction.opcode) {
+        case Instruction.OP_IRETURN:
+        case Instruction.OP_LRETURN:
+        case Instruction.OP_FRETURN:
+        case Instruction.OP_DRETURN:
+        case Instruction.OP_ARETURN:
+        case Instruction.OP_RETURN:
+        case Instruction.OP_ATHROW:
+          return offset;
+      }
+    }
+
+    return codeLength;
+  }
+
   /**
    * Returns wheter the specified variable is an uninitialized "this" at the given instruction
    * offset.
@@ -0,0 +1,58 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.preverify;
+
+import proguard.classfile.ClassPool;
+import proguard.classfile.attribute.visitor.AllAttributeVisitor;
+import proguard.classfile.visitor.AllMethodVisitor;
+import proguard.classfile.visitor.ClassPoolVisitor;
+import proguard.classfile.visitor.ParallelAllClassVisitor;
+
+/**
+ * This {@link ClassPoolVisitor} adds preverification information to the code attributes of all
+ * classes in the class pools that it visits, like a {@link CodePreverifier}, but using multiple
+ * threads.
+ *
+ * <p>The classes are preverified in parallel with a {@link ParallelAllClassVisitor}, with a
+ * separate {@link CodePreverifier} per thread. Each class is preverified by a single thread, which
+ * is the only thread that changes the class, including the class constants that are added to its
+ * constant pool. The preverifiers of other classes only read the names and the hierarchy of the
+ * class. The results are therefore the same as with a single {@link CodePreverifier}.
+ *
+ * <p>The class hierarchy and the class references must be initialized before using this visitor.
+ * The class pools must not be modified in the meantime.
+ */
+public class ParallelCodePreverifier implements ClassPoolVisitor {
+  private final boolean microEdition;
+
+  /** Creates a new ParallelCodePreverifier. */
+  public ParallelCodePreverifier(boolean microEdition) {
+    this.microEdition = microEdition;
+  }
+
+  // Implementations for ClassPoolVisitor.
+
+  @Override
+  public void visitClassPool(ClassPool classPool) {
+    classPool.accept(
+        new ParallelAllClassVisitor(
+            () ->
+                new AllMethodVisitor(
+                    new AllAttributeVisitor(new CodePreverifier(microEdition)))));
+  }
+}
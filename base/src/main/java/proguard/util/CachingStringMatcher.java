@@ -0,0 +1,69 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This {@link StringMatcher} delegates to a given {@link StringMatcher}, caching the results for
+ * complete strings. This is useful for expensive filters, e.g. long lists of class name patterns,
+ * that are applied to the same names over and over again.
+ *
+ * <p>WARNING: Only use this matcher if the wildcards of the given matcher aren't referenced
+ * elsewhere, e.g. with a {@link WildcardManager}, {@link MatchedStringMatcher}, or {@link
+ * MatchedStringFunction}, since a cached result doesn't update their matched strings. This matcher
+ * isn't thread-safe.
+ */
+public class CachingStringMatcher extends StringMatcher {
+  private final StringMatcher matcher;
+  private final Map<String, Boolean> cache = new HashMap<>();
+
+  /**
+   * Creates a new CachingStringMatcher.
+   *
+   * @param matcher the matcher whose results are cached.
+   */
+  public CachingStringMatcher(StringMatcher matcher) {
+    this.matcher = matcher;
+  }
+
+  // Implementations for StringMatcher.
+
+  @Override
+  public boolean matches(String string) {
+    Boolean matches = cache.get(string);
+    if (matches == null) {
+      matches = matcher.matches(string);
+      cache.put(string, matches);
+    }
+
+    return matches;
+  }
+
+  @Override
+  public String prefix() {
+    return matcher.prefix();
+  }
+
+  @Override
+  protected boolean matches(String string, int beginOffset, int endOffset) {
+    // Only complete strings are cached.
+    return matcher.matches(string, beginOffset, endOffset);
+  }
+}
@@ -19,9 +19,12 @@
 package proguard.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
@@ -31,6 +34,7 @@ import proguard.analysis.Metrics;
 import proguard.analysis.Metrics.MetricType;
 import proguard.analysis.datastructure.callgraph.Call;
 import proguard.analysis.datastructure.callgraph.CallGraph;
+import proguard.analysis.datastructure.callgraph.CompactCallGraph;
 import proguard.analysis.datastructure.callgraph.Node;
 import proguard.classfile.MethodSignature;
 
@@ -328,6 +332,235 @@ public class CallGraphWalker {
     return nextLevel;
   }
 
+  /**
+   * Collects all methods that are transitively reachable from the given method in the given compact
+   * call graph, including the method itself. Unlike {@link #getSuccessors(CallGraph,
+   * MethodSignature)}, the exploration isn't limited in depth or width.
+   *
+   * @param callGraph The {@link CompactCallGraph} to use as the basis for this exploration
+   * @param start The method that is to be used as the exploration root
+   * @return A set of all transitively reachable methods, in breadth-first order
+   */
+  public static Set<MethodSignature> getSuccessors(
+      CompactCallGraph callGraph, MethodSignature start) {
+    return toSignatures(callGraph, start, breadthFirstOrder(callGraph, start, true));
+  }
+
+  /**
+   * Collects all methods that can transitively reach the given method in the given compact call
+   * graph, including the method itself. Unlike {@link #getPredecessors(CallGraph,
+   * MethodSignature)}, the exploration isn't limited in depth or width.
+   *
+   * @param callGraph The {@link CompactCallGraph} to use as the basis for this exploration
+   * @param start The method that is to be used as the exploration root
+   * @return A set of all methods that can transitively reach the root, in breadth-first order
+   */
+  public static Set<MethodSignature> getPredecessors(
+      CompactCallGraph callGraph, MethodSignature start) {
+    return toSignatures(callGraph, start, breadthFirstOrder(callGraph, start, false));
+  }
+
+  /**
+   * Returns the ids of all methods that are transitively reachable from the method with the given
+   * id in the given compact call graph, including the method itself.
+   *
+   * @param callGraph The {@link CompactCallGraph} to use as the basis for this exploration
+   * @param start The id of the method that is to be used as the exploration root
+   * @return The set of ids of all transitively reachable methods
+   */
+  public static BitSet getReachableMethodIds(CompactCallGraph callGraph, int start) {
+    BitSet reachable = new BitSet(callGraph.getMethodCount());
+    int[] stack = new int[16];
+    int stackSize = 0;
+
+    reachable.set(start);
+    stack[stackSize++] = start;
+
+    // Explore the call graph depth-first.
+    while (stackSize > 0) {
+      int method = stack[--stackSize];
+      int successorCount = callGraph.getSuccessorCount(method);
+      for (int index = 0; index < successorCount; index++) {
+        int successor = callGraph.getSuccessor(method, index);
+        if (!reachable.get(successor)) {
+          reachable.set(successor);
+
+          if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+          }
+          stack[stackSize++] = successor;
+        }
+      }
+    }
+
+    return reachable;
+  }
+
+  /**
+   * Checks whether a method is transitively reachable from another method in the given compact call
+   * graph. A method is always reachable from itself.
+   *
+   * @param callGraph The {@link CompactCallGraph} to use as the basis for this exploration
+   * @param from The calling method
+   * @param to The method that may be reachable
+   * @return true if the method is reachable, false otherwise
+   */
+  public static boolean isReachable(
+      CompactCallGraph callGraph, MethodSignature from, MethodSignature to) {
+    if (from.equals(to)) {
+      return true;
+    }
+
+    int fromId = callGraph.getMethodId(from);
+    int toId = callGraph.getMethodId(to);
+
+    return fromId >= 0 && toId >= 0 && getReachableMethodIds(callGraph, fromId).get(toId);
+  }
+
+  /**
+   * Computes the strongly connected components of the given compact call graph, i.e. the maximal
+   * sets of methods that can all reach each other, with Tarjan's algorithm. Methods that aren't
+   * part of a cycle form their own components.
+   *
+   * @param callGraph The {@link CompactCallGraph} to analyze
+   * @return The strongly connected components, in reverse topological order: callees come before
+   *     their callers
+   */
+  public static List<List<MethodSignature>> getStronglyConnectedComponents(
+      CompactCallGraph callGraph) {
+    int methodCount = callGraph.getMethodCount();
+
+    // Tarjan's algorithm, with explicit stacks instead of recursion.
+    int[] indices = new int[methodCount];
+    int[] lowLinks = new int[methodCount];
+    boolean[] onStack = new boolean[methodCount];
+    Arrays.fill(indices, -1);
+
+    int[] componentStack = new int[methodCount];
+    int componentStackSize = 0;
+    int[] callStack = new int[methodCount];
+    int[] successorIndices = new int[methodCount];
+    int index = 0;
+
+    List<List<MethodSignature>> components = new ArrayList<>();
+
+    for (int root = 0; root < methodCount; root++) {
+      if (indices[root] >= 0) {
+        continue;
+      }
+
+      int callStackSize = 0;
+      callStack[callStackSize++] = root;
+      indices[root] = lowLinks[root] = index++;
+      componentStack[componentStackSize++] = root;
+      onStack[root] = true;
+      successorIndices[root] = 0;
+
+      while (callStackSize > 0) {
+        int method = callStack[callStackSize - 1];
+
+        if (successorIndices[method] < callGraph.getSuccessorCount(method)) {
+          int successor = callGraph.getSuccessor(method, successorIndices[method]++);
+          if (indices[successor] < 0) {
+            // Descend into the successor.
+            callStack[callStackSize++] = successor;
+            indices[successor] = lowLinks[successor] = index++;
+            componentStack[componentStackSize++] = successor;
+            onStack[successor] = true;
+            successorIndices[successor] = 0;
+          } else if (onStack[successor]) {
+            lowLinks[method] = Math.min(lowLinks[method], indices[successor]);
+          }
+        } else {
+          // All successors have been visited.
+          callStackSize--;
+
+          if (lowLinks[method] == indices[method]) {
+            // The method is the root of a component.
+            List<MethodSignature> component = new ArrayList<>();
+            int member;
+            do {
+              member = componentStack[--componentStackSize];
+              onStack[member] = false;
+              component.add(callGraph.getMethod(member));
+            } while (member != method);
+
+            components.add(component);
+          }
+
+          if (callStackSize > 0) {
+            int caller = callStack[callStackSize - 1];
+            lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[method]);
+          }
+        }
+      }
+    }
+
+    return components;
+  }
+
+  /**
+   * Returns the ids of the methods that are transitively reachable from the given method, in
+   * breadth-first order, following the successors or predecessors, or null if the call graph
+   * doesn't contain the method.
+   */
+  private static int[] breadthFirstOrder(
+      CompactCallGraph callGraph, MethodSignature start, boolean successors) {
+    int startId = callGraph.getMethodId(start);
+    if (startId < 0) {
+      return null;
+    }
+
+    BitSet visited = new BitSet(callGraph.getMethodCount());
+    int[] queue = new int[16];
+    int queueSize = 0;
+
+    visited.set(startId);
+    queue[queueSize++] = startId;
+
+    for (int queueIndex = 0; queueIndex < queueSize; queueIndex++) {
+      int method = queue[queueIndex];
+      int count =
+          successors
+              ? callGraph.getSuccessorCount(method)
+              : callGraph.getPredecessorCount(method);
+      for (int index = 0; index < count; index++) {
+        int next =
+            successors
+                ? callGraph.getSuccessor(method, index)
+                : callGraph.getPredecessor(method, index);
+        if (!visited.get(next)) {
+          visited.set(next);
+
+          if (queueSize == queue.length) {
+            queue = Arrays.copyOf(queue, queueSize * 2);
+          }
+          queue[queueSize++] = next;
+        }
+      }
+    }
+
+    return Arrays.copyOf(queue, queueSize);
+  }
+
+  /**
+   * Returns the signatures of the methods with the given ids, in the same order, or just the start
+   * method if there are no ids.
+   */
+  private static Set<MethodSignature> toSignatures(
+      CompactCallGraph callGraph, MethodSignature start, int[] methodIds) {
+    if (methodIds == null) {
+      return new LinkedHashSet<>(Collections.singleton(start));
+    }
+
+    Set<MethodSignature> signatures = new LinkedHashSet<>(methodIds.length * 2);
+    for (int methodId : methodIds) {
+      signatures.add(callGraph.getMethod(methodId));
+    }
+
+    return signatures;
+  }
+
   /** Return all direct predecessors of curr in this callgraph. */
   private static Set<Node> calculatePredecessors(CallGraph callGraph, Node curr) {
     Set<Node> predecessors = new LinkedHashSet<>();
@@ -47,6 +47,11 @@ public class FixedStringMatcher extends StringMatcher {
     this.nextMatcher = nextMatcher;
   }
 
+  /** Returns the fixed string that this matcher matches at the start of strings. */
+  String getFixedString() {
+    return fixedString;
+  }
+
   // Implementations for StringMatcher.
 
   @Override
@@ -17,18 +17,33 @@
  */
 package proguard.util;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * This {@link StringMatcher} tests whether strings matches at least one of the given {@link
  * StringMatcher} instances.
  *
+ * <p>If there are many matchers, the matcher indexes any {@link FixedStringMatcher} instances in a
+ * prefix trie, so it only needs to try the fixed string matchers whose fixed strings are prefixes
+ * of the string, along with all other matchers. It still tries them in their original order, so any
+ * wildcards are matched in the same way.
+ *
  * @author Eric Lafortune
  */
 public class OrMatcher extends StringMatcher {
+  // The minimum number of matchers for which we create a prefix trie.
+  private static final int TRIE_THRESHOLD = 8;
+
   private final StringMatcher[] matchers;
+  private final FixedStringTrie fixedStringTrie;
 
   /** Creates a new OrMatcher with the given string matchers. */
   public OrMatcher(StringMatcher... matchers) {
     this.matchers = matchers;
+    this.fixedStringTrie =
+        matchers.length >= TRIE_THRESHOLD ? FixedStringTrie.create(matchers) : null;
   }
 
   // Implementations for StringMatcher.
@@ -44,6 +59,18 @@ public class OrMatcher extends StringMatcher {
 
   @Override
   protected boolean matches(String string, int beginOffset, int endOffset) {
+    // Do we have a prefix trie?
+    if (fixedStringTrie != null) {
+      // Only try the matchers that may match, in their original order.
+      for (int index : fixedStringTrie.matcherIndices(string, beginOffset, endOffset)) {
+        if (matchers[index].matches(string, beginOffset, endOffset)) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
     for (StringMatcher matcher : matchers) {
       if (matcher.matches(string, beginOffset, endOffset)) {
         return true;
@@ -52,4 +79,163 @@ public class OrMatcher extends StringMatcher {
 
     return false;
   }
+
+  /**
+   * This prefix trie contains the fixed strings of the fixed string matchers of an OrMatcher. Each
+   * node contains the sorted indices of the matchers that may match strings that lead to the node:
+   * the fixed string matchers for the fixed strings along the path to the node, and all other
+   * matchers. A fixed string matcher that doesn't match the start of the string fails right away,
+   * without any side effects on wildcards, so it's safe to skip it.
+   */
+  private static class FixedStringTrie {
+    private static final char[] NO_CHARACTERS = new char[0];
+    private static final FixedStringTrie[] NO_CHILDREN = new FixedStringTrie[0];
+
+    private char[] characters = NO_CHARACTERS;
+    private FixedStringTrie[] children = NO_CHILDREN;
+    private List<Integer> fixedStringMatcherIndices;
+    private int[] matcherIndices;
+
+    /**
+     * Creates a prefix trie for the given matchers, or returns null if there are too few fixed
+     * string matchers to make it worthwhile.
+     */
+    static FixedStringTrie create(StringMatcher[] matchers) {
+      FixedStringTrie root = new FixedStringTrie();
+      List<Integer> otherMatcherIndices = new ArrayList<>();
+
+      for (int index = 0; index < matchers.length; index++) {
+        StringMatcher matcher = matchers[index];
+
+        // Only index plain fixed string matchers, of which we know the
+        // behavior.
+        if (matcher != null && matcher.getClass() == FixedStringMatcher.class) {
+          root.add(((FixedStringMatcher) matcher).getFixedString(), index);
+        } else {
+          otherMatcherIndices.add(index);
+        }
+      }
+
+      if (matchers.length - otherMatcherIndices.size() < 2) {
+        return null;
+      }
+
+      root.initializeMatcherIndices(toIntArray(otherMatcherIndices));
+
+      return root;
+    }
+
+    /**
+     * Returns the sorted indices of the matchers that may match the specified substring.
+     *
+     * @param string the string to match.
+     * @param beginOffset the start offset of the substring (inclusive).
+     * @param endOffset the end offset of the substring (exclusive).
+     */
+    int[] matcherIndices(String string, int beginOffset, int endOffset) {
+      FixedStringTrie node = this;
+
+      // Follow the characters of the string as far as possible.
+      for (int offset = beginOffset; offset < endOffset; offset++) {
+        FixedStringTrie child = node.child(string.charAt(offset));
+        if (child == null) {
+          break;
+        }
+
+        node = child;
+      }
+
+      return node.matcherIndices;
+    }
+
+    // Small utility methods.
+
+    /** Adds the given fixed string for the fixed string matcher with the given index. */
+    private void add(String fixedString, int matcherIndex) {
+      FixedStringTrie node = this;
+
+      for (int offset = 0; offset < fixedString.length(); offset++) {
+        char character = fixedString.charAt(offset);
+
+        FixedStringTrie child = node.child(character);
+        if (child == null) {
+          child = node.addChild(character);
+        }
+
+        node = child;
+      }
+
+      if (node.fixedStringMatcherIndices == null) {
+        node.fixedStringMatcherIndices = new ArrayList<>();
+      }
+
+      node.fixedStringMatcherIndices.add(matcherIndex);
+    }
+
+    /**
+     * Initializes the matcher indices of this node and its descendants, starting from the given
+     * sorted indices of the parent.
+     */
+    private void initializeMatcherIndices(int[] parentMatcherIndices) {
+      matcherIndices = parentMatcherIndices;
+
+      // Add the indices of the fixed string matchers that end at this node,
+      // if any. Other nodes can share the array of their parents.
+      if (fixedStringMatcherIndices != null) {
+        int[] fixedIndices = toIntArray(fixedStringMatcherIndices);
+
+        matcherIndices =
+            Arrays.copyOf(parentMatcherIndices, parentMatcherIndices.length + fixedIndices.length);
+        System.arraycopy(
+            fixedIndices, 0, matcherIndices, parentMatcherIndices.length, fixedIndices.length);
+        Arrays.sort(matcherIndices);
+
+        fixedStringMatcherIndices = null;
+      }
+
+      for (FixedStringTrie child : children) {
+        child.initializeMatcherIndices(matcherIndices);
+      }
+    }
+
+    /** Returns the child node for the given character, or null if there is none. */
+    private FixedStringTrie child(char character) {
+      int index = Arrays.binarySearch(characters, character);
+
+      return index >= 0 ? children[index] : null;
+    }
+
+    /** Adds and returns a child node for the given character, keeping the characters sorted. */
+    private FixedStringTrie addChild(char character) {
+      int index = -Arrays.binarySearch(characters, character) - 1;
+
+      char[] newCharacters = new char[characters.length + 1];
+      FixedStringTrie[] newChildren = new FixedStringTrie[children.length + 1];
+
+      System.arraycopy(characters, 0, newCharacters, 0, index);
+      System.arraycopy(children, 0, newChildren, 0, index);
+      System.arraycopy(characters, index, newCharacters, index + 1, characters.length - index);
+      System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+
+      FixedStringTrie child = new FixedStringTrie();
+
+      newCharacters[index] = character;
+      newChildren[index] = child;
+
+      characters = newCharacters;
+      children = newChildren;
+
+      return child;
+    }
+
+    /** Converts the given list of integers to an array. */
+    private static int[] toIntArray(List<Integer> list) {
+      int[] array = new int[list.size()];
+      for (int index = 0; index < array.length; index++) {
+        array[index] = list.get(index);
+      }
+
+      return array;
+    }
+  }
 }
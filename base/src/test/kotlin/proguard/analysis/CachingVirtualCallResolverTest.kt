@@ -0,0 +1,44 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.analysis
+
+import io.kotest.core.spec.style.FreeSpec
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.kotest.matchers.types.shouldNotBeSameInstanceAs
+import proguard.testutils.ClassPoolBuilder
+import java.nio.file.Paths
+
+class CachingVirtualCallResolverTest : FreeSpec({
+    val topLevel = Paths.get("src", "test", "resources", "callResolver", "hierarchy")
+    val classPools = ClassPoolBuilder.fromDirectory(topLevel.toFile())
+    val methods = listOf("test" to "()V", "defaultTest" to "()V", "abstractTest" to "()V", "toString" to "()Ljava/lang/String;")
+
+    "Given a caching virtual call resolver" - {
+        val cachingVirtualCallResolver = CachingVirtualCallResolver()
+
+        "Then it should resolve the same targets as the call utilities" {
+            classPools.programClassPool.classesAccept { clazz ->
+                methods.forEach { (name, descriptor) ->
+                    cachingVirtualCallResolver.resolveVirtual(clazz, name, descriptor) shouldBe
+                        CallUtil.resolveVirtual(clazz, name, descriptor)
+                }
+            }
+        }
+
+        "Then it should return cached targets until it is cleared" {
+            val clazz = classPools.programClassPool.getClass("A")
+            val targets = cachingVirtualCallResolver.resolveVirtual(clazz, "test", "()V")
+
+            cachingVirtualCallResolver.resolveVirtual(clazz, "test", "()V") shouldBeSameInstanceAs targets
+
+            cachingVirtualCallResolver.clear()
+
+            cachingVirtualCallResolver.resolveVirtual(clazz, "test", "()V") shouldNotBeSameInstanceAs targets
+        }
+    }
+})
@@ -0,0 +1,97 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.analysis
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotest.matchers.shouldBe
+import proguard.analysis.datastructure.callgraph.CallGraph
+import proguard.classfile.ClassPool
+import proguard.classfile.MethodSignature
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+
+class IncrementalCallResolverTest : BehaviorSpec({
+    fun classPool(source: String) = ClassPoolBuilder.fromSource(
+        JavaSource("P.java", source.trimIndent()),
+        javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+    ).programClassPool
+
+    fun callResolver(classPool: ClassPool, callGraph: CallGraph) =
+        CallResolver.Builder(classPool, ClassPool(), callGraph)
+            .setEvaluateAllCode(true)
+            .build()
+
+    fun edges(callGraph: CallGraph): Set<String> {
+        val outgoing = callGraph.outgoing.flatMap { (caller, calls) -> calls.map { "$caller -> ${it.target}" } }
+        val incoming = callGraph.incoming.flatMap { (target, calls) -> calls.map { "${it.caller.signature} -> $target" } }
+        outgoing shouldContainExactlyInAnyOrder incoming
+        return outgoing.toSet()
+    }
+
+    Given("A call graph of a program") {
+        val oldClassPool = classPool(
+            """
+            class Base { void m() { n(); } void n() { } }
+            class Sub extends Base { }
+            class User {
+                void use(Sub s) { s.m(); s.n(); }
+                void other() { Helper.h(); }
+            }
+            class Helper {
+                static void h() { g(); }
+                static void g() { new Sub().n(); }
+            }
+            """,
+        )
+        val callGraph = CallGraph()
+        oldClassPool.classesAccept(callResolver(oldClassPool, callGraph))
+
+        When("Methods are changed, added, and removed, and the call graph is updated") {
+            val newClassPool = classPool(
+                """
+                class Base { void m() { n(); } void n() { } }
+                class Sub extends Base { void m() { Helper.h(); } }
+                class User {
+                    void use(Sub s) { s.m(); s.n(); }
+                    void other() { Helper.h(); }
+                    void extra() { other(); }
+                }
+                class Helper {
+                    static void h() { }
+                }
+                """,
+            )
+            val resolvedMethods = IncrementalCallResolver(newClassPool, callGraph, callResolver(newClassPool, callGraph))
+                .resolveChangedMethods(
+                    listOf(
+                        MethodSignature("Sub", "m", "()V"),
+                        MethodSignature("User", "extra", "()V"),
+                        MethodSignature("Helper", "h", "()V"),
+                        MethodSignature("Helper", "g", "()V"),
+                    ),
+                )
+
+            Then("The call graph is the same as a newly resolved call graph") {
+                val newCallGraph = CallGraph()
+                newClassPool.classesAccept(callResolver(newClassPool, newCallGraph))
+
+                edges(callGraph) shouldBe edges(newCallGraph)
+            }
+
+            Then("Only the affected methods have been resolved again") {
+                resolvedMethods shouldContainExactlyInAnyOrder listOf(
+                    MethodSignature("Sub", "m", "()V"),
+                    MethodSignature("User", "extra", "()V"),
+                    MethodSignature("Helper", "h", "()V"),
+                    MethodSignature("User", "use", "(LSub;)V"),
+                    MethodSignature("User", "other", "()V"),
+                )
+            }
+        }
+    }
+})
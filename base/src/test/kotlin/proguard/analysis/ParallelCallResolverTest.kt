@@ -0,0 +1,42 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.analysis
+
+import io.kotest.core.spec.style.FreeSpec
+import io.kotest.matchers.shouldBe
+import proguard.analysis.datastructure.callgraph.CallGraph
+import proguard.testutils.ClassPoolBuilder
+import java.nio.file.Paths
+
+class ParallelCallResolverTest : FreeSpec({
+    val topLevel = Paths.get("src", "test", "resources", "callResolver", "hierarchy")
+    val classPools = ClassPoolBuilder.fromDirectory(topLevel.toFile())
+
+    fun callResolver(callGraph: CallGraph) =
+        CallResolver.Builder(classPools.programClassPool, classPools.libraryClassPool, callGraph)
+            .setEvaluateAllCode(true)
+            .setIncludeSubClasses(true)
+            .setSkipIncompleteCalls(false)
+            .build()
+
+    fun CallGraph.describe(): List<String> =
+        outgoing.flatMap { (caller, calls) -> calls.map { "$caller -> $it" } } +
+            incoming.flatMap { (target, calls) -> calls.map { "$target <- $it" } }
+
+    "Given a call graph that is resolved in parallel" - {
+        val callGraph = CallGraph()
+        classPools.programClassPool.accept(ParallelCallResolver(callGraph, ::callResolver))
+
+        "Then it should contain the same calls in the same order as a sequentially resolved call graph" {
+            val sequentialCallGraph = CallGraph()
+            classPools.programClassPool.classesAccept(callResolver(sequentialCallGraph))
+
+            callGraph.describe() shouldBe sequentialCallGraph.describe()
+            callGraph.outgoing.isEmpty() shouldBe false
+        }
+    }
+})
@@ -38,6 +38,7 @@ private val javaLangString = libraryClassPool.getClass("java/lang/String")
 private val javaLangStringBuilder = libraryClassPool.getClass("java/lang/StringBuilder")
 private val valueFactory = ParticularValueFactory(DetailedArrayValueFactory(ParticularReferenceValueFactory()), ParticularReferenceValueFactory())
 private val stringExecutor = StringReflectionExecutor(libraryClassPool)
+private val memoizingStringExecutor = StringReflectionExecutor.Builder(libraryClassPool).setMemoizeResults(true).build()
 private val invocationUnit = ExecutingInvocationUnit.Builder(ClassPool(), libraryClassPool).build(valueFactory)
 private fun Int.toValue(): Value =
     valueFactory.createIntegerValue(this)
@@ -75,6 +76,10 @@ private fun stringConcat(string1: Value, string2: Value): MethodExecutionInfo {
     return MethodExecutionInfo(ClassPool(), libraryClassPool, javaLangString, javaLangString.findMethod("concat"), null, string1, string2)
 }
 
+private fun stringTrim(string: Value): MethodExecutionInfo {
+    return MethodExecutionInfo(ClassPool(), libraryClassPool, javaLangString, javaLangString.findMethod("trim"), null, string)
+}
+
 private fun stringBuilderAppend(stringBuilder: Value, string: Value): MethodExecutionInfo {
     return MethodExecutionInfo(ClassPool(), libraryClassPool, javaLangStringBuilder, javaLangStringBuilder.findMethod("append"), null, stringBuilder, string)
 }
@@ -130,6 +135,35 @@ class ExecutingInvocationUnitTest : FreeSpec({
         }
     }
 
+    "Memoized String method tests" - {
+        "Concat Hello with World twice" {
+            repeat(2) {
+                val result = invocationUnit.executeMethod(memoizingStringExecutor, stringConcat("Hello".toValue(), " World".toValue())).returnValue
+                result.shouldBeInstanceOf<ParticularReferenceValue>()
+                result.referenceValue().value.preciseValue shouldBe "Hello World"
+            }
+        }
+
+        "Trim returning its instance twice" {
+            repeat(2) {
+                val string = "Hello".toValue(it) as ParticularReferenceValue
+                val result = invocationUnit.executeMethod(memoizingStringExecutor, stringTrim(string)).returnValue
+                result.shouldBeInstanceOf<ParticularReferenceValue>()
+                result.id shouldBe string.id
+                result.value.preciseValue shouldBe "Hello"
+            }
+        }
+
+        "StringBuilder appends are not memoized" {
+            val stringBuilder = StringBuilder().toValue() as ParticularReferenceValue
+            repeat(2) {
+                val result = invocationUnit.executeMethod(memoizingStringExecutor, stringBuilderAppend(stringBuilder, "Hello".toValue())).returnValue
+                result.shouldBeInstanceOf<ParticularReferenceValue>()
+                result.value.preciseValue.toString() shouldBe "Hello"
+            }
+        }
+    }
+
     "StringBuilder tests" - {
 
         "StringBuilder multiple appends to same ID" {
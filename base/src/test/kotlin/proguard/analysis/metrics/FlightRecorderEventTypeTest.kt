@@ -0,0 +1,74 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.analysis.metrics
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.shouldBe
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordingFile
+import proguard.classfile.attribute.visitor.AllAttributeVisitor
+import proguard.classfile.visitor.AllMethodVisitor
+import proguard.evaluation.PartialEvaluator
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+import java.io.File
+
+class FlightRecorderEventTypeTest : BehaviorSpec({
+    Given("An event type") {
+        val eventType = FlightRecorderEventType(
+            "proguard.test.Event",
+            "Test Event",
+            "An event for testing",
+            FlightRecorderEventType.field(String::class.java, "name", "Name"),
+        )
+
+        Then("No events are emitted without a recording") {
+            eventType.begin().shouldBeNull()
+        }
+    }
+
+    Given("A class pool") {
+        val (programClassPool, _) = ClassPoolBuilder.fromSource(
+            JavaSource(
+                "Test.java",
+                """
+                public class Test {
+                    public int test(int a) {
+                        return a > 0 ? a : -a;
+                    }
+                }
+                """.trimIndent(),
+            ),
+            javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+        )
+
+        When("The classes are evaluated while recording partial evaluation events") {
+            val recordingFile = File.createTempFile("recording", ".jfr").apply { deleteOnExit() }
+            Recording().use { recording ->
+                recording.enable("proguard.PartialEvaluation")
+                recording.start()
+                programClassPool.classesAccept(AllMethodVisitor(AllAttributeVisitor(PartialEvaluator())))
+                recording.stop()
+                recording.dump(recordingFile.toPath())
+            }
+
+            val events = RecordingFile.readAllEvents(recordingFile.toPath())
+                .filter { it.eventType.name == "proguard.PartialEvaluation" }
+
+            Then("An event is emitted for each method") {
+                events.map { it.getString("method") } shouldContainExactlyInAnyOrder listOf("<init>()V", "test(I)I")
+                events.map { it.getString("className") }.toSet() shouldBe setOf("Test")
+            }
+
+            Then("The events contain the code lengths") {
+                events.first { it.getString("method") == "<init>()V" }.getInt("codeLength") shouldBe 5
+            }
+        }
+    }
+})
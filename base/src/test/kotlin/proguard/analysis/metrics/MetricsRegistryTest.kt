@@ -0,0 +1,135 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.analysis.metrics
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
+import proguard.classfile.attribute.visitor.AllAttributeVisitor
+import proguard.classfile.visitor.AllMethodVisitor
+import proguard.classfile.visitor.ParallelAllClassVisitor
+import proguard.evaluation.PartialEvaluator
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+import kotlin.concurrent.thread
+
+class MetricsRegistryTest : BehaviorSpec({
+    Given("A class pool and a metrics registry") {
+        val (programClassPool, _) = ClassPoolBuilder.fromSource(
+            JavaSource(
+                "Test.java",
+                """
+                public class Test {
+                    public int test(int a) {
+                        int sum = 0;
+                        for (int i = 0; i < a; i++) sum += i;
+                        return sum;
+                    }
+                }
+                """.trimIndent(),
+            ),
+            javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+        )
+        val metrics = MetricsRegistry()
+        val evaluator = AllMethodVisitor(AllAttributeVisitor(PartialEvaluator()))
+
+        When("The classes are evaluated outside the scope of the registry") {
+            programClassPool.classesAccept(evaluator)
+
+            Then("Nothing is recorded") {
+                MetricsRegistry.getActive().shouldBeNull()
+                metrics.toJson() shouldBe """{"counters":{},"timers":{},"histograms":{}}"""
+            }
+        }
+
+        When("The classes are evaluated in the scope of the registry") {
+            metrics.activate().use {
+                programClassPool.classesAccept(evaluator)
+            }
+
+            Then("The methods are timed and their evaluations are recorded") {
+                metrics.timer(MetricsRegistry.PARTIAL_EVALUATION).count shouldBe 2
+                metrics.histogram(MetricsRegistry.PARTIAL_EVALUATION_INSTRUCTIONS).count shouldBe 2
+            }
+
+            Then("The registry is no longer active") {
+                MetricsRegistry.getActive().shouldBeNull()
+            }
+        }
+
+        When("The classes are evaluated in parallel in the scope of a registry") {
+            val parallelMetrics = MetricsRegistry()
+            parallelMetrics.activate().use {
+                programClassPool.accept(
+                    ParallelAllClassVisitor { AllMethodVisitor(AllAttributeVisitor(PartialEvaluator())) },
+                )
+            }
+
+            Then("The methods are recorded in the registry") {
+                parallelMetrics.timer(MetricsRegistry.PARTIAL_EVALUATION).count shouldBe 2
+            }
+        }
+    }
+
+    Given("A metrics registry that is active") {
+        val metrics = MetricsRegistry()
+
+        When("Threads started in its scope activate it and increment a counter") {
+            metrics.activate().use {
+                val activeMetrics = MetricsRegistry.getActive()
+                (0 until 4).map {
+                    thread {
+                        MetricsRegistry.activate(activeMetrics).use {
+                            repeat(1000) { MetricsRegistry.getActive().counter("test").increment() }
+                        }
+                    }
+                }.forEach { it.join() }
+            }
+
+            Then("All increments are counted") {
+                metrics.counter("test").count shouldBe 4000
+            }
+        }
+
+        When("A thread is started in its scope without activating it") {
+            var threadMetrics: MetricsRegistry? = metrics
+            metrics.activate().use {
+                thread { threadMetrics = MetricsRegistry.getActive() }.join()
+            }
+
+            Then("The registry isn't active in the thread") {
+                threadMetrics.shouldBeNull()
+            }
+        }
+    }
+
+    Given("A histogram") {
+        val metrics = MetricsRegistry()
+        val histogram = metrics.histogram("test")
+
+        When("Values are recorded") {
+            listOf(0L, 1L, 2L, 3L, 4L, 100L).forEach { histogram.record(it) }
+
+            Then("They are counted in the right buckets") {
+                histogram.getBucketCount(0) shouldBe 1
+                histogram.getBucketCount(1) shouldBe 1
+                histogram.getBucketCount(2) shouldBe 2
+                histogram.getBucketCount(3) shouldBe 1
+                histogram.getBucketCount(7) shouldBe 1
+                histogram.count shouldBe 6
+                histogram.sum shouldBe 110
+                histogram.max shouldBe 100
+            }
+
+            Then("They are exported as JSON") {
+                metrics.toJson() shouldContain
+                    """"test":{"count":6,"sum":110,"max":100,"buckets":{"0":1,"1":1,"3":2,"7":1,"127":1}}"""
+            }
+        }
+    }
+})
@@ -0,0 +1,127 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.classfile.attribute
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.kotest.matchers.types.shouldNotBeSameInstanceAs
+import proguard.classfile.AccessConstants.PUBLIC
+import proguard.classfile.AccessConstants.STATIC
+import proguard.classfile.ProgramMethod
+import proguard.classfile.VersionConstants.CLASS_VERSION_1_8
+import proguard.classfile.editor.ClassBuilder
+import proguard.classfile.editor.CodeAttributeEditor
+import proguard.classfile.instruction.BranchInstruction
+import proguard.classfile.instruction.Instruction
+import proguard.classfile.instruction.SimpleInstruction
+import proguard.testutils.CodeAttributeFinder
+
+class InstructionIndexTest : BehaviorSpec({
+    Given("A method with a conditional branch") {
+        val classBuilder = ClassBuilder(CLASS_VERSION_1_8, PUBLIC, "Test", "java/lang/Object")
+        classBuilder.addMethod(PUBLIC or STATIC, "test", "(I)I", 50) {
+            val label = it.createLabel()
+            it
+                .iload_0()
+                .ifeq(label)
+                .iconst_1()
+                .ireturn()
+                .label(label)
+                .iconst_0()
+                .ireturn()
+        }
+        val clazz = classBuilder.programClass
+        val method = clazz.findMethod("test", "(I)I") as ProgramMethod
+        val codeAttribute = CodeAttributeFinder.findCodeAttribute(method)!!
+
+        fun InstructionIndex.successors(offset: Int): List<Int> {
+            val index = getIndex(offset)
+            return (0 until getSuccessorCount(index)).map { getSuccessor(index, it) }
+        }
+
+        fun InstructionIndex.predecessors(offset: Int): List<Int> {
+            val index = getIndex(offset)
+            return (0 until getPredecessorCount(index)).map { getPredecessor(index, it) }
+        }
+
+        When("The instruction index is created") {
+            val instructionIndex = codeAttribute.instructionIndex
+
+            Then("It contains the instructions") {
+                instructionIndex.instructionCount shouldBe 6
+                (0 until 6).map { instructionIndex.getOffset(it) } shouldBe listOf(0, 1, 4, 5, 6, 7)
+                (0..8).filter { instructionIndex.isInstruction(it) } shouldBe listOf(0, 1, 4, 5, 6, 7)
+                instructionIndex.getIndex(2) shouldBe -1
+                instructionIndex.getNextOffset(1) shouldBe 4
+                instructionIndex.getNextOffset(5) shouldBe 8
+                instructionIndex.getOpcode(1) shouldBe Instruction.OP_IFEQ
+            }
+
+            Then("It contains the branch targets") {
+                instructionIndex.getBranchTargetCount(0) shouldBe 0
+                instructionIndex.getBranchTargetCount(1) shouldBe 1
+                instructionIndex.getBranchTarget(1, 0) shouldBe 6
+            }
+
+            Then("It contains the successors") {
+                instructionIndex.successors(0) shouldBe listOf(1)
+                instructionIndex.successors(1) shouldBe listOf(6, 4)
+                instructionIndex.successors(4) shouldBe listOf(5)
+                instructionIndex.successors(5) shouldBe emptyList()
+                instructionIndex.successors(7) shouldBe emptyList()
+            }
+
+            Then("It contains the predecessors") {
+                instructionIndex.predecessors(0) shouldBe emptyList()
+                instructionIndex.predecessors(4) shouldBe listOf(1)
+                instructionIndex.predecessors(6) shouldBe listOf(1)
+                instructionIndex.predecessors(7) shouldBe listOf(6)
+            }
+
+            Then("It is shared") {
+                codeAttribute.instructionIndex shouldBeSameInstanceAs instructionIndex
+            }
+        }
+
+        When("The code is edited in place") {
+            val instructionIndex = codeAttribute.instructionIndex
+
+            val codeAttributeEditor = CodeAttributeEditor()
+            codeAttributeEditor.reset(codeAttribute.u4codeLength)
+            codeAttributeEditor.replaceInstruction(5, SimpleInstruction(Instruction.OP_NOP))
+            codeAttributeEditor.visitCodeAttribute(clazz, method, codeAttribute)
+
+            Then("The old instruction index still describes the old code") {
+                instructionIndex.successors(5) shouldBe emptyList()
+                instructionIndex.predecessors(6) shouldBe listOf(1)
+            }
+
+            Then("The shared instruction index describes the new code") {
+                val newInstructionIndex = codeAttribute.instructionIndex
+
+                newInstructionIndex shouldNotBeSameInstanceAs instructionIndex
+                newInstructionIndex.successors(5) shouldBe listOf(6)
+                newInstructionIndex.predecessors(6) shouldBe listOf(1, 5)
+            }
+        }
+
+        When("A branch offset is rewritten in place") {
+            val instructionIndex = codeAttribute.instructionIndex
+
+            BranchInstruction(Instruction.OP_IFEQ, 4).write(codeAttribute, 1)
+
+            Then("The shared instruction index describes the new branch target") {
+                val newInstructionIndex = codeAttribute.instructionIndex
+
+                newInstructionIndex shouldNotBeSameInstanceAs instructionIndex
+                newInstructionIndex.successors(1) shouldBe listOf(5, 4)
+                newInstructionIndex.predecessors(5) shouldBe listOf(1, 4)
+            }
+        }
+    }
+})
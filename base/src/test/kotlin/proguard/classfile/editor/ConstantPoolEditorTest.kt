@@ -0,0 +1,87 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.classfile.editor
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeInstanceOf
+import proguard.classfile.AccessConstants.PUBLIC
+import proguard.classfile.VersionConstants.CLASS_VERSION_1_8
+import proguard.classfile.constant.MethodrefConstant
+import proguard.classfile.constant.Utf8Constant
+
+class ConstantPoolEditorTest : BehaviorSpec({
+    Given("A class with many method references added through a single editor") {
+        val programClass = ClassBuilder(CLASS_VERSION_1_8, PUBLIC, "Test", "java/lang/Object").programClass
+        val editor = ConstantPoolEditor(programClass)
+        val indices = (0 until 100).map { editor.addMethodrefConstant("Target${it % 10}", "method$it", "()V", null, null) }
+
+        When("The same references are added again") {
+            val count = programClass.u2constantPoolCount
+            val newIndices = (0 until 100).map { editor.addMethodrefConstant("Target${it % 10}", "method$it", "()V", null, null) }
+
+            Then("The existing constants are returned") {
+                newIndices shouldBe indices
+                programClass.u2constantPoolCount shouldBe count
+            }
+        }
+
+        When("Another editor adds a constant behind the editor's back") {
+            val index = ConstantPoolEditor(programClass).addUtf8Constant("other")
+
+            Then("The editor finds the new constant") {
+                editor.addUtf8Constant("other") shouldBe index
+            }
+        }
+
+        When("The constant pool is sorted") {
+            programClass.accept(ConstantPoolSorter())
+            val count = programClass.u2constantPoolCount
+
+            Then("The editor returns the new indices of the existing constants") {
+                (0 until 100).forEach {
+                    val index = editor.addMethodrefConstant("Target${it % 10}", "method$it", "()V", null, null)
+                    programClass.getConstant(index).shouldBeInstanceOf<MethodrefConstant>()
+                    programClass.getRefClassName(index) shouldBe "Target${it % 10}"
+                    programClass.getRefName(index) shouldBe "method$it"
+                }
+            }
+
+            Then("The editor doesn't add duplicate constants") {
+                programClass.u2constantPoolCount shouldBe count
+            }
+        }
+
+        When("The constant pool is shrunk") {
+            programClass.accept(ConstantPoolShrinker())
+            val count = programClass.u2constantPoolCount
+
+            Then("The editor adds constants that have been removed") {
+                val index = editor.addUtf8Constant("method0")
+                programClass.getString(index) shouldBe "method0"
+                programClass.u2constantPoolCount shouldBe count + 1
+            }
+
+            Then("The editor finds constants that have been kept") {
+                val index = editor.addUtf8Constant("Test")
+                programClass.getString(index) shouldBe "Test"
+            }
+        }
+
+        When("A constant is changed in place and the change is signaled") {
+            val index = editor.addUtf8Constant("before")
+            val count = programClass.u2constantPoolCount
+            (programClass.constantPool[index] as Utf8Constant).string = "after"
+            programClass.constantPoolModificationCount++
+
+            Then("The editor finds the changed constant") {
+                editor.addUtf8Constant("after") shouldBe index
+                programClass.u2constantPoolCount shouldBe count
+            }
+        }
+    }
+})
@@ -0,0 +1,103 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.classfile.editor
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.shouldBe
+import proguard.classfile.AccessConstants.PUBLIC
+import proguard.classfile.AccessConstants.STATIC
+import proguard.classfile.ProgramClass
+import proguard.classfile.ProgramMethod
+import proguard.classfile.VersionConstants.CLASS_VERSION_1_8
+import proguard.classfile.attribute.CodeAttribute
+import proguard.classfile.attribute.visitor.AllAttributeVisitor
+import proguard.classfile.instruction.Instruction
+import proguard.classfile.instruction.visitor.InstructionVisitor
+import proguard.classfile.instruction.visitor.MultiInstructionVisitor
+import proguard.classfile.util.BranchTargetFinder
+import proguard.classfile.util.InstructionSequenceMatcher.A
+import proguard.classfile.util.InstructionSequenceMatcher.X
+
+class InstructionSequencesReplacerTest : BehaviorSpec({
+    Given("A set of peephole patterns") {
+        val builder = InstructionSequenceBuilder()
+        val patterns = arrayOf(
+            arrayOf(builder.iload(X).iload(X).instructions(), builder.iload(X).dup().instructions()),
+            arrayOf(builder.iconst(A).pop().instructions()),
+            arrayOf(builder.nop().instructions()),
+            arrayOf(builder.iload(X).iconst_1().iadd().istore(X).instructions(), builder.iinc(X, 1).instructions()),
+        )
+        val constants = builder.constants()
+
+        fun createMethod(): Pair<ProgramClass, ProgramMethod> {
+            val classBuilder = ClassBuilder(CLASS_VERSION_1_8, PUBLIC, "Test", "java/lang/Object")
+            val method = classBuilder.addAndReturnMethod(PUBLIC or STATIC, "test", "(I)I", 50) {
+                it
+                    .iconst_2()
+                    .pop()
+                    .nop()
+                    .iload_0()
+                    .iload_0()
+                    .iadd()
+                    .istore_0()
+                    .iload_0()
+                    .iconst_1()
+                    .iadd()
+                    .istore_0()
+                    .bipush(42)
+                    .pop()
+                    .iload_0()
+                    .ireturn()
+            }
+            return Pair(classBuilder.programClass, method)
+        }
+
+        fun replace(programClass: ProgramClass, replacer: (BranchTargetFinder, CodeAttributeEditor) -> InstructionVisitor) {
+            val branchTargetFinder = BranchTargetFinder()
+            val codeAttributeEditor = CodeAttributeEditor()
+            programClass.methodsAccept(
+                AllAttributeVisitor(
+                    PeepholeEditor(branchTargetFinder, codeAttributeEditor, replacer(branchTargetFinder, codeAttributeEditor)),
+                ),
+            )
+        }
+
+        When("The patterns are replaced in a method with a single replacer for all patterns") {
+            val (programClass, method) = createMethod()
+            replace(programClass) { branchTargetFinder, codeAttributeEditor ->
+                InstructionSequencesReplacer(constants, patterns, branchTargetFinder, codeAttributeEditor)
+            }
+
+            val (referenceClass, referenceMethod) = createMethod()
+            replace(referenceClass) { branchTargetFinder, codeAttributeEditor ->
+                MultiInstructionVisitor(
+                    *patterns.map { pattern ->
+                        InstructionSequenceReplacer(
+                            constants,
+                            pattern[0],
+                            constants,
+                            if (pattern.size > 1) pattern[1] else arrayOf<Instruction>(),
+                            branchTargetFinder,
+                            codeAttributeEditor,
+                        )
+                    }.toTypedArray(),
+                )
+            }
+
+            val code = method.attributes[0] as CodeAttribute
+            val referenceCode = referenceMethod.attributes[0] as CodeAttribute
+
+            Then("The matching sequences are replaced") {
+                code.u4codeLength shouldBe 9
+            }
+
+            Then("The code is the same as with a separate replacer for each pattern") {
+                code.code.copyOf(code.u4codeLength) shouldBe referenceCode.code.copyOf(referenceCode.u4codeLength)
+            }
+        }
+    }
+})
@@ -0,0 +1,138 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.classfile.instruction
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.collections.shouldNotBeEmpty
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import proguard.classfile.AccessConstants.PUBLIC
+import proguard.classfile.AccessConstants.STATIC
+import proguard.classfile.Clazz
+import proguard.classfile.Method
+import proguard.classfile.VersionConstants.CLASS_VERSION_1_8
+import proguard.classfile.attribute.Attribute
+import proguard.classfile.attribute.CodeAttribute
+import proguard.classfile.attribute.visitor.AllAttributeVisitor
+import proguard.classfile.attribute.visitor.AttributeVisitor
+import proguard.classfile.editor.ClassBuilder
+import proguard.classfile.instruction.visitor.InstructionVisitor
+import proguard.classfile.visitor.AllMethodVisitor
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+
+class ReusingInstructionFactoryTest : BehaviorSpec({
+    Given("Methods with all kinds of instructions") {
+        val (programClassPool, _) = ClassPoolBuilder.fromSource(
+            JavaSource(
+                "Test.java",
+                """
+                public class Test {
+                    public static int test(int a, long b, String s) {
+                        int result = 0;
+                        for (int i = 0; i < a; i++) {
+                            switch (i) {
+                                case 0: result += 1; break;
+                                case 1: result += 2; break;
+                                case 2: result += 3; break;
+                            }
+                            switch (s.length()) {
+                                case 10: result -= 1; break;
+                                case 1000: result -= 2; break;
+                            }
+                            result += (int) b + s.hashCode() + 100000;
+                        }
+                        return result > 0 ? result : -result;
+                    }
+                }
+                """.trimIndent(),
+            ),
+            javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+        )
+
+        val classBuilder = ClassBuilder(CLASS_VERSION_1_8, PUBLIC, "Wide", "java/lang/Object")
+        classBuilder.addMethod(PUBLIC or STATIC, "wide", "()I", 50) {
+            it
+                .sipush(1000)
+                .istore(300)
+                .iinc(300, 1000)
+                .iload(300)
+                .ireturn()
+        }
+        programClassPool.addClass(classBuilder.programClass)
+
+        val codeAttributes = mutableListOf<Triple<Clazz, Method, CodeAttribute>>()
+        programClassPool.classesAccept(
+            AllMethodVisitor(
+                AllAttributeVisitor(object : AttributeVisitor {
+                    override fun visitAnyAttribute(clazz: Clazz, attribute: Attribute) {}
+
+                    override fun visitCodeAttribute(clazz: Clazz, method: Method, codeAttribute: CodeAttribute) {
+                        codeAttributes.add(Triple(clazz, method, codeAttribute))
+                    }
+                }),
+            ),
+        )
+
+        When("The instructions are created with a reusing factory") {
+            val instructionFactory = ReusingInstructionFactory()
+
+            Then("They are the same as the instructions of the instruction factory") {
+                codeAttributes.shouldNotBeEmpty()
+                codeAttributes.forEach { (_, _, codeAttribute) ->
+                    var offset = 0
+                    while (offset < codeAttribute.u4codeLength) {
+                        val expected = InstructionFactory.create(codeAttribute.code, offset)
+                        val actual = instructionFactory.create(codeAttribute.code, offset)
+
+                        actual.javaClass shouldBe expected.javaClass
+                        actual shouldBe expected
+                        actual.toString(offset) shouldBe expected.toString(offset)
+                        actual.length(offset) shouldBe expected.length(offset)
+
+                        offset += expected.length(offset)
+                    }
+                }
+            }
+
+            Then("Instructions of the same kind are the same instance") {
+                val code = byteArrayOf(Instruction.OP_ICONST_0, Instruction.OP_ICONST_1)
+                instructionFactory.create(code, 1) shouldBeSameInstanceAs instructionFactory.create(code, 0)
+            }
+        }
+
+        When("The instructions are visited with a reusing factory") {
+            fun visitedInstructions(
+                clazz: Clazz,
+                method: Method,
+                codeAttribute: CodeAttribute,
+                instructionFactory: ReusingInstructionFactory?,
+            ): List<String> {
+                val instructions = mutableListOf<String>()
+                val instructionVisitor = object : InstructionVisitor {
+                    override fun visitAnyInstruction(clazz: Clazz, method: Method, codeAttribute: CodeAttribute, offset: Int, instruction: Instruction) {
+                        instructions.add(instruction.toString(offset))
+                    }
+                }
+                if (instructionFactory == null) {
+                    codeAttribute.instructionsAccept(clazz, method, instructionVisitor)
+                } else {
+                    codeAttribute.instructionsAccept(clazz, method, instructionVisitor, instructionFactory)
+                }
+                return instructions
+            }
+
+            Then("The same instructions are visited") {
+                val instructionFactory = ReusingInstructionFactory()
+                codeAttributes.forEach { (clazz, method, codeAttribute) ->
+                    visitedInstructions(clazz, method, codeAttribute, instructionFactory) shouldBe
+                        visitedInstructions(clazz, method, codeAttribute, null)
+                }
+            }
+        }
+    }
+})
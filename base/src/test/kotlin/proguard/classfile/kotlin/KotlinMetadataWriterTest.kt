@@ -22,7 +22,10 @@ import io.kotest.core.spec.style.BehaviorSpec
 import io.kotest.matchers.shouldBe
 import io.mockk.spyk
 import io.mockk.verify
+import proguard.classfile.ClassPool
 import proguard.classfile.MethodSignature
+import proguard.classfile.io.ProgramClassWriter
+import proguard.classfile.io.kotlin.KotlinMetadataWriter
 import proguard.classfile.io.kotlin.KotlinMetadataWriter.HIGHEST_ALLOWED_TO_WRITE
 import proguard.classfile.io.kotlin.KotlinMetadataWriter.LATEST_STABLE_SUPPORTED
 import proguard.classfile.kotlin.visitor.AllFunctionVisitor
@@ -31,10 +34,13 @@ import proguard.classfile.kotlin.visitor.KotlinFunctionVisitor
 import proguard.classfile.kotlin.visitor.KotlinMetadataVisitor
 import proguard.classfile.kotlin.visitor.KotlinTypeVisitor
 import proguard.classfile.util.kotlin.KotlinMetadataInitializer
+import proguard.classfile.visitor.ParallelAllClassVisitor
 import proguard.testutils.ClassPoolBuilder
 import proguard.testutils.JavaSource
 import proguard.testutils.KotlinSource
 import proguard.testutils.ReWritingMetadataVisitor
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
 
 /**
  * Tests that the KotlinMetadataWriter correctly writes metadata to the
@@ -207,4 +213,36 @@ class KotlinMetadataWriterTest : BehaviorSpec({
             }
         }
     }
+
+    Given("Kotlin classes that are written in parallel") {
+        val source = KotlinSource(
+            "Test.kt",
+            """
+            fun foo() = "foo"
+
+            class Foo(val bar: Int) {
+                fun baz(x: String) = x + bar
+            }
+
+            typealias fooAlias = Foo
+            """.trimIndent(),
+        )
+        val (sequentialClassPool, _) = ClassPoolBuilder.fromSource(source)
+        val (parallelClassPool, _) = ClassPoolBuilder.fromSource(source)
+
+        sequentialClassPool.classesAccept(KotlinMetadataWriter { _, _ -> })
+        parallelClassPool.accept(ParallelAllClassVisitor { KotlinMetadataWriter { _, _ -> } })
+
+        fun ClassPool.classBytes(className: String): ByteArray {
+            val outputStream = ByteArrayOutputStream()
+            getClass(className).accept(ProgramClassWriter(DataOutputStream(outputStream)))
+            return outputStream.toByteArray()
+        }
+
+        Then("the classes should be the same as when they are written sequentially") {
+            sequentialClassPool.classNames().forEach {
+                parallelClassPool.classBytes(it) shouldBe sequentialClassPool.classBytes(it)
+            }
+        }
+    }
 })
@@ -0,0 +1,39 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.classfile.util
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.shouldBe
+
+class DescriptorClassEnumerationTest : BehaviorSpec({
+    Given("A method signature with primitive, generic, inner and array class types") {
+        val descriptor = "(ILjava/util/Map<TK;TV;>.Entry<Ljava/lang/String;>;[Ljava/lang/Object;)V"
+        val classNames = listOf("java/util/Map", "java/util/Map\$Entry", "java/lang/String", "java/lang/Object")
+
+        When("The class names are counted") {
+            val enumeration = DescriptorClassEnumeration(descriptor)
+
+            Then("The count is the number of class names") {
+                enumeration.classCount() shouldBe classNames.size
+            }
+        }
+
+        When("The fluff is skipped") {
+            val enumeration = DescriptorClassEnumeration(descriptor)
+            val enumeratedClassNames = mutableListOf<String>()
+            enumeration.skipFluff()
+            while (enumeration.hasMoreClassNames()) {
+                enumeratedClassNames.add(enumeration.nextClassName())
+                enumeration.skipFluff()
+            }
+
+            Then("The class names are the same as with the fluff") {
+                enumeratedClassNames shouldBe classNames
+            }
+        }
+    }
+})
@@ -0,0 +1,87 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.classfile.util
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.shouldBe
+
+class InternalTypeEnumerationTest : BehaviorSpec({
+    Given("A method signature with primitive, array, class and generic types") {
+        val descriptor = "<T:Ljava/lang/Object;>(J[[ILjava/util/List<TT;>;[Ljava/lang/String;TT;)V"
+        val types = listOf("J", "[[I", "Ljava/util/List<TT;>;", "[Ljava/lang/String;", "TT;")
+
+        When("The types are skipped") {
+            val enumeration = InternalTypeEnumeration(descriptor)
+            val skippedTypes = mutableListOf<String>()
+            val kinds = mutableListOf<Char>()
+            val dimensions = mutableListOf<Int>()
+            val sizes = mutableListOf<Int>()
+            val classNames = mutableListOf<String?>()
+            while (enumeration.hasMoreTypes()) {
+                enumeration.skipType()
+                skippedTypes.add(descriptor.substring(enumeration.typeStartIndex(), enumeration.typeEndIndex()))
+                kinds.add(enumeration.typeKind())
+                dimensions.add(enumeration.typeArrayDimension())
+                sizes.add(enumeration.typeSize())
+                classNames.add(
+                    if (enumeration.classNameStartIndex() < 0) {
+                        null
+                    } else {
+                        descriptor.substring(enumeration.classNameStartIndex(), enumeration.classNameEndIndex())
+                    },
+                )
+            }
+
+            Then("Their indices correspond to the types") {
+                skippedTypes shouldBe types
+            }
+
+            Then("Their kinds, dimensions and sizes are correct") {
+                kinds shouldBe listOf('J', 'I', 'L', 'L', 'T')
+                dimensions shouldBe listOf(0, 2, 0, 1, 0)
+                sizes shouldBe listOf(2, 1, 1, 1, 1)
+            }
+
+            Then("Their class names are correct") {
+                classNames shouldBe listOf(null, null, "java/util/List", "java/lang/String", null)
+            }
+
+            Then("The return type is still available") {
+                enumeration.returnType() shouldBe "V"
+            }
+        }
+
+        When("The types are counted") {
+            val enumeration = InternalTypeEnumeration(descriptor)
+
+            Then("The count and size are correct") {
+                enumeration.typeCount() shouldBe 5
+                enumeration.typesSize() shouldBe 6
+            }
+
+            Then("The enumeration still returns all types") {
+                enumeration.asSequence().toList() shouldBe types
+            }
+        }
+    }
+
+    Given("A method descriptor with a long parameter") {
+        val descriptor = "(IJLjava/lang/String;)V"
+
+        Then("The variable indices and parameter numbers are correct") {
+            ClassUtil.internalMethodVariableIndex(descriptor, true, 2) shouldBe 3
+            ClassUtil.internalMethodVariableIndex(descriptor, false, 2) shouldBe 4
+            ClassUtil.internalMethodParameterNumber(descriptor, true, 3) shouldBe 2
+            ClassUtil.internalMethodParameterNumber(descriptor, true, 4) shouldBe -1
+        }
+
+        Then("The parameter types are correct") {
+            ClassUtil.internalMethodParameterType(descriptor, 1) shouldBe "J"
+            ClassUtil.internalMethodParameterType(descriptor, 2) shouldBe "Ljava/lang/String;"
+        }
+    }
+})
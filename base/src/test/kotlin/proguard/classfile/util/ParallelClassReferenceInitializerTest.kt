@@ -0,0 +1,110 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.classfile.util
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.collections.shouldNotBeEmpty
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.shouldNotBe
+import proguard.classfile.ClassPool
+import proguard.classfile.Clazz
+import proguard.classfile.kotlin.KotlinFunctionMetadata
+import proguard.classfile.kotlin.KotlinMetadata
+import proguard.classfile.kotlin.visitor.AllFunctionVisitor
+import proguard.classfile.kotlin.visitor.KotlinFunctionVisitor
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+import proguard.testutils.KotlinSource
+
+class ParallelClassReferenceInitializerTest : BehaviorSpec({
+    class CollectingInvalidReferenceVisitor : InvalidReferenceVisitor {
+        val references = mutableListOf<String>()
+
+        override fun visitMissingClass(referencingClazz: Clazz, reference: String) {
+            references.add("missing class ${referencingClazz.name} -> $reference")
+        }
+
+        override fun visitProgramDependency(referencingClazz: Clazz, dependency: Clazz) {
+            references.add("program dependency ${referencingClazz.name} -> ${dependency.name}")
+        }
+
+        override fun visitAnyMissingMember(referencingClazz: Clazz, reference: Clazz, name: String, type: String) {
+            references.add("missing member ${referencingClazz.name} -> ${reference.name}.$name$type")
+        }
+    }
+
+    Given("Program classes with references to a missing class") {
+        val (programClassPool, libraryClassPool) = ClassPoolBuilder.fromSource(
+            JavaSource(
+                "A.java",
+                """
+                public class A {
+                    public void a(B b) { b.b(); new C().c(); }
+                }
+                """.trimIndent(),
+            ),
+            JavaSource("B.java", "public class B { public void b() {} }"),
+            JavaSource(
+                "C.java",
+                """
+                public class C {
+                    public B b;
+                    public void c() { b = new B(); b.b(); }
+                }
+                """.trimIndent(),
+            ),
+            JavaSource("D.java", "public class D extends C { public void d() { b.b(); c(); } }"),
+            javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+        )
+
+        val classPool = ClassPool()
+        programClassPool.classesAccept { if (it.name != "B") classPool.addClass(it) }
+
+        When("The references are initialized sequentially and in parallel") {
+            val sequentialVisitor = CollectingInvalidReferenceVisitor()
+            classPool.classesAccept(ClassReferenceInitializer(classPool, libraryClassPool, false, sequentialVisitor))
+
+            val parallelVisitor = CollectingInvalidReferenceVisitor()
+            classPool.accept(ParallelClassReferenceInitializer(classPool, libraryClassPool, false, parallelVisitor))
+
+            Then("The invalid references are reported") {
+                parallelVisitor.references.shouldNotBeEmpty()
+            }
+
+            Then("The invalid references are reported in the same order") {
+                parallelVisitor.references shouldBe sequentialVisitor.references
+            }
+        }
+    }
+
+    Given("A Kotlin function with an uninitialized referenced method") {
+        val (programClassPool, libraryClassPool) = ClassPoolBuilder.fromSource(
+            KotlinSource("Test.kt", """fun foo() = "bar""""),
+        )
+
+        val referencedMethodResetter = object : KotlinFunctionVisitor {
+            override fun visitAnyFunction(clazz: Clazz, metadata: KotlinMetadata, func: KotlinFunctionMetadata) {
+                func.referencedMethod = null
+            }
+        }
+        programClassPool.classesAccept { it.kotlinMetadataAccept(AllFunctionVisitor(referencedMethodResetter)) }
+
+        When("The references are initialized in parallel") {
+            programClassPool.accept(ParallelClassReferenceInitializer(programClassPool, libraryClassPool))
+
+            Then("The referenced method of the function is initialized") {
+                programClassPool.getClass("TestKt").kotlinMetadataAccept(
+                    AllFunctionVisitor(object : KotlinFunctionVisitor {
+                        override fun visitAnyFunction(clazz: Clazz, metadata: KotlinMetadata, func: KotlinFunctionMetadata) {
+                            func.referencedMethod shouldNotBe null
+                        }
+                    }),
+                )
+            }
+        }
+    }
+})
@@ -0,0 +1,47 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.classfile.util
+
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import proguard.classfile.Clazz
+import proguard.classfile.ProgramClass
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+
+class ParallelClassSubHierarchyInitializerTest : StringSpec({
+    val programClassPool = ClassPoolBuilder.fromSource(
+        JavaSource(
+            "Hierarchy.java",
+            """
+            interface I { }
+            interface J extends I { }
+            class A implements I { }
+            class B extends A implements J { }
+            class C extends A { }
+            class D extends B implements I, J { }
+            class E extends C { }
+            class F extends A implements J { }
+            """.trimIndent(),
+        ),
+        javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+    ).programClassPool
+
+    fun subClasses(clazz: Clazz) = (clazz as ProgramClass).subClasses.copyOf(clazz.subClassCount).toList()
+
+    "The subclasses are the same as with the sequential initializer" {
+        programClassPool.accept(ClassSubHierarchyInitializer())
+        val expectedSubClasses = programClassPool.classes().associateWith { subClasses(it) }
+
+        programClassPool.classes().forEach { (it as ProgramClass).subClassCount = 0 }
+        programClassPool.accept(ParallelClassSubHierarchyInitializer(3))
+
+        programClassPool.classes().forEach { subClasses(it) shouldBe expectedSubClasses[it] }
+        subClasses(programClassPool.getClass("A")) shouldContainExactly listOf("B", "C", "F").map { programClassPool.getClass(it) }
+    }
+})
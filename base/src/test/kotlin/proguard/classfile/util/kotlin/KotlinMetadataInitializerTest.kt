@@ -20,11 +20,15 @@ package proguard.classfile.util.kotlin
 
 import io.kotest.core.spec.style.FreeSpec
 import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeInstanceOf
 import io.mockk.spyk
 import io.mockk.verify
 import proguard.classfile.Clazz
 import proguard.classfile.MethodSignature
+import proguard.classfile.ProgramClass
 import proguard.classfile.editor.MemberReferenceFixer
+import proguard.classfile.io.kotlin.KotlinMetadataWriter
+import proguard.classfile.kotlin.KotlinClassKindMetadata
 import proguard.classfile.kotlin.KotlinSyntheticClassKindMetadata
 import proguard.classfile.kotlin.visitor.AllFunctionVisitor
 import proguard.classfile.kotlin.visitor.KotlinFunctionVisitor
@@ -318,4 +322,73 @@ class KotlinMetadataInitializerTest : FreeSpec({
             }
         }
     }
+
+    "Given a class with lazily initialized Kotlin metadata" - {
+        fun createClass(): ProgramClass {
+            val (programClassPool, _) = ClassPoolBuilder.fromSource(
+                JavaSource(
+                    "TestLazyMetadata.java",
+                    """
+                        @kotlin.Metadata(
+                            d1 = {"\u0000\n\n\u0002\u0018\u0002\n\u0002\u0010\u0000\n\u0000\u0018\u00002\u00020\u0001B\u0005¢\u0006\u0002\u0010\u0002"},
+                            d2 = {"LTestLazyMetadata;", "", "()V"},
+                            k = 1,
+                            mv = {1, 4, 0}
+                        )
+                        public class TestLazyMetadata { }
+                    """.trimIndent(),
+                ),
+                initialize = false,
+            )
+            val clazz = programClassPool.getClass("TestLazyMetadata") as ProgramClass
+            clazz.accept(KotlinMetadataInitializer({ _, _ -> }, true))
+            return clazz
+        }
+
+        "Then the metadata should not be parsed before it is visited" {
+            createClass().kotlinMetadata.shouldBeInstanceOf<LazyKotlinMetadata>()
+        }
+
+        "Then the metadata should be parsed when it is visited" {
+            val clazz = createClass()
+            val visitor = spyk<KotlinMetadataVisitor>()
+            clazz.kotlinMetadataAccept(visitor)
+
+            verify(exactly = 1) {
+                visitor.visitKotlinClassMetadata(
+                    clazz,
+                    withArg {
+                        it.className shouldBe "TestLazyMetadata"
+                        it.mv shouldBe arrayOf(1, 4, 0)
+                    },
+                )
+            }
+            clazz.kotlinMetadata.shouldBeInstanceOf<KotlinClassKindMetadata>()
+        }
+
+        "Then the writer should write back the raw metadata without parsing it" {
+            val clazz = createClass()
+            val lazyKotlinMetadata = clazz.kotlinMetadata as LazyKotlinMetadata
+            clazz.accept(KotlinMetadataWriter { _, _ -> })
+
+            lazyKotlinMetadata.isInitialized shouldBe false
+
+            val visitor = spyk<KotlinMetadataVisitor>()
+            clazz.accept(
+                MultiClassVisitor(
+                    KotlinMetadataInitializer { _, _ -> },
+                    ReferencedKotlinMetadataVisitor(visitor),
+                ),
+            )
+
+            verify(exactly = 1) {
+                visitor.visitKotlinClassMetadata(
+                    clazz,
+                    withArg {
+                        it.className shouldBe "TestLazyMetadata"
+                    },
+                )
+            }
+        }
+    }
 })
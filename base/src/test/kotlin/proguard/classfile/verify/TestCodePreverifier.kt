@@ -11,11 +11,15 @@ import io.kotest.core.spec.style.FreeSpec
 import io.kotest.matchers.shouldBe
 import io.mockk.spyk
 import io.mockk.verify
+import proguard.classfile.AccessConstants.PUBLIC
+import proguard.classfile.AccessConstants.STATIC
 import proguard.classfile.Clazz
 import proguard.classfile.Member
 import proguard.classfile.Method
 import proguard.classfile.ProgramClass
 import proguard.classfile.ProgramMember
+import proguard.classfile.ProgramMethod
+import proguard.classfile.VersionConstants.CLASS_VERSION_1_8
 import proguard.classfile.attribute.Attribute
 import proguard.classfile.attribute.CodeAttribute
 import proguard.classfile.attribute.preverification.MoreZeroFrame
@@ -26,10 +30,13 @@ import proguard.classfile.attribute.preverification.visitor.StackMapFrameVisitor
 import proguard.classfile.attribute.preverification.visitor.VerificationTypeVisitor
 import proguard.classfile.attribute.visitor.AllAttributeVisitor
 import proguard.classfile.attribute.visitor.AttributeVisitor
+import proguard.classfile.editor.ClassBuilder
+import proguard.classfile.instruction.Instruction
 import proguard.classfile.visitor.AllMethodVisitor
 import proguard.classfile.visitor.MemberVisitor
 import proguard.preverify.CodePreverifier
 import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.CodeAttributeFinder
 import proguard.testutils.JavaSource
 
 class TestCodePreverifier : FreeSpec({
@@ -273,4 +280,66 @@ class TestCodePreverifier : FreeSpec({
             }
         }
     }
+
+    "Given a method without branches and with unreachable code" - {
+        val classBuilder = ClassBuilder(CLASS_VERSION_1_8, PUBLIC, "Test", "java/lang/Object")
+        classBuilder.addMethod(PUBLIC or STATIC, "test", "()I", 50) {
+            it
+                .iconst_0()
+                .ireturn()
+                .iconst_1()
+                .ireturn()
+        }
+        val clazz = classBuilder.programClass
+        val method = clazz.findMethod("test", "()I") as ProgramMethod
+        val codeAttribute = CodeAttributeFinder.findCodeAttribute(method)!!
+
+        AllAttributeVisitor(CodePreverifier(false)).visitProgramMethod(clazz, method)
+
+        "Then the unreachable code should be removed" {
+            codeAttribute.u4codeLength shouldBe 2
+            codeAttribute.code[0] shouldBe Instruction.OP_ICONST_0
+            codeAttribute.code[1] shouldBe Instruction.OP_IRETURN
+        }
+
+        "Then the method should not have a stack map table" {
+            codeAttribute.getAttribute(clazz, Attribute.STACK_MAP_TABLE) shouldBe null
+        }
+    }
+
+    "Given a method without branches and with junk bytes in unreachable code" - {
+        val classBuilder = ClassBuilder(CLASS_VERSION_1_8, PUBLIC, "Test", "java/lang/Object")
+        classBuilder.addMethod(PUBLIC or STATIC, "test", "()I", 50) {
+            it
+                .iconst_0()
+                .ireturn()
+        }
+        val clazz = classBuilder.programClass
+        val method = clazz.findMethod("test", "()I") as ProgramMethod
+        val codeAttribute = CodeAttributeFinder.findCodeAttribute(method)!!
+
+        // A goto outside the code and an ldc with an invalid constant index.
+        codeAttribute.code = byteArrayOf(
+            Instruction.OP_ICONST_0,
+            Instruction.OP_IRETURN,
+            Instruction.OP_GOTO,
+            0x70,
+            0x00,
+            Instruction.OP_LDC,
+            0xff.toByte(),
+        )
+        codeAttribute.u4codeLength = codeAttribute.code.size
+
+        AllAttributeVisitor(CodePreverifier(false)).visitProgramMethod(clazz, method)
+
+        "Then the unreachable code should be removed" {
+            codeAttribute.u4codeLength shouldBe 2
+            codeAttribute.code[0] shouldBe Instruction.OP_ICONST_0
+            codeAttribute.code[1] shouldBe Instruction.OP_IRETURN
+        }
+
+        "Then the method should not have a stack map table" {
+            codeAttribute.getAttribute(clazz, Attribute.STACK_MAP_TABLE) shouldBe null
+        }
+    }
 })
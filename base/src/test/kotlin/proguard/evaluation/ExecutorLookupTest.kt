@@ -2,12 +2,15 @@ package proguard.evaluation
 
 import io.kotest.core.spec.style.FunSpec
 import io.kotest.matchers.shouldBe
+import proguard.classfile.ClassPool
 import proguard.classfile.MethodDescriptor
 import proguard.classfile.MethodSignature
 import proguard.evaluation.executor.Executor
 import proguard.evaluation.executor.MethodExecutionInfo
 import proguard.evaluation.executor.StringReflectionExecutor
+import proguard.evaluation.value.ParticularValueFactory
 import proguard.testutils.ClassPoolBuilder.Companion.libraryClassPool
+import proguard.testutils.findMethod
 import java.util.stream.Collectors
 
 class ExecutorLookupTest : FunSpec({
@@ -55,4 +58,22 @@ class ExecutorLookupTest : FunSpec({
             ),
         ) shouldBe true
     }
+
+    test("Dynamic method lookup uses the type of the instance") {
+        val stringExecutor = StringReflectionExecutor.Builder(libraryClassPool).build()
+        val lookup = ExecutorLookup(listOf(stringExecutor))
+
+        val javaLangString = libraryClassPool.getClass("java/lang/String")
+        val javaLangCharSequence = libraryClassPool.getClass("java/lang/CharSequence")
+        val valueFactory = ParticularValueFactory(ParticularReferenceValueFactory())
+        val string = valueFactory.createReferenceValue("Ljava/lang/String;", javaLangString, false, false)
+
+        // CharSequence#length() isn't supported, but String#length() is.
+        val info = MethodExecutionInfo(ClassPool(), libraryClassPool, javaLangCharSequence, javaLangCharSequence.findMethod("length"), null, string)
+        lookup.lookupExecutor(info) shouldBe stringExecutor
+        info.resolvedTargetSignature shouldBe MethodSignature("java/lang/String", "length", "()I")
+
+        val unknownObject = valueFactory.createReferenceValue("Ljava/lang/Object;", libraryClassPool.getClass("java/lang/Object"), false, false)
+        lookup.lookupExecutor(MethodExecutionInfo(ClassPool(), libraryClassPool, javaLangCharSequence, javaLangCharSequence.findMethod("length"), null, unknownObject)) shouldBe null
+    }
 })
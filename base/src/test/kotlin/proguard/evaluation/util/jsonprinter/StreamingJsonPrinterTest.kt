@@ -0,0 +1,102 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.evaluation.util.jsonprinter
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
+import proguard.classfile.attribute.Attribute.CODE
+import proguard.classfile.attribute.visitor.AllAttributeVisitor
+import proguard.classfile.attribute.visitor.AttributeNameFilter
+import proguard.evaluation.PartialEvaluator
+import proguard.evaluation.util.PartialEvaluatorStateTracker
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+import proguard.util.ListParser
+import proguard.util.NameParser
+import java.io.StringReader
+import java.io.StringWriter
+
+class StreamingJsonPrinterTest : BehaviorSpec({
+    Given("A class with several methods") {
+        val (programClassPool, _) = ClassPoolBuilder.fromSource(
+            JavaSource(
+                "Test.java",
+                """
+                public class Test {
+                    public int loop(int n) {
+                        int sum = 0;
+                        for (int i = 0; i < n; i++) {
+                            sum += i % 3 == 0 ? i : -i;
+                        }
+                        return sum;
+                    }
+                    public String text(Object o) {
+                        try {
+                            return o.toString();
+                        } catch (RuntimeException e) {
+                            return "exception";
+                        }
+                    }
+                    public int constant() {
+                        return 42;
+                    }
+                }
+                """.trimIndent(),
+            ),
+            javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+        )
+        val programClass = programClassPool.getClass("Test")
+
+        fun evaluate(tracker: PartialEvaluatorStateTracker) {
+            val partialEvaluator = PartialEvaluator.Builder.create().setStateTracker(tracker).build()
+            programClass.methodsAccept(AllAttributeVisitor(AttributeNameFilter(CODE, partialEvaluator)))
+        }
+
+        When("The methods are traced with a JsonPrinter and with a StreamingJsonPrinter") {
+            val jsonPrinter = JsonPrinter()
+            evaluate(jsonPrinter)
+
+            val trace = StringWriter()
+            evaluate(StreamingJsonPrinter(trace))
+
+            Then("Each code attribute is written on a separate line") {
+                trace.toString().lines().filter { it.isNotEmpty() } shouldHaveSize 4
+            }
+
+            Then("The converted trace is the same as the JSON of the JsonPrinter") {
+                val json = StringWriter()
+                StreamingJsonPrinter.convertTrace(StringReader(trace.toString()), json)
+                json.toString() shouldBe jsonPrinter.json
+            }
+        }
+
+        When("The methods are traced with a filter, sampling and a limit") {
+            val trace = StringWriter()
+            evaluate(
+                StreamingJsonPrinter(
+                    trace,
+                    null,
+                    ListParser(NameParser()).parse("loop,text"),
+                    2,
+                    5,
+                ),
+            )
+            val lines = trace.toString().lines().filter { it.isNotEmpty() }
+
+            Then("Only every second matching method is traced") {
+                lines shouldHaveSize 1
+                lines[0] shouldContain "\"method\":\"loop(I)I\""
+            }
+
+            Then("The trace is truncated") {
+                lines[0] shouldContain "Trace truncated after 5 instruction evaluations"
+            }
+        }
+    }
+})
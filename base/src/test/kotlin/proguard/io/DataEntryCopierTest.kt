@@ -0,0 +1,67 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.io
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.shouldBe
+import java.io.File
+import java.io.FileOutputStream
+import java.util.zip.CRC32
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+
+class DataEntryCopierTest : BehaviorSpec({
+    val entries = (0 until 10).associate { index -> "entry$index" to ByteArray(index * 1000) { (it % 7).toByte() } }
+
+    val inputFile = File.createTempFile("input", ".jar").apply { deleteOnExit() }
+    ZipOutputStream(FileOutputStream(inputFile)).use { zipOutputStream ->
+        entries.entries.forEachIndexed { index, (name, data) ->
+            val zipEntry = ZipEntry(name)
+            if (index % 3 == 0) {
+                // Store some of the entries.
+                val crc32 = CRC32()
+                crc32.update(data)
+                zipEntry.method = ZipEntry.STORED
+                zipEntry.size = data.size.toLong()
+                zipEntry.crc = crc32.value
+            }
+            zipOutputStream.putNextEntry(zipEntry)
+            zipOutputStream.write(data)
+            zipOutputStream.closeEntry()
+        }
+    }
+
+    fun copy(outputFile: File, copyCompressedData: Boolean) {
+        val writer = ZipWriter(FixedFileWriter(outputFile))
+        JarReader(DataEntryCopier(writer, copyCompressedData)).read(FileDataEntry(inputFile))
+        writer.close()
+    }
+
+    Given("A jar copied with its compressed data") {
+        val outputFile = File.createTempFile("output", ".jar").apply { deleteOnExit() }
+        copy(outputFile, true)
+
+        Then("The entries have the original data") {
+            ZipFile(outputFile).use { zipFile ->
+                entries.forEach { (name, data) ->
+                    zipFile.getInputStream(zipFile.getEntry(name)).readBytes() shouldBe data
+                }
+            }
+        }
+
+        Then("The compressed entries keep their original compressed sizes") {
+            ZipFile(inputFile).use { inputZipFile ->
+                ZipFile(outputFile).use { outputZipFile ->
+                    inputZipFile.entries().asSequence().filter { it.method == ZipEntry.DEFLATED }.forEach {
+                        outputZipFile.getEntry(it.name).compressedSize shouldBe it.compressedSize
+                    }
+                }
+            }
+        }
+    }
+})
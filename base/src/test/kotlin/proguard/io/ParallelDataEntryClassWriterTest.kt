@@ -0,0 +1,88 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.io
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.shouldBe
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+import proguard.util.FileNameParser
+import proguard.util.ListParser
+import java.io.File
+import java.util.zip.ZipFile
+
+class ParallelDataEntryClassWriterTest : BehaviorSpec({
+    Given("A class pool with several classes") {
+        val (programClassPool, _) = ClassPoolBuilder.fromSource(
+            *(0 until 20).map { index ->
+                JavaSource(
+                    "Test$index.java",
+                    """
+                    public class Test$index {
+                        public int test(int a) {
+                            return a > $index ? a * $index : new Test${(index + 1) % 20}().test(a + 1);
+                        }
+                    }
+                    """.trimIndent(),
+                )
+            }.toTypedArray(),
+            javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+        )
+
+        fun zipEntries(file: File): List<Pair<String, List<Byte>>> =
+            ZipFile(file).use { zipFile ->
+                zipFile.entries().asSequence().map { it.name to zipFile.getInputStream(it).readBytes().toList() }.toList()
+            }
+
+        When("The classes are written sequentially and in parallel") {
+            val sequentialFile = File.createTempFile("sequential", ".jar").apply { deleteOnExit() }
+            val sequentialWriter = ZipWriter(FixedFileWriter(sequentialFile))
+            programClassPool.classesAccept(DataEntryClassWriter(sequentialWriter))
+            sequentialWriter.close()
+
+            val parallelFile = File.createTempFile("parallel", ".jar").apply { deleteOnExit() }
+            val parallelWriter = ZipWriter(FixedFileWriter(parallelFile))
+            programClassPool.accept(
+                ParallelDataEntryClassWriter(FileDataEntry(File(""), File("")), parallelWriter, 4),
+            )
+            parallelWriter.close()
+
+            Then("All classes are written") {
+                zipEntries(parallelFile) shouldHaveSize 20
+            }
+
+            Then("The written entries are the same, in the same order") {
+                zipEntries(parallelFile) shouldBe zipEntries(sequentialFile)
+            }
+        }
+
+        When("The classes are written in parallel to a writer that discards some of them") {
+            val filter = DataEntryNameFilter(ListParser(FileNameParser()).parse("Test1*.class"))
+
+            val sequentialFile = File.createTempFile("sequential", ".jar").apply { deleteOnExit() }
+            val sequentialWriter = ZipWriter(FixedFileWriter(sequentialFile))
+            programClassPool.classesAccept(DataEntryClassWriter(FilteredDataEntryWriter(filter, sequentialWriter)))
+            sequentialWriter.close()
+
+            val parallelFile = File.createTempFile("parallel", ".jar").apply { deleteOnExit() }
+            val parallelWriter = ZipWriter(FixedFileWriter(parallelFile))
+            programClassPool.accept(
+                ParallelDataEntryClassWriter(FileDataEntry(File(""), File("")), FilteredDataEntryWriter(filter, parallelWriter), 4),
+            )
+            parallelWriter.close()
+
+            Then("Only the accepted classes are written") {
+                zipEntries(parallelFile) shouldHaveSize 11
+            }
+
+            Then("The written entries are the same, in the same order") {
+                zipEntries(parallelFile) shouldBe zipEntries(sequentialFile)
+            }
+        }
+    }
+})
@@ -0,0 +1,61 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.io
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.shouldBe
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.OutputStream
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.zip.ZipInputStream
+
+class ZipOutputTest : BehaviorSpec({
+
+    fun writeZip(executorService: ExecutorService?): ByteArray {
+        val byteArrayOutputStream = ByteArrayOutputStream()
+        val zipOutput = ZipOutput(byteArrayOutputStream, null, 4, false, "Comment", executorService)
+
+        // Keep a few entries open at the same time.
+        val openOutputStreams = ArrayDeque<OutputStream>()
+        for (index in 0 until 100) {
+            val outputStream = zipOutput.createOutputStream("entry$index", index % 3 != 0, 4, 0)
+            outputStream.write(ByteArray(index * 37) { (it % (index + 1)).toByte() })
+            openOutputStreams.addLast(outputStream)
+            if (openOutputStreams.size > 2) {
+                openOutputStreams.removeFirst().close()
+            }
+        }
+        openOutputStreams.forEach { it.close() }
+        zipOutput.close()
+
+        return byteArrayOutputStream.toByteArray()
+    }
+
+    Given("A zip output that compresses its entries in parallel") {
+        val executorService = Executors.newFixedThreadPool(4)
+        val bytes = writeZip(executorService)
+        executorService.shutdown()
+
+        Then("The zip data are the same as with sequential compression") {
+            bytes shouldBe writeZip(null)
+        }
+
+        Then("The entries can be read back") {
+            val zipInputStream = ZipInputStream(ByteArrayInputStream(bytes))
+            var count = 0
+            while (true) {
+                val entry = zipInputStream.nextEntry ?: break
+                val index = entry.name.removePrefix("entry").toInt()
+                zipInputStream.readBytes() shouldBe ByteArray(index * 37) { (it % (index + 1)).toByte() }
+                count++
+            }
+            count shouldBe 100
+        }
+    }
+})
@@ -0,0 +1,77 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.preverify
+
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.matchers.shouldBe
+import proguard.classfile.ClassPool
+import proguard.classfile.attribute.visitor.AllAttributeVisitor
+import proguard.classfile.io.ProgramClassWriter
+import proguard.classfile.visitor.AllMethodVisitor
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+
+class ParallelCodePreverifierTest : BehaviorSpec({
+    fun createClassPool(): ClassPool = ClassPoolBuilder.fromSource(
+        JavaSource(
+            "A.java",
+            """
+            public class A {
+                private final Object value;
+                public A(boolean b) {
+                    this(b ? new B() : new C(b ? 1 : 2));
+                }
+                public A(Object value) {
+                    this.value = value;
+                }
+                public Object get(int i) {
+                    Object result = i > 0 ? new B() : new C(i);
+                    try {
+                        result.hashCode();
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                    return result;
+                }
+            }
+            """.trimIndent(),
+        ),
+        JavaSource("B.java", "public class B { public int b(long l) { return l > 0 ? 1 : 0; } }"),
+        JavaSource(
+            "C.java",
+            """
+            public class C extends B {
+                public C(int i) { for (int j = 0; j < i; j++) { System.out.println(j); } }
+            }
+            """.trimIndent(),
+        ),
+        javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+    ).programClassPool
+
+    fun classBytes(classPool: ClassPool): Map<String, List<Byte>> =
+        classPool.classes().associate { clazz ->
+            val outputStream = ByteArrayOutputStream()
+            clazz.accept(ProgramClassWriter(DataOutputStream(outputStream)))
+            clazz.name to outputStream.toByteArray().toList()
+        }
+
+    Given("Classes with branches, exception handlers and initializers") {
+        val sequentialClassPool = createClassPool()
+        val parallelClassPool = createClassPool()
+
+        When("The classes are preverified sequentially and in parallel") {
+            sequentialClassPool.classesAccept(AllMethodVisitor(AllAttributeVisitor(CodePreverifier(false))))
+            parallelClassPool.accept(ParallelCodePreverifier(false))
+
+            Then("The classes are the same") {
+                classBytes(parallelClassPool) shouldBe classBytes(sequentialClassPool)
+            }
+        }
+    }
+})
@@ -0,0 +1,101 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ */
+
+package proguard.util
+
+import io.kotest.core.spec.style.FunSpec
+import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotest.matchers.shouldBe
+import proguard.analysis.CallResolver
+import proguard.analysis.datastructure.callgraph.CallGraph
+import proguard.analysis.datastructure.callgraph.CompactCallGraph
+import proguard.classfile.ClassPool
+import proguard.classfile.MethodSignature
+import proguard.testutils.ClassPoolBuilder
+import proguard.testutils.JavaSource
+
+class CompactCallGraphWalkerTest : FunSpec({
+
+    // Setup: a call graph with a cycle between even() and odd().
+    val classPool = ClassPoolBuilder.fromSource(
+        JavaSource(
+            "A.java",
+            """
+            public class A
+            {
+                public static void main()
+                {
+                    even(10);
+                    log();
+                    log();
+                }
+
+                public static boolean even(int n)
+                {
+                    return n == 0 || odd(n - 1);
+                }
+
+                public static boolean odd(int n)
+                {
+                    return n != 0 && even(n - 1);
+                }
+
+                public static void log()
+                {
+                }
+
+                public static void unused()
+                {
+                    log();
+                }
+            }
+            """.trimIndent(),
+        ),
+        javacArguments = listOf("-source", "1.8", "-target", "1.8"),
+    ).programClassPool
+    val callGraph = CallGraph()
+    classPool.classesAccept(
+        CallResolver.Builder(classPool, ClassPool(), callGraph)
+            .setEvaluateAllCode(true)
+            .build(),
+    )
+    val compactCallGraph = CompactCallGraph.of(callGraph, true)
+
+    val main = MethodSignature("A", "main", "()V")
+    val even = MethodSignature("A", "even", "(I)Z")
+    val odd = MethodSignature("A", "odd", "(I)Z")
+    val log = MethodSignature("A", "log", "()V")
+    val unused = MethodSignature("A", "unused", "()V")
+
+    test("Duplicate calls are stored as a single edge") {
+        val mainId = compactCallGraph.getMethodId(main)
+        compactCallGraph.getSuccessorCount(mainId) shouldBe 2
+        compactCallGraph.getCalls(mainId).size shouldBe 3
+    }
+
+    test("Successors are the same as in the original call graph") {
+        CallGraphWalker.getSuccessors(compactCallGraph, main) shouldBe CallGraphWalker.getSuccessors(callGraph, main)
+    }
+
+    test("Predecessors are the same as in the original call graph") {
+        CallGraphWalker.getPredecessors(compactCallGraph, log) shouldBe CallGraphWalker.getPredecessors(callGraph, log)
+    }
+
+    test("Reachability is computed transitively") {
+        CallGraphWalker.isReachable(compactCallGraph, main, odd) shouldBe true
+        CallGraphWalker.isReachable(compactCallGraph, odd, main) shouldBe false
+        CallGraphWalker.isReachable(compactCallGraph, main, unused) shouldBe false
+    }
+
+    test("Strongly connected components contain the cycles") {
+        val components = CallGraphWalker.getStronglyConnectedComponents(compactCallGraph)
+        components.first { even in it } shouldContainExactlyInAnyOrder listOf(even, odd)
+        components.first { main in it } shouldBe listOf(main)
+        // Callees come before their callers.
+        (components.indexOf(listOf(log)) < components.indexOf(listOf(main))) shouldBe true
+        (components.indexOfFirst { even in it } < components.indexOf(listOf(main))) shouldBe true
+    }
+})
@@ -0,0 +1,94 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package proguard.util
+
+import io.kotest.core.spec.style.FreeSpec
+import io.kotest.matchers.shouldBe
+
+class OrMatcherTest : FreeSpec({
+
+    "Given a list of many class name patterns" - {
+        val patterns = listOf(
+            "com/example/A",
+            "com/example/B",
+            "com/example/**Test",
+            "com/example/sub/C",
+            "com/example/sub/**",
+            "org/example/D",
+            "org/example/E",
+            "org/*/F",
+            "net/example/G",
+            "",
+        )
+        val wildcardManager = WildcardManager()
+        val matcher = OrMatcher(*patterns.map { ClassNameParser(wildcardManager).parse(it) }.toTypedArray())
+
+        "When matched against strings that match one of the patterns" - {
+            "Then they should match" {
+                listOf(
+                    "com/example/A",
+                    "com/example/B",
+                    "com/example/ATest",
+                    "com/example/sub/C",
+                    "com/example/sub/D",
+                    "org/example/E",
+                    "org/other/F",
+                    "net/example/G",
+                    "",
+                ).forEach { matcher.matches(it) shouldBe true }
+            }
+        }
+
+        "When matched against strings that don't match any of the patterns" - {
+            "Then they should not match" {
+                listOf(
+                    "com/example/AB",
+                    "com/example",
+                    "com/example/sub",
+                    "org/example/F/G",
+                    "org/example/G",
+                    "net/example/G2",
+                    "c",
+                ).forEach { matcher.matches(it) shouldBe false }
+            }
+        }
+
+        "When matched against a string that matches several patterns" - {
+            "Then the first matching pattern determines the matched wildcards" {
+                val matchedMatcher = ClassNameParser(wildcardManager).parse("<1>")
+
+                matcher.matches("com/example/sub/CTest") shouldBe true
+                matchedMatcher.matches("sub/C") shouldBe true
+            }
+        }
+    }
+
+    "Given a caching matcher" - {
+        val matcher = CachingStringMatcher(ListParser(ClassNameParser()).parse("com/example/**,!**"))
+
+        "When matched against the same strings repeatedly" - {
+            "Then the results should be the same" {
+                repeat(2) {
+                    matcher.matches("com/example/A") shouldBe true
+                    matcher.matches("org/example/A") shouldBe false
+                }
+            }
+        }
+    }
+})
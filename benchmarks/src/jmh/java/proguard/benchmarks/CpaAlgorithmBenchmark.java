@@ -0,0 +1,75 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import proguard.analysis.cpa.algorithms.CpaAlgorithm;
+import proguard.analysis.cpa.jvm.cfa.JvmCfa;
+import proguard.analysis.cpa.jvm.util.CfaUtil;
+import proguard.analysis.cpa.util.ValueAnalyzer;
+import proguard.classfile.ClassPool;
+import proguard.classfile.MethodSignature;
+
+/**
+ * This benchmark measures how fast the {@link CpaAlgorithm} of a {@link ValueAnalyzer} analyzes
+ * methods, and how fast the control flow automaton that it needs is created.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class CpaAlgorithmBenchmark {
+  @Param({"10", "100"})
+  public int classCount;
+
+  private ClassPool programClassPool;
+  private ClassPool libraryClassPool;
+  private JvmCfa cfa;
+
+  @Setup
+  public void setUp() {
+    // Each benchmark thread analyzes its own classes.
+    programClassPool = SyntheticClasses.createClassPool(classCount);
+    libraryClassPool = new ClassPool();
+    cfa = CfaUtil.createInterproceduralCfa(programClassPool, libraryClassPool);
+  }
+
+  /** Creates the interprocedural control flow automaton of the class pool. */
+  @Benchmark
+  public JvmCfa createCfa() {
+    return CfaUtil.createInterproceduralCfa(programClassPool, libraryClassPool);
+  }
+
+  /**
+   * Runs the value analysis on the method of each class that invokes a method of the next class.
+   */
+  @Benchmark
+  public void analyzeValues(Blackhole blackhole) {
+    for (int index = 0; index < classCount; index++) {
+      ValueAnalyzer valueAnalyzer =
+          new ValueAnalyzer.Builder(cfa, programClassPool, libraryClassPool).build();
+      blackhole.consume(
+          valueAnalyzer.analyze(
+              new MethodSignature(
+                  SyntheticClasses.className(index),
+                  SyntheticClasses.DESCRIBE_METHOD_NAME,
+                  SyntheticClasses.DESCRIBE_METHOD_DESCRIPTOR)));
+    }
+  }
+}
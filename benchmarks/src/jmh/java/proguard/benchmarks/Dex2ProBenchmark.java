@@ -0,0 +1,72 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import proguard.classfile.ClassPool;
+import proguard.classfile.visitor.ClassPoolFiller;
+import proguard.dexfile.converter.Dex2Pro;
+import proguard.io.D8ClassConverter;
+import proguard.io.DexClassReader;
+import proguard.io.StreamingDataEntry;
+
+/**
+ * This benchmark measures how fast {@link DexClassReader} parses dex files and converts them to
+ * classes with {@link Dex2Pro}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class Dex2ProBenchmark {
+  private static final int MIN_SDK_VERSION = 24;
+
+  @Param({"100", "1000"})
+  public int classCount;
+
+  @Param({"false", "true"})
+  public boolean readCode;
+
+  private byte[] dexFile;
+
+  @Setup
+  public void setUp() throws IOException {
+    // Convert the synthetic classes to a sample dex file with D8.
+    D8ClassConverter.D8DexFile d8DexFile =
+        new D8ClassConverter.D8DexFile(null, MIN_SDK_VERSION, false);
+    for (byte[] classFile : SyntheticClasses.createClassFiles(classCount)) {
+      d8DexFile.addProgramClassData(classFile);
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    d8DexFile.writeTo(outputStream);
+    dexFile = outputStream.toByteArray();
+  }
+
+  /** Converts all classes of the dex file. The dex file is shared between the benchmark threads. */
+  @Benchmark
+  public ClassPool readDexFile() throws IOException {
+    ClassPool classPool = new ClassPool();
+    new DexClassReader(readCode, new ClassPoolFiller(classPool))
+        .read(new StreamingDataEntry("classes.dex", new ByteArrayInputStream(dexFile)));
+    return classPool;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import proguard.classfile.ClassPool;
+import proguard.classfile.attribute.visitor.AllAttributeVisitor;
+import proguard.classfile.visitor.AllMethodVisitor;
+import proguard.classfile.visitor.ClassVisitor;
+import proguard.evaluation.BasicInvocationUnit;
+import proguard.evaluation.PartialEvaluator;
+import proguard.evaluation.value.BasicValueFactory;
+import proguard.evaluation.value.ParticularValueFactory;
+import proguard.evaluation.value.ValueFactory;
+
+/** This benchmark measures how fast {@link PartialEvaluator} evaluates the code of classes. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class PartialEvaluatorBenchmark {
+  @Param({"100", "1000"})
+  public int classCount;
+
+  @Param({"basic", "particular"})
+  public String valueFactory;
+
+  private ClassPool programClassPool;
+  private ClassVisitor evaluator;
+
+  @Setup
+  public void setUp() {
+    // Each benchmark thread evaluates its own classes.
+    programClassPool = SyntheticClasses.createClassPool(classCount);
+
+    ValueFactory factory =
+        valueFactory.equals("particular") ? new ParticularValueFactory() : new BasicValueFactory();
+
+    evaluator =
+        new AllMethodVisitor(
+            new AllAttributeVisitor(
+                new PartialEvaluator(factory, new BasicInvocationUnit(factory), true)));
+  }
+
+  /** Evaluates the code of all methods in the class pool. */
+  @Benchmark
+  public void evaluateClasses() {
+    programClassPool.classesAccept(evaluator);
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import proguard.classfile.ProgramClass;
+import proguard.classfile.io.ProgramClassReader;
+
+/** This benchmark measures how fast {@link ProgramClassReader} parses class files. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ProgramClassReaderBenchmark {
+  @Param({"100", "1000"})
+  public int classCount;
+
+  private List<byte[]> classFiles;
+
+  @Setup
+  public void setUp() {
+    classFiles = SyntheticClasses.createClassFiles(classCount);
+  }
+
+  /** Parses all class files. The class files are shared between the benchmark threads. */
+  @Benchmark
+  public void readClasses(Blackhole blackhole) {
+    for (byte[] classFile : classFiles) {
+      ProgramClass programClass = new ProgramClass();
+      programClass.accept(
+          new ProgramClassReader(new DataInputStream(new ByteArrayInputStream(classFile))));
+      blackhole.consume(programClass);
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import proguard.classfile.*;
+import proguard.classfile.editor.ClassBuilder;
+import proguard.classfile.editor.CompactCodeAttributeComposer;
+import proguard.classfile.io.ProgramClassWriter;
+
+/**
+ * This utility class generates synthetic class pools of configurable size for the benchmarks.
+ *
+ * <p>Each class has a loop, a switch, and a method that creates a string with a string builder and
+ * an invocation of the next class. The generated classes are deterministic, so results of different
+ * runs can be compared.
+ */
+public class SyntheticClasses {
+  private static final String CLASS_NAME_PREFIX = "proguard/benchmarks/synthetic/Class";
+
+  public static final String SUM_METHOD_NAME = "sum";
+  public static final String SUM_METHOD_DESCRIPTOR = "(I)I";
+  public static final String SELECT_METHOD_NAME = "select";
+  public static final String SELECT_METHOD_DESCRIPTOR = "(I)I";
+  public static final String DESCRIBE_METHOD_NAME = "describe";
+  public static final String DESCRIBE_METHOD_DESCRIPTOR = "(I)Ljava/lang/String;";
+
+  private SyntheticClasses() {}
+
+  /** Returns the name of the synthetic class with the given index. */
+  public static String className(int index) {
+    return CLASS_NAME_PREFIX + index;
+  }
+
+  /** Creates a class pool with the given number of synthetic classes. */
+  public static ClassPool createClassPool(int classCount) {
+    ClassPool classPool = new ClassPool();
+    for (int index = 0; index < classCount; index++) {
+      classPool.addClass(createClass(index, classCount));
+    }
+
+    return classPool;
+  }
+
+  /** Returns the serialized class files of the given number of synthetic classes. */
+  public static List<byte[]> createClassFiles(int classCount) {
+    List<byte[]> classFiles = new ArrayList<>(classCount);
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    for (int index = 0; index < classCount; index++) {
+      byteArrayOutputStream.reset();
+      createClass(index, classCount)
+          .accept(new ProgramClassWriter(new DataOutputStream(byteArrayOutputStream)));
+      classFiles.add(byteArrayOutputStream.toByteArray());
+    }
+
+    return classFiles;
+  }
+
+  /** Creates the synthetic class with the given index. */
+  public static ProgramClass createClass(int index, int classCount) {
+    // The last class doesn't invoke any other class, so invocations
+    // don't form cycles.
+    String nextClassName = index + 1 < classCount ? className(index + 1) : null;
+
+    return new ClassBuilder(
+            VersionConstants.CLASS_VERSION_1_6,
+            AccessConstants.PUBLIC,
+            className(index),
+            ClassConstants.NAME_JAVA_LANG_OBJECT)
+        .addMethod(
+            AccessConstants.PUBLIC,
+            ClassConstants.METHOD_NAME_INIT,
+            ClassConstants.METHOD_TYPE_INIT,
+            10,
+            code ->
+                code.aload_0()
+                    .invokespecial(
+                        ClassConstants.NAME_JAVA_LANG_OBJECT,
+                        ClassConstants.METHOD_NAME_INIT,
+                        ClassConstants.METHOD_TYPE_INIT)
+                    .return_())
+        .addMethod(
+            AccessConstants.PUBLIC | AccessConstants.STATIC,
+            SUM_METHOD_NAME,
+            SUM_METHOD_DESCRIPTOR,
+            50,
+            code -> composeSum(code, index))
+        .addMethod(
+            AccessConstants.PUBLIC | AccessConstants.STATIC,
+            SELECT_METHOD_NAME,
+            SELECT_METHOD_DESCRIPTOR,
+            50,
+            code -> composeSelect(code, index))
+        .addMethod(
+            AccessConstants.PUBLIC | AccessConstants.STATIC,
+            DESCRIBE_METHOD_NAME,
+            DESCRIBE_METHOD_DESCRIPTOR,
+            50,
+            code -> composeDescribe(code, index, nextClassName))
+        .getProgramClass();
+  }
+
+  // Small utility methods.
+
+  /**
+   * Composes the equivalent of this java code:
+   *
+   * <pre>
+   *     int sum = index;
+   *     for (int i = 0; i < n; i++) sum += i;
+   *     return sum;
+   * </pre>
+   */
+  private static void composeSum(CompactCodeAttributeComposer code, int index) {
+    CompactCodeAttributeComposer.Label loop = code.createLabel();
+    CompactCodeAttributeComposer.Label end = code.createLabel();
+
+    code.pushInt(index)
+        .istore_1()
+        .iconst_0()
+        .istore_2()
+        .label(loop)
+        .iload_2()
+        .iload_0()
+        .ificmpge(end)
+        .iload_1()
+        .iload_2()
+        .iadd()
+        .istore_1()
+        .iinc(2, 1)
+        .goto_(loop)
+        .label(end)
+        .iload_1()
+        .ireturn();
+  }
+
+  /**
+   * Composes the equivalent of this java code:
+   *
+   * <pre>
+   *     switch (n % 4) {
+   *       case 0:  return index;
+   *       case 1:  return index + 1;
+   *       case 2:  return index + 2;
+   *       case 3:  return index + 3;
+   *       default: return -1;
+   *     }
+   * </pre>
+   */
+  private static void composeSelect(CompactCodeAttributeComposer code, int index) {
+    CompactCodeAttributeComposer.Label defaultLabel = code.createLabel();
+    CompactCodeAttributeComposer.Label[] caseLabels = new CompactCodeAttributeComposer.Label[4];
+    for (int caseIndex = 0; caseIndex < caseLabels.length; caseIndex++) {
+      caseLabels[caseIndex] = code.createLabel();
+    }
+
+    code.iload_0().iconst_4().irem().tableswitch(defaultLabel, 0, 3, caseLabels);
+
+    for (int caseIndex = 0; caseIndex < caseLabels.length; caseIndex++) {
+      code.label(caseLabels[caseIndex]).pushInt(index + caseIndex).ireturn();
+    }
+
+    code.label(defaultLabel).iconst_m1().ireturn();
+  }
+
+  /**
+   * Composes the equivalent of this java code:
+   *
+   * <pre>
+   *     return new StringBuilder().append("Class&lt;index&gt;:").append(NextClass.sum(n)).toString();
+   * </pre>
+   */
+  private static void composeDescribe(
+      CompactCodeAttributeComposer code, int index, String nextClassName) {
+    code.new_("java/lang/StringBuilder")
+        .dup()
+        .invokespecial(
+            "java/lang/StringBuilder",
+            ClassConstants.METHOD_NAME_INIT,
+            ClassConstants.METHOD_TYPE_INIT)
+        .ldc("Class" + index + ":")
+        .invokevirtual(
+            "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;");
+
+    if (nextClassName != null) {
+      code.iload_0()
+          .invokestatic(nextClassName, SUM_METHOD_NAME, SUM_METHOD_DESCRIPTOR)
+          .invokevirtual("java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;");
+    }
+
+    code.invokevirtual("java/lang/StringBuilder", "toString", "()Ljava/lang/String;").areturn();
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * ProGuardCORE -- library to process Java bytecode.
+ *
+ * Copyright (c) 2002-2026 Guardsquare NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package proguard.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import proguard.io.ZipOutput;
+
+/**
+ * This benchmark measures how fast {@link ZipOutput} writes zip files, compressing their entries in
+ * the calling thread or in parallel.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ZipOutputBenchmark {
+  @Param({"100", "1000"})
+  public int entryCount;
+
+  @Param({"false", "true"})
+  public boolean compress;
+
+  /** The number of threads that compress the entries, or 0 to compress them in the writer. */
+  @Param({"0", "4"})
+  public int compressionThreads;
+
+  private List<byte[]> entries;
+  private ByteArrayOutputStream outputStream;
+  private ExecutorService executorService;
+
+  @Setup
+  public void setUp() {
+    // Use class files as realistic entry contents.
+    entries = SyntheticClasses.createClassFiles(entryCount);
+    outputStream = new ByteArrayOutputStream();
+    executorService =
+        compressionThreads > 0 ? Executors.newFixedThreadPool(compressionThreads) : null;
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (executorService != null) {
+      executorService.shutdown();
+    }
+  }
+
+  /** Writes a zip file with all entries to memory. */
+  @Benchmark
+  public int writeZipFile() throws IOException {
+    outputStream.reset();
+
+    ZipOutput zipOutput = new ZipOutput(outputStream, null, 1, false, null, executorService);
+    for (int index = 0; index < entryCount; index++) {
+      try (OutputStream entryOutputStream =
+          zipOutput.createOutputStream(SyntheticClasses.className(index) + ".class", compress, 0)) {
+        entryOutputStream.write(entries.get(index));
+      }
+    }
+    zipOutput.close();
+
+    return outputStream.size();
+  }
+}